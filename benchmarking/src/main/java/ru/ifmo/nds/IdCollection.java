@@ -43,6 +43,7 @@ public final class IdCollection {
     }
 
     static {
+        addNonDominatedSortingFactory("adaptive", Adaptive.getInstance());
         addNonDominatedSortingFactory("bos.proteek", BestOrderSort.getProteekImplementation());
         addNonDominatedSortingFactory("bos.improved", BestOrderSort.getImprovedImplementation());
         addNonDominatedSortingFactory("corner", CornerSort.getInstance());
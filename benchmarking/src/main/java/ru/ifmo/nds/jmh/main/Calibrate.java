@@ -0,0 +1,167 @@
+package ru.ifmo.nds.jmh.main;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import ru.ifmo.nds.IdCollection;
+import ru.ifmo.nds.adaptive.Candidate;
+import ru.ifmo.nds.jmh.UniformHyperplanes;
+
+/**
+ * Measures the algorithms on a grid of (n, d, number of fronts) on the current machine,
+ * and writes a JSON file with the measured times for every grid cell,
+ * and the coefficients of the cost model of the adaptive sorting fitted to the measurements.
+ *
+ * The output file can be given to the adaptive sorting using the system property "nds.adaptive.cost.model".
+ * The adaptive sorting then chooses by the times measured in the nearest cell within the grid,
+ * and by the fitted cost model outside of it.
+ */
+public class Calibrate {
+    private static final List<String> defaultN = Arrays.asList("10", "100", "1000", "10000");
+    private static final List<String> defaultD = Arrays.asList("2", "3", "5", "10");
+    private static final List<String> defaultF = Arrays.asList("1", "2", "n/2", "n");
+
+    private static List<String> split(String s) {
+        List<String> rv = new ArrayList<>();
+        StringTokenizer st = new StringTokenizer(s, ",");
+        while (st.hasMoreTokens()) {
+            rv.add(st.nextToken());
+        }
+        return rv;
+    }
+
+    private static int frontCount(String f, int n) {
+        if (f.equals("n")) {
+            return n;
+        } else if (f.startsWith("n/")) {
+            return n / Integer.parseInt(f.substring(2));
+        } else {
+            return Integer.parseInt(f);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        Locale.setDefault(Locale.US);
+        Set<String> allAlgorithms = IdCollection.getAllNonDominatedSortingIDs();
+        Set<String> algorithms = new TreeSet<>(allAlgorithms);
+        algorithms.remove("adaptive");
+
+        List<String> n = new ArrayList<>(defaultN);
+        List<String> d = new ArrayList<>(defaultD);
+        List<String> f = new ArrayList<>(defaultF);
+        String outputFile = "calibration.json";
+        int forks = 1;
+
+        boolean failed = false;
+        for (String s : args) {
+            if (s.startsWith("--out=")) {
+                outputFile = s.substring("--out=".length());
+            } else if (s.startsWith("--algo=")) {
+                algorithms.clear();
+                for (String token : split(s.substring("--algo=".length()))) {
+                    if (!allAlgorithms.contains(token)) {
+                        failed = true;
+                        System.err.println("Error: unknown algorithm '" + token + "' passed to --algo");
+                    } else {
+                        algorithms.add(token);
+                    }
+                }
+            } else if (s.startsWith("--n=")) {
+                n = split(s.substring("--n=".length()));
+            } else if (s.startsWith("--d=")) {
+                d = split(s.substring("--d=".length()));
+            } else if (s.startsWith("--f=")) {
+                f = split(s.substring("--f=".length()));
+            } else if (s.startsWith("--forks=")) {
+                forks = Integer.parseInt(s.substring("--forks=".length()));
+            } else {
+                failed = true;
+                System.err.println("Error: unknown command '" + s + "'");
+            }
+        }
+
+        failed |= n.isEmpty() || d.isEmpty() || f.isEmpty() || algorithms.isEmpty();
+
+        if (failed) {
+            System.err.println("Usage: Calibrate [--algo=<algo1>,<algo2>,...] [--n=<n1>,...] [--d=<d1>,...] "
+                    + "[--f=<f1>,...] [--forks=<forks>] [--out=<file>]");
+            System.exit(1);
+        }
+
+        final String[] stub = new String[0];
+        Options options = new OptionsBuilder()
+                .include(UniformHyperplanes.class.getName())
+                .param("algorithmId", algorithms.toArray(stub))
+                .param("n", n.toArray(stub))
+                .param("d", d.toArray(stub))
+                .param("f", f.toArray(stub))
+                .forks(forks)
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        // Cell key is "n d f", value maps algorithm IDs to the average time of a single call, in seconds.
+        Map<String, Map<String, Double>> cells = new TreeMap<>();
+        for (RunResult result : results) {
+            String key = result.getParams().getParam("n")
+                    + " " + result.getParams().getParam("d")
+                    + " " + result.getParams().getParam("f");
+            cells.computeIfAbsent(key, k -> new TreeMap<>())
+                    .put(result.getParams().getParam("algorithmId"), result.getPrimaryResult().getScore());
+        }
+
+        try (PrintStream out = new PrintStream(outputFile)) {
+            out.println("{");
+            out.println("  \"finish-time\" : \"" + LocalDateTime.now() + "\",");
+            out.println("  \"cells\" : [");
+            int cellIndex = 0;
+            for (Map.Entry<String, Map<String, Double>> cell : cells.entrySet()) {
+                StringTokenizer st = new StringTokenizer(cell.getKey());
+                int cn = Integer.parseInt(st.nextToken());
+                int cd = Integer.parseInt(st.nextToken());
+                String cf = st.nextToken();
+                out.print("    { \"n\" : " + cn + ", \"d\" : " + cd + ", \"fronts\" : " + frontCount(cf, cn)
+                        + ", \"times\" : {");
+                int timeIndex = 0;
+                for (Map.Entry<String, Double> time : cell.getValue().entrySet()) {
+                    out.print((timeIndex++ == 0 ? " " : ", ") + "\"" + time.getKey() + "\" : " + time.getValue());
+                }
+                out.println(" } }" + (++cellIndex == cells.size() ? "" : ","));
+            }
+            out.println("  ],");
+
+            // The coefficient of a candidate is the geometric mean of the ratios of the measured times to the shape,
+            // which minimizes the squared error of the logarithms of the predicted times.
+            out.println("  \"coefficients\" : {");
+            List<String> coefficients = new ArrayList<>();
+            for (Candidate candidate : Candidate.values()) {
+                double logSum = 0;
+                int count = 0;
+                for (Map.Entry<String, Map<String, Double>> cell : cells.entrySet()) {
+                    Double time = cell.getValue().get(candidate.getId());
+                    if (time != null && time > 0) {
+                        StringTokenizer st = new StringTokenizer(cell.getKey());
+                        int cn = Integer.parseInt(st.nextToken());
+                        int cd = Integer.parseInt(st.nextToken());
+                        int fronts = frontCount(st.nextToken(), cn);
+                        logSum += Math.log(time / candidate.shape(cn, cd, fronts));
+                        ++count;
+                    }
+                }
+                if (count > 0) {
+                    coefficients.add("    \"" + candidate.getId() + "\" : " + Math.exp(logSum / count));
+                }
+            }
+            out.println(String.join(",\n", coefficients));
+            out.println("  }");
+            out.println("}");
+        }
+    }
+}
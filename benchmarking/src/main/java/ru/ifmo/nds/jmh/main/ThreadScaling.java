@@ -0,0 +1,111 @@
+package ru.ifmo.nds.jmh.main;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import ru.ifmo.nds.jmh.UniformHypercube;
+
+/**
+ * Measures how the parallel Jensen-Fortin-Buzdalov algorithm scales with the number of threads
+ * on large uniform hypercube instances.
+ */
+public class ThreadScaling {
+    private static final List<String> defaultBases = Arrays.asList("jfb.rbtree", "jfb.rbtree.hybrid.ens");
+    private static final List<String> defaultThreads = Arrays.asList("1", "2", "4", "8");
+    private static final List<String> defaultN = Arrays.asList("100000", "316228", "1000000");
+    private static final List<String> defaultD = Arrays.asList("3", "5", "7", "10");
+
+    private static List<String> parseList(String value) {
+        List<String> result = new ArrayList<>();
+        StringTokenizer st = new StringTokenizer(value, ",");
+        while (st.hasMoreTokens()) {
+            result.add(st.nextToken());
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        final String[] stub = new String[0];
+
+        List<String> bases = new ArrayList<>(defaultBases);
+        List<String> threads = new ArrayList<>(defaultThreads);
+        List<String> n = new ArrayList<>(defaultN);
+        List<String> d = new ArrayList<>(defaultD);
+
+        String outputFile = "jmh-thread-scaling.json";
+        boolean failed = false;
+
+        for (String s : args) {
+            if (s.startsWith("--out=")) {
+                outputFile = s.substring("--out=".length());
+            } else if (s.startsWith("--algo=")) {
+                bases = parseList(s.substring("--algo=".length()));
+            } else if (s.startsWith("--threads=")) {
+                threads = parseList(s.substring("--threads=".length()));
+            } else if (s.startsWith("--n=")) {
+                n = parseList(s.substring("--n=".length()));
+            } else if (s.startsWith("--d=")) {
+                d = parseList(s.substring("--d=".length()));
+            } else {
+                failed = true;
+                System.err.println("Error: unknown command '" + s + "'");
+            }
+        }
+
+        // The parallel versions are registered as "<base>.th<threads>" for up to nds.max.threads threads.
+        int maxThreads = 1;
+        Set<String> algorithms = new TreeSet<>();
+        for (String t : threads) {
+            int value;
+            try {
+                value = Integer.parseInt(t);
+            } catch (NumberFormatException ex) {
+                value = 0;
+            }
+            if (value < 1) {
+                failed = true;
+                System.err.println("Error: the number of threads must be a positive integer, found '" + t + "'");
+                continue;
+            }
+            maxThreads = Math.max(maxThreads, value);
+            for (String base : bases) {
+                algorithms.add(value == 1 ? base : base + ".th" + value);
+            }
+        }
+
+        failed |= algorithms.isEmpty() || n.isEmpty() || d.isEmpty();
+
+        if (failed) {
+            System.err.println("Usage: ThreadScaling [--algo=<base1>,<base2>,...] [--threads=<t1>,<t2>,...] "
+                    + "[--n=<n1>,<n2>,...] [--d=<d1>,<d2>,...] [--out=<file>]");
+            System.exit(1);
+        }
+
+        String tmpFile = outputFile + ".tmp";
+
+        Options options = new OptionsBuilder()
+                .include(UniformHypercube.class.getName())
+                .jvmArgsAppend("-Dnds.max.threads=" + maxThreads)
+                .param("algorithmId", algorithms.toArray(stub))
+                .param("n", n.toArray(stub))
+                .param("d", d.toArray(stub))
+                .forks(1)
+                .resultFormat(ResultFormatType.JSON)
+                .result(tmpFile)
+                .build();
+        new Runner(options).run();
+
+        File tmp = new File(tmpFile);
+        PatchWithOSHI.patch(tmp, new File(outputFile));
+        if (!tmp.delete()) {
+            System.err.println("Could not delete the temporary file: \"" + tmpFile + "\"");
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package ru.ifmo.nds;
+
+import java.nio.file.Paths;
+
+import ru.ifmo.nds.adaptive.AdaptiveSorting;
+import ru.ifmo.nds.adaptive.CostModel;
+
+public final class Adaptive {
+    private Adaptive() {}
+
+    public static NonDominatedSortingFactory getInstance() {
+        return ConfiguredHolder.INSTANCE;
+    }
+
+    public static NonDominatedSortingFactory getInstance(CostModel costModel) {
+        return (maximumPoints, maximumDimension) -> new AdaptiveSorting(maximumPoints, maximumDimension, costModel);
+    }
+
+    // The cost model is loaded once, on the first call to getInstance().
+    // If the property is set, it is read from this file, written by the calibration runner.
+    private static final class ConfiguredHolder {
+        private static final NonDominatedSortingFactory INSTANCE;
+
+        static {
+            String costModelFile = System.getProperty("nds.adaptive.cost.model");
+            INSTANCE = getInstance(costModelFile == null
+                    ? CostModel.getDefault()
+                    : CostModel.load(Paths.get(costModelFile)));
+        }
+    }
+}
@@ -20,6 +20,15 @@ public final class DeductiveSort {
 
         @Override
         protected void sortChecked(double[][] points, int[] ranks, int maximalMeaningfulRank) {
+            sortImpl(points, ranks, maximalMeaningfulRank, points.length);
+        }
+
+        @Override
+        protected int sortUntilCountChecked(double[][] points, int[] ranks, int count) {
+            return sortImpl(points, ranks, points.length, count);
+        }
+
+        private int sortImpl(double[][] points, int[] ranks, int maximalMeaningfulRank, int count) {
             final int[] indices = this.indices;
             final int n = points.length;
             final int dim = points[0].length;
@@ -57,7 +66,12 @@ public final class DeductiveSort {
                     }
                 }
                 from = last;
+                if (from >= count) {
+                    // The fronts found so far cover enough points, the remaining ones are left unranked.
+                    return rank;
+                }
             }
+            return maximalMeaningfulRank;
         }
     };
 
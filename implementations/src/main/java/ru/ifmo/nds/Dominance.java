@@ -0,0 +1,151 @@
+package ru.ifmo.nds;
+
+import java.util.Objects;
+
+/**
+ * This is the dominance relation which is used by non-dominated sorting.
+ *
+ * <ul>
+ *     <li>{@link #STRICT} is the Pareto dominance: a point dominates another one if it is not greater
+ *     in every objective and they are not equal. Equal points receive equal ranks.</li>
+ *     <li>{@link #WEAK} is the weak Pareto dominance: a point also dominates the points equal to it.
+ *     To keep the ranks well-defined, equal points dominate each other in the increasing order of their indices,
+ *     so equal points receive consecutive ranks, and every front contains no equal points.
+ *     Only some algorithms support this relation.</li>
+ *     <li>{@link #additiveEpsilon(double)} and {@link #multiplicativeEpsilon(double)} are the epsilon-box dominances
+ *     used by epsilon-MOEA archives: the objective space is divided into boxes, and a point dominates another one
+ *     if its box Pareto-dominates the box of the other point. Points from the same box receive equal ranks.
+ *     The points are snapped to their boxes before sorting, so every algorithm keeps its running time.</li>
+ * </ul>
+ */
+public final class Dominance {
+    private enum Kind {
+        STRICT, WEAK, ADDITIVE_EPSILON, MULTIPLICATIVE_EPSILON
+    }
+
+    /**
+     * The Pareto dominance, which is used by default.
+     */
+    public static final Dominance STRICT = new Dominance(Kind.STRICT, 0);
+
+    /**
+     * The weak Pareto dominance, where equal points are ordered by their indices.
+     */
+    public static final Dominance WEAK = new Dominance(Kind.WEAK, 0);
+
+    private final Kind kind;
+    private final double epsilon;
+    private final double logBase;
+
+    private Dominance(Kind kind, double epsilon) {
+        this.kind = kind;
+        this.epsilon = epsilon;
+        this.logBase = kind == Kind.MULTIPLICATIVE_EPSILON ? Math.log1p(epsilon) : 0;
+    }
+
+    /**
+     * Returns the additive epsilon-box dominance, where the box of a coordinate {@code x} is {@code floor(x / epsilon)}.
+     * @param epsilon the size of a box, which must be positive.
+     * @return the additive epsilon-box dominance.
+     */
+    public static Dominance additiveEpsilon(double epsilon) {
+        return new Dominance(Kind.ADDITIVE_EPSILON, checkEpsilon(epsilon));
+    }
+
+    /**
+     * Returns the multiplicative epsilon-box dominance, where the box of a coordinate {@code x}
+     * is {@code floor(log(x) / log(1 + epsilon))}. All coordinates of the sorted points must be positive.
+     * @param epsilon the relative size of a box, which must be positive.
+     * @return the multiplicative epsilon-box dominance.
+     */
+    public static Dominance multiplicativeEpsilon(double epsilon) {
+        return new Dominance(Kind.MULTIPLICATIVE_EPSILON, checkEpsilon(epsilon));
+    }
+
+    /**
+     * Returns whether this is the weak Pareto dominance.
+     * @return {@code true} if this is the weak Pareto dominance, {@code false} otherwise.
+     */
+    public boolean isWeak() {
+        return kind == Kind.WEAK;
+    }
+
+    /**
+     * Returns whether this dominance compares the epsilon-boxes of points.
+     * @return {@code true} if this is an epsilon-box dominance, {@code false} otherwise.
+     */
+    public boolean usesEpsilonBoxes() {
+        return kind == Kind.ADDITIVE_EPSILON || kind == Kind.MULTIPLICATIVE_EPSILON;
+    }
+
+    /**
+     * Returns the epsilon of this dominance, or zero if it does not use epsilon-boxes.
+     * @return the epsilon of this dominance.
+     */
+    public double getEpsilon() {
+        return epsilon;
+    }
+
+    /**
+     * Returns the box which contains the given coordinate, or the coordinate itself if this dominance
+     * does not use epsilon-boxes.
+     *
+     * @param coordinate the coordinate.
+     * @return the box of the coordinate.
+     */
+    public double toBox(double coordinate) {
+        double box;
+        switch (kind) {
+            case ADDITIVE_EPSILON:
+                box = Math.floor(coordinate / epsilon);
+                break;
+            case MULTIPLICATIVE_EPSILON:
+                if (coordinate <= 0) {
+                    throw new IllegalArgumentException("Multiplicative epsilon-dominance needs positive coordinates, but "
+                            + coordinate + " was found");
+                }
+                box = Math.floor(Math.log(coordinate) / logBase);
+                break;
+            default:
+                return coordinate;
+        }
+        if (Double.isInfinite(box)) {
+            throw new IllegalArgumentException("The box of the coordinate " + coordinate + " for " + this
+                    + " is too large to be represented");
+        }
+        return box;
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case STRICT:
+                return "strict dominance";
+            case WEAK:
+                return "weak dominance";
+            case ADDITIVE_EPSILON:
+                return "additive epsilon-dominance with epsilon = " + epsilon;
+            default:
+                return "multiplicative epsilon-dominance with epsilon = " + epsilon;
+        }
+    }
+
+    static NonDominatedSortingFactory withDominance(NonDominatedSortingFactory factory, Dominance dominance) {
+        Objects.requireNonNull(dominance, "The dominance must not be null");
+        if (dominance == STRICT) {
+            return factory;
+        }
+        return (int maximumPoints, int maximumDimension) -> {
+            NonDominatedSorting instance = factory.getInstance(maximumPoints, maximumDimension);
+            instance.setDominance(dominance);
+            return instance;
+        };
+    }
+
+    private static double checkEpsilon(double epsilon) {
+        if (!(epsilon > 0) || Double.isInfinite(epsilon)) {
+            throw new IllegalArgumentException("Epsilon must be positive and finite, but " + epsilon + " was given");
+        }
+        return epsilon;
+    }
+}
@@ -0,0 +1,324 @@
+package ru.ifmo.nds;
+
+import java.util.Arrays;
+
+import ru.ifmo.nds.util.DominanceHelper;
+
+/**
+ * This is a set of points which maintains their non-domination ranks under insertions and removals of single points,
+ * which is what steady-state evolutionary algorithms need.
+ *
+ * The fronts are stored as lists of points, similarly to the efficient non-dominated sort.
+ * When a point is inserted, its rank is found by binary search over the fronts, and only the points
+ * which it dominates, directly or through other moved points, are moved one front down.
+ * When a point is removed, only the points which it dominated can move one front up.
+ * Both operations take time proportional to the sizes of the fronts which are actually involved,
+ * which is typically much less than sorting the entire set again.
+ *
+ * Every point is identified by an integer, which is returned when the point is inserted,
+ * and which can be reused after the point is removed.
+ */
+public final class DynamicNonDominatedSorting {
+    private final int maximumPoints;
+    private final int dimension;
+
+    private final double[][] points;
+    private final int[] ranks;
+    private final int[] positionInFront;
+    private final int[] freeIds;
+    private int freeCount;
+
+    private int[][] fronts;
+    private int[] frontSizes;
+    private int nFronts;
+
+    private final int[] changed;
+    private int changedCount;
+    private int[] moving;
+    private int[] nextMoving;
+
+    /**
+     * Creates an empty set of points.
+     *
+     * @param maximumPoints the maximum number of points in the set.
+     * @param dimension the dimension of points.
+     */
+    public DynamicNonDominatedSorting(int maximumPoints, int dimension) {
+        if (maximumPoints < 0) {
+            throw new IllegalArgumentException("The maximum number of points must be non-negative");
+        }
+        if (dimension < 0) {
+            throw new IllegalArgumentException("The dimension must be non-negative");
+        }
+        this.maximumPoints = maximumPoints;
+        this.dimension = dimension;
+        points = new double[maximumPoints][];
+        ranks = new int[maximumPoints];
+        positionInFront = new int[maximumPoints];
+        freeIds = new int[maximumPoints];
+        fronts = new int[maximumPoints][];
+        frontSizes = new int[maximumPoints];
+        changed = new int[maximumPoints];
+        moving = new int[maximumPoints];
+        nextMoving = new int[maximumPoints];
+        clear();
+    }
+
+    /**
+     * Returns the maximum number of points in the set.
+     * @return the maximum number of points in the set.
+     */
+    public int getMaximumPoints() {
+        return maximumPoints;
+    }
+
+    /**
+     * Returns the dimension of points.
+     * @return the dimension of points.
+     */
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Returns the number of points in the set.
+     * @return the number of points in the set.
+     */
+    public int size() {
+        return maximumPoints - freeCount;
+    }
+
+    /**
+     * Returns the number of non-empty fronts.
+     * @return the number of non-empty fronts.
+     */
+    public int getNumberOfFronts() {
+        return nFronts;
+    }
+
+    /**
+     * Removes all points from the set.
+     */
+    public void clear() {
+        Arrays.fill(points, null);
+        for (int i = 0; i < maximumPoints; ++i) {
+            freeIds[i] = maximumPoints - 1 - i;
+        }
+        freeCount = maximumPoints;
+        Arrays.fill(frontSizes, 0);
+        nFronts = 0;
+        changedCount = 0;
+    }
+
+    /**
+     * Inserts a point into the set. The point is copied.
+     *
+     * @param point the point to be inserted.
+     * @return the identifier of the inserted point.
+     */
+    public int insert(double[] point) {
+        if (point.length != dimension) {
+            throw new IllegalArgumentException("The point has dimension " + point.length
+                    + ", but the dimension of points in the set is " + dimension);
+        }
+        for (double coordinate : point) {
+            if (Double.isNaN(coordinate) || Double.isInfinite(coordinate)) {
+                throw new IllegalArgumentException("Coordinates of points must not be NaN or Inf");
+            }
+        }
+        if (freeCount == 0) {
+            throw new IllegalStateException("The set already contains the maximum number of points, " + maximumPoints);
+        }
+        int id = freeIds[--freeCount];
+        points[id] = point.clone();
+        changedCount = 0;
+
+        int rank = findRank(points[id]);
+        int movingCount = 0;
+        if (rank < nFronts) {
+            movingCount = extractDominated(rank, id, 1);
+        }
+        addToFront(rank, id);
+
+        // The points dominated by the ones moved to the front below shall move further down.
+        while (movingCount > 0) {
+            ++rank;
+            int nextMovingCount = rank < nFronts ? extractDominated(rank, -1, movingCount) : 0;
+            for (int i = 0; i < movingCount; ++i) {
+                int moved = moving[i];
+                addToFront(rank, moved);
+                changed[changedCount++] = moved;
+            }
+            int[] tmp = moving;
+            moving = nextMoving;
+            nextMoving = tmp;
+            movingCount = nextMovingCount;
+        }
+        return id;
+    }
+
+    /**
+     * Removes a point from the set.
+     * @param id the identifier of the point to be removed.
+     */
+    public void remove(int id) {
+        checkId(id);
+        changedCount = 0;
+        int rank = ranks[id];
+        removeFromFront(rank, id);
+        moving[0] = id;
+        int movingCount = 1;
+
+        // The points which were dominated by the ones leaving the front can move up to this front.
+        while (movingCount > 0 && rank + 1 < nFronts) {
+            int[] nextFront = fronts[rank + 1];
+            int nextMovingCount = 0;
+            for (int i = 0; i < frontSizes[rank + 1]; ++i) {
+                int candidate = nextFront[i];
+                double[] candidatePoint = points[candidate];
+                if (isDominatedBySome(moving, movingCount, candidatePoint)
+                        && !isDominatedBySome(fronts[rank], frontSizes[rank], candidatePoint)) {
+                    nextMoving[nextMovingCount++] = candidate;
+                }
+            }
+            for (int i = 0; i < nextMovingCount; ++i) {
+                int moved = nextMoving[i];
+                removeFromFront(rank + 1, moved);
+                addToFront(rank, moved);
+                changed[changedCount++] = moved;
+            }
+            int[] tmp = moving;
+            moving = nextMoving;
+            nextMoving = tmp;
+            movingCount = nextMovingCount;
+            ++rank;
+        }
+        while (nFronts > 0 && frontSizes[nFronts - 1] == 0) {
+            --nFronts;
+        }
+
+        points[id] = null;
+        freeIds[freeCount++] = id;
+    }
+
+    /**
+     * Returns whether the given identifier refers to a point in the set.
+     * @param id the identifier.
+     * @return {@code true} if the point with the given identifier is in the set, {@code false} otherwise.
+     */
+    public boolean contains(int id) {
+        return id >= 0 && id < maximumPoints && points[id] != null;
+    }
+
+    /**
+     * Returns the rank of a point.
+     * @param id the identifier of the point.
+     * @return the rank of the point.
+     */
+    public int getRank(int id) {
+        checkId(id);
+        return ranks[id];
+    }
+
+    /**
+     * Writes the identifiers of points from the given front to the given array.
+     *
+     * @param front the index of the front.
+     * @param target the array to receive the identifiers.
+     * @return the number of points in the front.
+     */
+    public int getFront(int front, int[] target) {
+        if (front < 0 || front >= nFronts) {
+            throw new IllegalArgumentException("The front index " + front + " is out of range [0; " + nFronts + ")");
+        }
+        int size = frontSizes[front];
+        System.arraycopy(fronts[front], 0, target, 0, size);
+        return size;
+    }
+
+    /**
+     * Writes the identifiers of points whose ranks were changed by the last insertion or removal
+     * to the given array. The inserted or removed point itself is not included.
+     *
+     * @param target the array to receive the identifiers.
+     * @return the number of points whose ranks were changed.
+     */
+    public int getChangedPoints(int[] target) {
+        System.arraycopy(changed, 0, target, 0, changedCount);
+        return changedCount;
+    }
+
+    private void checkId(int id) {
+        if (!contains(id)) {
+            throw new IllegalArgumentException("There is no point with identifier " + id);
+        }
+    }
+
+    private int findRank(double[] point) {
+        // If a point from some front dominates the point, so does a point from every previous front.
+        int left = -1, right = nFronts;
+        while (right - left > 1) {
+            int mid = (left + right) >>> 1;
+            if (isDominatedBySome(fronts[mid], frontSizes[mid], point)) {
+                left = mid;
+            } else {
+                right = mid;
+            }
+        }
+        return right;
+    }
+
+    private boolean isDominatedBySome(int[] ids, int count, double[] point) {
+        for (int i = 0; i < count; ++i) {
+            if (DominanceHelper.strictlyDominates(points[ids[i]], point, dimension)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Removes from the front the points which are dominated by the new point, if it is given,
+    // or by the currently moving points otherwise, and collects them into nextMoving, or into moving for the new point.
+    private int extractDominated(int rank, int newPoint, int movingCount) {
+        int[] front = fronts[rank];
+        int[] target = newPoint >= 0 ? moving : nextMoving;
+        int count = 0;
+        for (int i = 0; i < frontSizes[rank]; ) {
+            int candidate = front[i];
+            double[] candidatePoint = points[candidate];
+            boolean dominated = newPoint >= 0
+                    ? DominanceHelper.strictlyDominates(points[newPoint], candidatePoint, dimension)
+                    : isDominatedBySome(moving, movingCount, candidatePoint);
+            if (dominated) {
+                target[count++] = candidate;
+                removeFromFront(rank, candidate);
+            } else {
+                ++i;
+            }
+        }
+        return count;
+    }
+
+    private void addToFront(int rank, int id) {
+        if (rank == nFronts) {
+            ++nFronts;
+        }
+        int[] front = fronts[rank];
+        int size = frontSizes[rank];
+        if (front == null || front.length == size) {
+            front = fronts[rank] = front == null ? new int[4] : Arrays.copyOf(front, Math.min(maximumPoints, size * 2));
+        }
+        front[size] = id;
+        positionInFront[id] = size;
+        frontSizes[rank] = size + 1;
+        ranks[id] = rank;
+    }
+
+    private void removeFromFront(int rank, int id) {
+        int[] front = fronts[rank];
+        int position = positionInFront[id];
+        int last = front[--frontSizes[rank]];
+        front[position] = last;
+        positionInFront[last] = position;
+    }
+}
@@ -4,6 +4,7 @@ import ru.ifmo.nds.ens.ENS_BS;
 import ru.ifmo.nds.ens.ENS_SS;
 import ru.ifmo.nds.ndt.ENS_NDT;
 import ru.ifmo.nds.ndt.ENS_NDT_Arrays;
+import ru.ifmo.nds.ndt.ENS_NDT_Float;
 import ru.ifmo.nds.ndt.ENS_NDT_OneTree;
 
 public final class ENS {
@@ -21,11 +22,23 @@ public final class ENS {
         return ENS_BS_INSTANCE;
     }
 
+    public static NonDominatedSortingFactory getENS_SS(Dominance dominance) {
+        return Dominance.withDominance(ENS_SS_INSTANCE, dominance);
+    }
+
+    public static NonDominatedSortingFactory getENS_BS(Dominance dominance) {
+        return Dominance.withDominance(ENS_BS_INSTANCE, dominance);
+    }
+
     public static NonDominatedSortingFactory getENS_NDT(int threshold) {
         // currently, the best value for threshold seems to be 8.
         return (int maxPoints, int maxDimension) -> new ENS_NDT(maxPoints, maxDimension, threshold);
     }
 
+    public static NonDominatedSortingFactory getENS_NDT_Float(int threshold) {
+        return (int maxPoints, int maxDimension) -> new ENS_NDT_Float(maxPoints, maxDimension, threshold);
+    }
+
     public static NonDominatedSortingFactory getENS_NDT_OneTree(int threshold) {
         return (int maxPoints, int maxDimension) -> new ENS_NDT_OneTree(maxPoints, maxDimension, threshold);
     }
@@ -181,9 +181,7 @@ public final class FilterSort {
         protected void sortChecked(double[][] points, int[] ranks, int maximalMeaningfulRank) {
             int oldN = points.length;
             int dim = points[0].length;
-            ArrayHelper.fillIdentity(indices, oldN);
-            sorter.lexicographicalSort(points, indices, 0, oldN, dim);
-            int n = ArraySorter.retainUniquePoints(points, indices, this.points, ranks);
+            int n = sorter.sortAndRetainUniquePoints(points, indices, this.points, ranks);
             initializeObjectiveIndices(n, dim);
             runSorting(n, dim - 1, maximalMeaningfulRank);
             for (int i = 0; i < oldN; ++i) {
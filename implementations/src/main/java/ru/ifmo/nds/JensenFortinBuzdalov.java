@@ -6,6 +6,7 @@ import ru.ifmo.nds.jfb.hybrid.ENS;
 import ru.ifmo.nds.jfb.hybrid.LinearNDS;
 import ru.ifmo.nds.jfb.hybrid.NDT;
 import ru.ifmo.nds.util.FenwickRankQueryStructureDouble;
+import ru.ifmo.nds.util.FenwickRankQueryStructureInt;
 import ru.ifmo.nds.util.RedBlackRankQueryStructure;
 import ru.ifmo.nds.util.VanEmdeBoasRankQueryStructureInt;
 
@@ -16,14 +17,34 @@ public final class JensenFortinBuzdalov {
         return (p, d) -> new JFBDouble(new RedBlackRankQueryStructure(p), d, allowedThreads, Dummy.getWrapperInstance());
     }
 
+    public static NonDominatedSortingFactory getRedBlackTreeSweepImplementation(int allowedThreads, Dominance dominance) {
+        return Dominance.withDominance(getRedBlackTreeSweepImplementation(allowedThreads), requireNotWeak(dominance));
+    }
+
     public static NonDominatedSortingFactory getFenwickSweepImplementation(int allowedThreads) {
         return (p, d) -> new JFBDouble(new FenwickRankQueryStructureDouble(p), d, allowedThreads, Dummy.getWrapperInstance());
     }
 
+    public static NonDominatedSortingFactory getFenwickSweepImplementation(int allowedThreads, Dominance dominance) {
+        return Dominance.withDominance(getFenwickSweepImplementation(allowedThreads), requireNotWeak(dominance));
+    }
+
+    public static NonDominatedSortingFactory getFenwickSweepFloatImplementation(int allowedThreads) {
+        return (p, d) -> new JFBFloat(new FenwickRankQueryStructureInt(p), d, allowedThreads, Dummy.getWrapperInstance());
+    }
+
+    public static NonDominatedSortingFactory getFenwickSweepFloatHybridNDTImplementation(int threshold, int allowedThreads) {
+        return (p, d) -> new JFBFloat(new FenwickRankQueryStructureInt(p), d, allowedThreads, new NDT(100, 20000, threshold));
+    }
+
     public static NonDominatedSortingFactory getVanEmdeBoasImplementation() {
         return (p, d) -> new JFBInt(new VanEmdeBoasRankQueryStructureInt(p), d, 1, Dummy.getWrapperInstance());
     }
 
+    public static NonDominatedSortingFactory getVanEmdeBoasImplementation(Dominance dominance) {
+        return Dominance.withDominance(getVanEmdeBoasImplementation(), requireNotWeak(dominance));
+    }
+
     public static NonDominatedSortingFactory getVanEmdeBoasHybridENSImplementation() {
         return (p, d) -> new JFBInt(new VanEmdeBoasRankQueryStructureInt(p), d, 1, new ENS(100, 200));
     }
@@ -43,4 +64,12 @@ public final class JensenFortinBuzdalov {
     public static NonDominatedSortingFactory getRedBlackTreeSweepHybridNDTImplementation(int threshold, int allowedThreads) {
         return (p, d) -> new JFBDouble(new RedBlackRankQueryStructure(p), d, allowedThreads, new NDT(100, 20000, threshold));
     }
+
+    private static Dominance requireNotWeak(Dominance dominance) {
+        // The algorithm merges equal points before ranking, so it cannot order them.
+        if (dominance != null && dominance.isWeak()) {
+            throw new IllegalArgumentException("The Jensen-Fortin-Buzdalov algorithm does not support weak dominance");
+        }
+        return dominance;
+    }
 }
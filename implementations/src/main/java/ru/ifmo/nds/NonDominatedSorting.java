@@ -1,10 +1,15 @@
 package ru.ifmo.nds;
 
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
 import java.util.Arrays;
 import java.util.Objects;
+import java.util.function.IntToDoubleFunction;
 
 import ru.ifmo.nds.util.ArrayHelper;
 import ru.ifmo.nds.util.ArraySorter;
+import ru.ifmo.nds.util.CrowdingDistance;
+import ru.ifmo.nds.util.SkylineFilter;
 
 /**
  * This is the base for classes which actually perform non-dominated sorting.
@@ -12,12 +17,26 @@ import ru.ifmo.nds.util.ArraySorter;
  * @author Maxim Buzdalov
  */
 public abstract class NonDominatedSorting implements AutoCloseable {
+    private static final int SKYLINE_WINDOW_LIMIT = 64;
+
     private boolean closeWasCalled = false;
     private final int maximumPoints;
     private final int maximumDimension;
 
     protected ArraySorter sorter;
     protected int[] indices;
+    private int[] bufferRanks; // ranks for callers which do not provide an array of ranks, allocated on demand
+    private boolean validatesInput = true;
+    private SkylineFilter skylineFilter; // allocated on the first call to findNonDominated
+    private CrowdingDistance crowdingDistance; // allocated on the first call to sortWithCrowdingDistance
+    private Dominance dominance = Dominance.STRICT;
+    private boolean[] maximized; // null if all objectives are minimized
+    private double[][] transformedPoints; // the points snapped to boxes and negated where needed, allocated on demand
+    private double[][] transformedRows; // the reused rows of the above, allocated on demand
+    private double[] transformedCoords; // same for the points which do not come as rows, allocated on demand
+    private int[] constrainedOrder; // allocated on the first call to sortConstrained
+    private double[][] feasiblePoints; // references to the feasible points, sized to their number, allocated on demand
+    private double[][] mergedPoints; // references to the parents and the offspring, allocated on demand
 
     protected NonDominatedSorting(int maximumPoints, int maximumDimension) {
         this.maximumPoints = maximumPoints;
@@ -49,6 +68,110 @@ public abstract class NonDominatedSorting implements AutoCloseable {
         return maximumDimension;
     }
 
+    /**
+     * Enables or disables the validation of the input points, which is enabled by default.
+     *
+     * The validation checks that every coordinate is neither NaN nor infinite, and that all points
+     * have the same dimension. It reads all the input once before the sorting starts, which is noticeable
+     * when sorting small populations. With the validation disabled, only the checks which take constant time
+     * are performed, and the results for the invalid input are undefined.
+     *
+     * @param validatesInput whether the input shall be validated.
+     */
+    public final void setInputValidation(boolean validatesInput) {
+        this.validatesInput = validatesInput;
+    }
+
+    /**
+     * Returns whether the input points are validated.
+     * @return {@code true} if the input is validated, {@code false} otherwise.
+     */
+    public final boolean isInputValidated() {
+        return validatesInput;
+    }
+
+    /**
+     * Sets whether duplicate points shall be collapsed by hashing before the points are sorted lexicographically.
+     * This pays off when most of the points are duplicates, as it happens for heavily discretized problems,
+     * because then only the distinct points are sorted. This affects only the algorithms
+     * which collapse duplicate points anyway, and only for points given as {@code double[][]}.
+     * By default, duplicate points are collapsed after sorting.
+     *
+     * @param collapsesDuplicates {@code true} if the duplicates shall be collapsed before sorting.
+     */
+    public final void setDuplicateCollapsing(boolean collapsesDuplicates) {
+        sorter.setDuplicateCollapsing(collapsesDuplicates);
+    }
+
+    /**
+     * Returns whether duplicate points are collapsed by hashing before the points are sorted lexicographically.
+     * @return {@code true} if the duplicates are collapsed before sorting.
+     */
+    public final boolean isDuplicateCollapsing() {
+        return sorter.isDuplicateCollapsing();
+    }
+
+    /**
+     * Sets the dominance relation which is used to rank the points, which is {@link Dominance#STRICT} by default.
+     *
+     * For the epsilon-box dominances, the points are snapped to their boxes before they are sorted,
+     * except for the crowding distance, which is computed from the original points.
+     * The boxes are taken before the maximized objectives are negated.
+     * The weak dominance is supported only by the algorithms which can order equal points,
+     * see {@link #supportsWeakDominance()}.
+     *
+     * @param dominance the dominance relation.
+     * @throws IllegalArgumentException if the dominance is weak and this algorithm does not support it.
+     */
+    public final void setDominance(Dominance dominance) {
+        Objects.requireNonNull(dominance, "The dominance must not be null");
+        if (dominance.isWeak() && !supportsWeakDominance()) {
+            throw new IllegalArgumentException(getName() + " does not support weak dominance");
+        }
+        this.dominance = dominance;
+    }
+
+    /**
+     * Returns the dominance relation which is used to rank the points.
+     * @return the dominance relation.
+     */
+    public final Dominance getDominance() {
+        return dominance;
+    }
+
+    /**
+     * Sets which objectives are maximized, while all other objectives are minimized, which is the default.
+     * The objective {@code j} is maximized if {@code j < maximized.length} and {@code maximized[j]} is {@code true}.
+     *
+     * The maximized objectives are negated while the points are copied to internal arrays,
+     * which are reused by subsequent calls, so the callers do not need to make negated copies of the points themselves.
+     * The points which do not come as {@code double[][]} are copied point after point into a single array,
+     * so that they are sorted without being split into separate arrays.
+     *
+     * @param maximized the flags of maximized objectives, or {@code null} if all objectives are minimized.
+     *                  The array is copied.
+     */
+    public final void setMaximizedObjectives(boolean[] maximized) {
+        this.maximized = null;
+        if (maximized != null) {
+            for (boolean m : maximized) {
+                if (m) {
+                    this.maximized = maximized.clone();
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether the given objective is maximized.
+     * @param objective the index of the objective.
+     * @return {@code true} if the objective is maximized, {@code false} if it is minimized.
+     */
+    public final boolean isMaximized(int objective) {
+        return maximized != null && objective < maximized.length && maximized[objective];
+    }
+
     /**
      * Releases all resources taken by the non-dominated sorting algorithm.
      */
@@ -60,6 +183,15 @@ public abstract class NonDominatedSorting implements AutoCloseable {
         closeImpl();
         sorter = null;
         indices = null;
+        bufferRanks = null;
+        skylineFilter = null;
+        crowdingDistance = null;
+        transformedPoints = null;
+        transformedRows = null;
+        transformedCoords = null;
+        constrainedOrder = null;
+        feasiblePoints = null;
+        mergedPoints = null;
     }
 
     /**
@@ -82,7 +214,7 @@ public abstract class NonDominatedSorting implements AutoCloseable {
      *                              The safe value to get all ranks correct is {@code points.length}.
      */
     public final void sort(double[][] points, int[] ranks, int maximalMeaningfulRank) {
-        requirePointsAreNonNull(points);
+        Objects.requireNonNull(points, "The array of points must not be null");
         Objects.requireNonNull(ranks, "The array of ranks must not be null");
 
         checkNumbersOfPoints(points.length, ranks.length);
@@ -96,36 +228,691 @@ public abstract class NonDominatedSorting implements AutoCloseable {
             throw new IllegalArgumentException("Maximal meaningful rank must be non-negative");
         }
 
+        sortValidated(points, checkAndGetDimension(points), ranks, maximalMeaningfulRank);
+    }
+
+    /**
+     * Performs non-dominated sorting until the fronts which are already ranked contain at least {@code count} points.
+     * This is what survivor selection in NSGA-II-like algorithms needs: the points from the fronts
+     * {@code 0}, ..., {@code f - 1}, where {@code f} is the returned value, receive their correct ranks,
+     * and all other points, which are not needed to choose {@code count} survivors, receive the rank {@code f}.
+     *
+     * Unlike {@link #sort(double[][], int[], int)}, this method does not need to know the number of fronts in advance.
+     *
+     * @param points the array of points to be sorted.
+     * @param ranks the array to be filled with ranks of points.
+     * @param count the number of points which shall be covered by the ranked fronts.
+     * @return the number of the ranked fronts.
+     */
+    public final int sortUntilCount(double[][] points, int[] ranks, int count) {
+        Objects.requireNonNull(points, "The array of points must not be null");
+        Objects.requireNonNull(ranks, "The array of ranks must not be null");
+
+        checkNumbersOfPoints(points.length, ranks.length);
+
+        if (count <= 0) {
+            throw new IllegalArgumentException("The number of points to be covered must be positive");
+        }
+        int n = points.length;
+        if (n == 0) {
+            return 0;
+        }
+
         int dimension = checkAndGetDimension(points);
+        points = transformPoints(points, dimension);
+        int lastRank;
         if (dimension == 0) {
-            Arrays.fill(ranks, 0);
-        } else if (dimension == 1) {
+            fillRanksOfEqualPoints(ranks, n);
+            lastRank = dominance.isWeak() ? Math.min(count, n) - 1 : 0;
+        } else if (dimension == 1 && !dominance.isWeak()) {
+            sortOneDimensional(points, ranks, n);
+            lastRank = findRankCoveringCount(ranks, Math.min(count, n));
+        } else {
+            lastRank = sortUntilCountChecked(points, ranks, Math.min(count, n));
+        }
+        filterMaximumMeaningfulRank(ranks, lastRank);
+        return lastRank + 1;
+    }
+
+    /**
+     * Performs non-dominated sorting and returns the fronts in a compact layout:
+     * the indices of points from the front {@code f} are {@code frontMembers[frontOffsets[f]]}, ...,
+     * {@code frontMembers[frontOffsets[f + 1] - 1]}. The order of points within a front depends on the algorithm.
+     *
+     * @param points the array of points to be sorted.
+     * @param frontOffsets the array to be filled with offsets of fronts,
+     *                     which must have the length of at least {@code points.length + 1}.
+     * @param frontMembers the array to be filled with indices of points, front after front,
+     *                     which must have the length of at least {@code points.length}.
+     * @return the number of fronts.
+     */
+    public final int sortIntoFronts(double[][] points, int[] frontOffsets, int[] frontMembers) {
+        return sortIntoFronts(points, frontOffsets, frontMembers, points == null ? 0 : points.length);
+    }
+
+    /**
+     * Performs non-dominated sorting and returns the fronts in a compact layout:
+     * the indices of points from the front {@code f} are {@code frontMembers[frontOffsets[f]]}, ...,
+     * {@code frontMembers[frontOffsets[f + 1] - 1]}. The order of points within a front depends on the algorithm.
+     * All points with ranks above the given {@code maximalMeaningfulRank} are put to the front
+     * {@code maximalMeaningfulRank + 1}.
+     *
+     * @param points the array of points to be sorted.
+     * @param frontOffsets the array to be filled with offsets of fronts, which must have the length of at least
+     *                     {@code Math.min(points.length, maximalMeaningfulRank + 2) + 1}.
+     * @param frontMembers the array to be filled with indices of points, front after front,
+     *                     which must have the length of at least {@code points.length}.
+     * @param maximalMeaningfulRank the maximal rank which is meaningful to the caller.
+     * @return the number of fronts.
+     */
+    public final int sortIntoFronts(double[][] points, int[] frontOffsets, int[] frontMembers, int maximalMeaningfulRank) {
+        Objects.requireNonNull(points, "The array of points must not be null");
+        Objects.requireNonNull(frontOffsets, "The array of front offsets must not be null");
+        Objects.requireNonNull(frontMembers, "The array of front members must not be null");
+        int n = points.length;
+        if (maximalMeaningfulRank < 0) {
+            throw new IllegalArgumentException("Maximal meaningful rank must be non-negative");
+        }
+        int maxFronts = Math.min(n, maximalMeaningfulRank + 2);
+        if (frontOffsets.length <= maxFronts) {
+            throw new IllegalArgumentException("The array of front offsets has length " + frontOffsets.length
+                    + ", but there can be " + maxFronts + " fronts, which need " + (maxFronts + 1) + " offsets");
+        }
+        if (frontMembers.length < n) {
+            throw new IllegalArgumentException("The array of front members has length " + frontMembers.length
+                    + ", which is less than the number of points, " + n);
+        }
+        checkNumbersOfPoints(n, n);
+        frontOffsets[0] = 0;
+        if (n == 0) {
+            return 0;
+        }
+
+        int dimension = checkAndGetDimension(points);
+        int[] ranks = getInternalRanks(n);
+        if (dimension < 2) {
+            sortValidated(points, dimension, ranks, maximalMeaningfulRank);
+            return distributeByRanks(ranks, frontOffsets, frontMembers);
+        } else {
+            return sortIntoFrontsChecked(transformPoints(points, dimension), ranks,
+                    frontOffsets, frontMembers, maximalMeaningfulRank);
+        }
+    }
+
+    // Counting sort of point indices by ranks, where frontOffsets[r + 1] first counts the points of rank r.
+    private static int distributeByRanks(int[] ranks, int[] frontOffsets, int[] frontMembers) {
+        int n = ranks.length;
+        int nFronts = 0;
+        for (int rank : ranks) {
+            nFronts = Math.max(nFronts, rank + 1);
+        }
+        Arrays.fill(frontOffsets, 0, nFronts + 1, 0);
+        for (int rank : ranks) {
+            ++frontOffsets[rank + 1];
+        }
+        for (int f = 1; f < nFronts; ++f) {
+            frontOffsets[f] += frontOffsets[f - 1];
+        }
+        for (int i = 0; i < n; ++i) {
+            frontMembers[frontOffsets[ranks[i]]++] = i;
+        }
+        System.arraycopy(frontOffsets, 0, frontOffsets, 1, nFronts);
+        frontOffsets[0] = 0;
+        return nFronts;
+    }
+
+    /**
+     * Performs non-dominated sorting of the union of two populations, where the ranks of points
+     * from the first population among themselves are already known, which is the case for the parents
+     * in many evolutionary algorithms. The ranks of parents are written to {@code outRanks[0]}, ...,
+     * {@code outRanks[parents.length - 1]}, and the ranks of offspring are written to the rest of {@code outRanks}.
+     *
+     * The rank of a parent in the union is never smaller than its rank among the parents,
+     * so the algorithms can use the known ranks to skip some of the comparisons.
+     * Currently only the sequential search and the binary search versions of ENS, see {@link ENS#getENS_SS()}
+     * and {@link ENS#getENS_BS()}, exploit the known ranks, and the adaptive sorting passes them on
+     * to the algorithm it chooses. The other algorithms sort all the points, which costs as much as
+     * sorting the union with {@link #sort(double[][], int[])}.
+     *
+     * @param parents the points whose ranks among themselves are known.
+     * @param parentRanks the ranks of {@code parents} among themselves.
+     * @param offspring the other points.
+     * @param outRanks the array to be filled with ranks of parents, followed by ranks of offspring.
+     */
+    public final void mergeRanked(double[][] parents, int[] parentRanks, double[][] offspring, int[] outRanks) {
+        Objects.requireNonNull(parents, "The array of parents must not be null");
+        Objects.requireNonNull(parentRanks, "The array of parent ranks must not be null");
+        Objects.requireNonNull(offspring, "The array of offspring must not be null");
+        Objects.requireNonNull(outRanks, "The array of ranks must not be null");
+
+        int nParents = parents.length;
+        if (parentRanks.length != nParents) {
+            throw new IllegalArgumentException("The number of parents, " + nParents
+                    + ", must coincide with the length of the array for parent ranks, which is " + parentRanks.length);
+        }
+        for (int rank : parentRanks) {
+            if (rank < 0) {
+                throw new IllegalArgumentException("Ranks of parents must be non-negative");
+            }
+        }
+        int n = nParents + offspring.length;
+        checkNumbersOfPoints(n, outRanks.length);
+        if (n == 0) {
+            return;
+        }
+
+        // The algorithms take the number of points from the length of the array,
+        // so the array is reused while the sizes of the populations stay the same.
+        if (mergedPoints == null || mergedPoints.length != n) {
+            mergedPoints = new double[n][];
+        }
+        double[][] merged = mergedPoints;
+        System.arraycopy(parents, 0, merged, 0, nParents);
+        System.arraycopy(offspring, 0, merged, nParents, offspring.length);
+        try {
+            int dimension = checkAndGetDimension(merged);
+            double[][] points = transformPoints(merged, dimension);
+            if (dimension == 0) {
+                fillRanksOfEqualPoints(outRanks, n);
+            } else if (dimension == 1 && !dominance.isWeak()) {
+                sortOneDimensional(points, outRanks, n);
+            } else {
+                mergeRankedChecked(points, nParents, parentRanks, outRanks);
+            }
+        } finally {
+            // The references are not kept, so that the points can be collected.
+            Arrays.fill(merged, null);
+        }
+    }
+
+    /**
+     * Performs non-dominated sorting with the constraint-domination of Deb.
+     * A point is feasible if its constraint violation is not positive.
+     * The feasible points receive their usual ranks among themselves. The infeasible points are ranked
+     * after all the feasible ones, in the increasing order of their violations,
+     * so that the points with equal violations receive equal ranks.
+     *
+     * @param points the array of points to be sorted.
+     * @param violations the total constraint violations of the points.
+     * @param ranks the array to be filled with ranks of points.
+     */
+    public final void sortConstrained(double[][] points, double[] violations, int[] ranks) {
+        sortConstrained(points, violations, ranks, ranks == null ? 0 : ranks.length);
+    }
+
+    /**
+     * Performs non-dominated sorting with the constraint-domination of Deb,
+     * as described in {@link #sortConstrained(double[][], double[], int[])}.
+     * All ranks above the given {@code maximalMeaningfulRank} will be reported as {@code maximalMeaningfulRank + 1}.
+     *
+     * @param points the array of points to be sorted.
+     * @param violations the total constraint violations of the points.
+     * @param ranks the array to be filled with ranks of points.
+     * @param maximalMeaningfulRank the maximal rank which is meaningful to the caller.
+     *                              All ranks above will be reported as {@code maximalMeaningfulRank + 1}.
+     *                              The safe value to get all ranks correct is {@code points.length}.
+     */
+    public final void sortConstrained(double[][] points, double[] violations, int[] ranks, int maximalMeaningfulRank) {
+        Objects.requireNonNull(points, "The array of points must not be null");
+        Objects.requireNonNull(violations, "The array of violations must not be null");
+        Objects.requireNonNull(ranks, "The array of ranks must not be null");
+
+        int n = points.length;
+        checkNumbersOfPoints(n, ranks.length);
+        if (violations.length != n) {
+            throw new IllegalArgumentException("The number of points, " + n
+                    + ", must coincide with the length of the array for violations, which is " + violations.length);
+        }
+        if (n == 0) {
+            return;
+        }
+        if (maximalMeaningfulRank < 0) {
+            throw new IllegalArgumentException("Maximal meaningful rank must be non-negative");
+        }
+        int dimension = checkAndGetDimension(points);
+        for (double violation : violations) {
+            if (Double.isNaN(violation)) {
+                throw new IllegalArgumentException("Constraint violations must not be NaN");
+            }
+        }
+
+        // The feasible points are collected at the beginning of the order, the infeasible ones at its end.
+        if (constrainedOrder == null) {
+            constrainedOrder = new int[maximumPoints];
+        }
+        int[] order = constrainedOrder;
+        int nFeasible = 0;
+        for (int i = 0, last = n; i < n; ++i) {
+            if (violations[i] <= 0) {
+                order[nFeasible++] = i;
+            } else {
+                order[--last] = i;
+            }
+        }
+
+        if (nFeasible == n) {
+            sortValidated(points, dimension, ranks, maximalMeaningfulRank);
+            return;
+        }
+
+        int rank = -1;
+        if (nFeasible > 0) {
+            // Only the references are collected, and the feasible points are sorted by the algorithm in one pass.
+            // The algorithms take the number of points from the length of the array, so the array, as well as
+            // the array of ranks, is allocated anew whenever the number of feasible points changes.
+            if (feasiblePoints == null || feasiblePoints.length != nFeasible) {
+                feasiblePoints = new double[nFeasible][];
+            }
+            for (int i = 0; i < nFeasible; ++i) {
+                feasiblePoints[i] = points[order[i]];
+            }
+            int[] feasibleRanks = getInternalRanks(nFeasible);
+            sortValidated(feasiblePoints, dimension, feasibleRanks, maximalMeaningfulRank);
+            Arrays.fill(feasiblePoints, null);
+            for (int i = 0; i < nFeasible; ++i) {
+                ranks[order[i]] = feasibleRanks[i];
+                rank = Math.max(rank, feasibleRanks[i]);
+            }
+        }
+
+        sorter.sortByValues(violations, order, nFeasible, n);
+        double lastViolation = Double.NaN;
+        for (int i = nFeasible; i < n; ++i) {
+            int index = order[i];
+            if (violations[index] != lastViolation) {
+                lastViolation = violations[index];
+                ++rank;
+            }
+            ranks[index] = Math.min(rank, maximalMeaningfulRank + 1);
+        }
+    }
+
+    /**
+     * Performs non-dominated sorting and computes the crowding distance of NSGA-II for every point.
+     *
+     * Within each front, the points are ordered by each objective, where ties are resolved by the lexicographical
+     * order of points, and then by their indices. The first and the last points of a front in every such order
+     * receive the infinite distance. The other points receive the sum, over all objectives,
+     * of the differences between the objective values of their neighbors,
+     * divided by the range of the objective values in the front, where the objectives with zero range are skipped.
+     *
+     * Algorithms which order the points by every objective anyway can reuse these orderings,
+     * so this is generally faster than sorting followed by a separate computation of the crowding distance.
+     *
+     * @param points the array of points to be sorted.
+     * @param ranks the array to be filled with ranks of points.
+     * @param crowdingDistances the array to be filled with crowding distances of points.
+     */
+    public final void sortWithCrowdingDistance(double[][] points, int[] ranks, double[] crowdingDistances) {
+        Objects.requireNonNull(points, "The array of points must not be null");
+        Objects.requireNonNull(ranks, "The array of ranks must not be null");
+        Objects.requireNonNull(crowdingDistances, "The array of crowding distances must not be null");
+
+        checkNumbersOfPoints(points.length, ranks.length);
+        if (crowdingDistances.length != points.length) {
+            throw new IllegalArgumentException(
+                    "The number of points, " + points.length
+                            + ", must coincide with the length of the array for crowding distances, which is "
+                            + crowdingDistances.length);
+        }
+
+        int n = points.length;
+        if (n == 0) {
+            return;
+        }
+
+        int dimension = checkAndGetDimension(points);
+        double[][] rankedPoints = transformPoints(points, dimension);
+        if (dimension == 0) {
+            fillRanksOfEqualPoints(ranks, n);
+            Arrays.fill(crowdingDistances, 0);
+        } else if (dimension == 1 && !dominance.isWeak()) {
+            sortOneDimensional(rankedPoints, ranks, n);
+            getCrowdingDistance().compute(points, ranks, crowdingDistances, sorter, indices);
+        } else if (rankedPoints != points) {
+            sortChecked(rankedPoints, ranks, n);
+            getCrowdingDistance().compute(points, ranks, crowdingDistances, sorter, indices);
+        } else {
+            sortCheckedWithCrowdingDistance(points, ranks, crowdingDistances);
+        }
+    }
+
+    /**
+     * Finds the points which are not dominated by any other point, that is, the first front.
+     *
+     * When the first front is small, which is typical for large and heavily dominated populations,
+     * this is done by comparing each point only to the non-dominated points found so far,
+     * so that the dominated points are discarded as soon as they are found.
+     * Otherwise, the algorithm is run with the maximal meaningful rank of zero.
+     *
+     * @param points the array of points.
+     * @param firstFront the array to be filled with indices of the non-dominated points, in the increasing order,
+     *                   which must have the length of at least {@code points.length}.
+     * @return the number of non-dominated points.
+     */
+    public final int findNonDominated(double[][] points, int[] firstFront) {
+        Objects.requireNonNull(points, "The array of points must not be null");
+        Objects.requireNonNull(firstFront, "The array for the first front must not be null");
+        int n = points.length;
+        if (firstFront.length < n) {
+            throw new IllegalArgumentException("The array for the first front has length " + firstFront.length
+                    + ", which is less than the number of points, " + n);
+        }
+        checkNumbersOfPoints(n, n);
+        if (n == 0) {
+            return 0;
+        }
+
+        int dimension = checkAndGetDimension(points);
+        // The skyline filter does not order equal points, so it cannot be used with the weak dominance.
+        if (!dominance.isWeak()) {
+            if (skylineFilter == null) {
+                skylineFilter = new SkylineFilter(maximumPoints, SKYLINE_WINDOW_LIMIT);
+            }
+            int size = skylineFilter.filter(transformPoints(points, dimension), n, dimension, indices, sorter, firstFront);
+            if (size >= 0) {
+                return size;
+            }
+        }
+
+        int[] ranks = getInternalRanks(n);
+        sortValidated(points, dimension, ranks, 0);
+        int size = 0;
+        for (int i = 0; i < n; ++i) {
+            if (ranks[i] == 0) {
+                firstFront[size++] = i;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Performs non-dominated sorting of several independent populations one after another,
+     * reusing the internal data structures of this instance.
+     * The ranks of points from {@code populations[i]} are written to {@code ranks[i]}.
+     *
+     * To sort the populations on several threads, use {@link NonDominatedSortingBatch}.
+     *
+     * @param populations the populations to be sorted.
+     * @param ranks the arrays to be filled with ranks of points, one array per population.
+     */
+    public final void sortBatch(double[][][] populations, int[][] ranks) {
+        checkBatch(populations, ranks);
+        for (int i = 0; i < populations.length; ++i) {
+            sort(populations[i], ranks[i]);
+        }
+    }
+
+    static void checkBatch(double[][][] populations, int[][] ranks) {
+        Objects.requireNonNull(populations, "The array of populations must not be null");
+        Objects.requireNonNull(ranks, "The array of rank arrays must not be null");
+        if (populations.length != ranks.length) {
+            throw new IllegalArgumentException(
+                    "The number of populations, " + populations.length
+                            + ", must coincide with the number of arrays for ranks, which is " + ranks.length);
+        }
+    }
+
+    /**
+     * Performs non-dominated sorting of points with integer coordinates.
+     * @param points the array of points to be sorted.
+     * @param ranks the array to be filled with ranks of points.
+     */
+    public final void sort(int[][] points, int[] ranks) {
+        sort(points, ranks, ranks == null ? 0 : ranks.length);
+    }
+
+    /**
+     * Performs non-dominated sorting of points with integer coordinates.
+     * All ranks above the given {@code maximalMeaningfulRank} will be reported as {@code maximalMeaningfulRank + 1}.
+     *
+     * Algorithms which can work with integer keys directly avoid converting the points to floating-point values.
+     *
+     * @param points the array of points to be sorted.
+     * @param ranks the array to be filled with ranks of points.
+     * @param maximalMeaningfulRank the maximal rank which is meaningful to the caller.
+     *                              All ranks above will be reported as {@code maximalMeaningfulRank + 1}.
+     *                              The safe value to get all ranks correct is {@code points.length}.
+     */
+    public final void sort(int[][] points, int[] ranks, int maximalMeaningfulRank) {
+        Objects.requireNonNull(points, "The array of points must not be null");
+        Objects.requireNonNull(ranks, "The array of ranks must not be null");
+
+        checkNumbersOfPoints(points.length, ranks.length);
+
+        if (points.length == 0) {
+            return;
+        }
+
+        if (maximalMeaningfulRank < 0) {
+            throw new IllegalArgumentException("Maximal meaningful rank must be non-negative");
+        }
+
+        int dimension = Objects.requireNonNull(points[0], "The points to be sorted must not be null").length;
+        if (validatesInput) {
+            for (int[] point : points) {
+                Objects.requireNonNull(point, "The points to be sorted must not be null");
+                if (point.length != dimension) {
+                    throw new IllegalArgumentException("All points to be sorted must have equal dimension");
+                }
+            }
+        }
+        checkDimension(dimension);
+
+        if (transformsPoints()) {
+            sortFlatValidated(transformPoints(points, dimension), points.length, dimension, ranks, maximalMeaningfulRank);
+        } else if (dimension == 0) {
+            fillRanksOfEqualPoints(ranks, maximalMeaningfulRank);
+        } else if (dimension == 1 && !dominance.isWeak()) {
             int n = points.length;
             ArrayHelper.fillIdentity(indices, n);
             sorter.sort(points, indices, 0, n, 0);
-            double last = Double.NaN;
-            int rank = -1;
-            int index = 0;
-            while (rank <= maximalMeaningfulRank && index < n) {
-                int ii = indices[index];
-                double curr = points[ii][0];
-                if (curr != last) {
-                    ++rank;
-                    last = curr;
-                }
-                ranks[ii] = rank;
-                ++index;
+            rankSortedOneDimensional(i -> points[i][0], n, ranks, maximalMeaningfulRank);
+        } else {
+            sortCheckedInt(points, ranks, maximalMeaningfulRank);
+            filterMaximumMeaningfulRank(ranks, maximalMeaningfulRank);
+        }
+    }
+
+    /**
+     * Performs non-dominated sorting of points stored in a single row-major array.
+     * The coordinate {@code j} of the point {@code i} is expected to be found at {@code coords[i * dim + j]}.
+     *
+     * @param coords the array of point coordinates, stored point after point.
+     * @param n the number of points.
+     * @param dim the dimension of the points.
+     * @param ranks the array to be filled with ranks of points.
+     */
+    public final void sort(double[] coords, int n, int dim, int[] ranks) {
+        sort(coords, n, dim, ranks, n);
+    }
+
+    /**
+     * Performs non-dominated sorting of points stored in a single row-major array.
+     * The coordinate {@code j} of the point {@code i} is expected to be found at {@code coords[i * dim + j]}.
+     * All ranks above the given {@code maximalMeaningfulRank} will be reported as {@code maximalMeaningfulRank + 1}.
+     *
+     * @param coords the array of point coordinates, stored point after point.
+     *               Only the first {@code n * dim} elements are considered.
+     * @param n the number of points.
+     * @param dim the dimension of the points.
+     * @param ranks the array to be filled with ranks of points, which must have the length of exactly {@code n}.
+     * @param maximalMeaningfulRank the maximal rank which is meaningful to the caller.
+     *                              All ranks above will be reported as {@code maximalMeaningfulRank + 1}.
+     *                              The safe value to get all ranks correct is {@code n}.
+     */
+    public final void sort(double[] coords, int n, int dim, int[] ranks, int maximalMeaningfulRank) {
+        Objects.requireNonNull(coords, "The array of coordinates must not be null");
+        Objects.requireNonNull(ranks, "The array of ranks must not be null");
+        if (n < 0 || dim < 0) {
+            throw new IllegalArgumentException("The number of points, " + n + ", and the dimension, " + dim
+                    + ", must be non-negative");
+        }
+        checkNumbersOfPoints(n, ranks.length);
+        checkDimension(dim);
+        if ((long) n * dim > coords.length) {
+            throw new IllegalArgumentException("The array of coordinates has length " + coords.length
+                    + ", which is not enough to hold " + n + " points of dimension " + dim);
+        }
+        if (validatesInput) {
+            requireCoordinatesAreFinite(coords, n * dim);
+        }
+
+        if (n == 0) {
+            // Nothing to be done here.
+            return;
+        }
+
+        if (maximalMeaningfulRank < 0) {
+            throw new IllegalArgumentException("Maximal meaningful rank must be non-negative");
+        }
+
+        if (transformsPoints()) {
+            sortFlatValidated(transformPoints(coords, n, dim), n, dim, ranks, maximalMeaningfulRank);
+        } else {
+            sortFlatValidated(coords, n, dim, ranks, maximalMeaningfulRank);
+        }
+    }
+
+    /**
+     * Performs non-dominated sorting of points stored as columns, one array per objective.
+     * The coordinate {@code j} of the point {@code i} is expected to be found at {@code columns[j][i]}.
+     *
+     * @param columns the arrays of point coordinates, one array per objective.
+     * @param ranks the array to be filled with ranks of points.
+     */
+    public final void sortByColumns(double[][] columns, int[] ranks) {
+        sortByColumns(columns, ranks, ranks == null ? 0 : ranks.length);
+    }
+
+    /**
+     * Performs non-dominated sorting of points stored as columns, one array per objective.
+     * The coordinate {@code j} of the point {@code i} is expected to be found at {@code columns[j][i]}.
+     * All ranks above the given {@code maximalMeaningfulRank} will be reported as {@code maximalMeaningfulRank + 1}.
+     *
+     * @param columns the arrays of point coordinates, one array per objective.
+     *                Each of these arrays must have the same length as {@code ranks}.
+     * @param ranks the array to be filled with ranks of points.
+     * @param maximalMeaningfulRank the maximal rank which is meaningful to the caller.
+     *                              All ranks above will be reported as {@code maximalMeaningfulRank + 1}.
+     *                              The safe value to get all ranks correct is {@code ranks.length}.
+     */
+    public final void sortByColumns(double[][] columns, int[] ranks, int maximalMeaningfulRank) {
+        Objects.requireNonNull(columns, "The array of columns must not be null");
+        Objects.requireNonNull(ranks, "The array of ranks must not be null");
+        int n = ranks.length;
+        int dim = columns.length;
+        checkNumbersOfPoints(n, n);
+        checkDimension(dim);
+        for (double[] column : columns) {
+            Objects.requireNonNull(column, "The columns must not be null");
+            if (column.length != n) {
+                throw new IllegalArgumentException("The length of a column, " + column.length
+                        + ", must coincide with the length of the array for ranks, which is " + n);
             }
-            while (index < n) {
-                ranks[indices[index]] = rank;
-                ++index;
+            if (validatesInput) {
+                requireCoordinatesAreFinite(column, n);
             }
+        }
+
+        if (n == 0) {
+            // Nothing to be done here.
+            return;
+        }
+
+        if (maximalMeaningfulRank < 0) {
+            throw new IllegalArgumentException("Maximal meaningful rank must be non-negative");
+        }
+
+        if (transformsPoints()) {
+            sortFlatValidated(transformColumns(columns, n), n, dim, ranks, maximalMeaningfulRank);
+        } else if (dim == 0) {
+            fillRanksOfEqualPoints(ranks, maximalMeaningfulRank);
+        } else if (dim == 1 && !dominance.isWeak()) {
+            double[] column = columns[0];
+            ArrayHelper.fillIdentity(indices, n);
+            sorter.sortByValues(column, indices, 0, n);
+            rankSortedOneDimensional(i -> column[i], n, ranks, maximalMeaningfulRank);
         } else {
-            sortChecked(points, ranks, maximalMeaningfulRank);
+            sortCheckedByColumns(columns, ranks, maximalMeaningfulRank);
             filterMaximumMeaningfulRank(ranks, maximalMeaningfulRank);
         }
     }
 
+    /**
+     * Performs non-dominated sorting of points stored in a row-major buffer, such as a direct buffer
+     * or a memory-mapped file region, so that the points do not need to be copied to the heap as a whole.
+     * The coordinate {@code j} of the point {@code i} is expected to be found at
+     * {@code coords.get(coords.position() + i * dim + j)}, and the rank of the point {@code i}
+     * is written to {@code ranks.put(ranks.position() + i, rank)}. The positions of the buffers are not changed.
+     *
+     * All ranks above the given {@code maximalMeaningfulRank} will be reported as {@code maximalMeaningfulRank + 1}.
+     *
+     * @param coords the buffer of point coordinates, stored point after point.
+     * @param n the number of points.
+     * @param dim the dimension of the points.
+     * @param ranks the buffer to be filled with ranks of points.
+     * @param maximalMeaningfulRank the maximal rank which is meaningful to the caller.
+     *                              All ranks above will be reported as {@code maximalMeaningfulRank + 1}.
+     *                              The safe value to get all ranks correct is {@code n}.
+     */
+    public final void sort(DoubleBuffer coords, int n, int dim, IntBuffer ranks, int maximalMeaningfulRank) {
+        Objects.requireNonNull(coords, "The buffer of coordinates must not be null");
+        Objects.requireNonNull(ranks, "The buffer of ranks must not be null");
+        if (n < 0 || dim < 0) {
+            throw new IllegalArgumentException("The number of points, " + n + ", and the dimension, " + dim
+                    + ", must be non-negative");
+        }
+        checkNumbersOfPoints(n, n);
+        checkDimension(dim);
+        if ((long) n * dim > coords.remaining()) {
+            throw new IllegalArgumentException("The buffer of coordinates has " + coords.remaining()
+                    + " remaining elements, which is not enough to hold " + n + " points of dimension " + dim);
+        }
+        if (n > ranks.remaining()) {
+            throw new IllegalArgumentException("The buffer of ranks has " + ranks.remaining()
+                    + " remaining elements, which is not enough to hold the ranks of " + n + " points");
+        }
+        coords = coords.slice();
+        if (validatesInput) {
+            for (int i = 0, length = n * dim; i < length; ++i) {
+                double coordinate = coords.get(i);
+                if (Double.isNaN(coordinate) || Double.isInfinite(coordinate)) {
+                    throw new IllegalArgumentException("Coordinates of points to be sorted must not be NaN or Inf");
+                }
+            }
+        }
+
+        if (n == 0) {
+            // Nothing to be done here.
+            return;
+        }
+
+        if (maximalMeaningfulRank < 0) {
+            throw new IllegalArgumentException("Maximal meaningful rank must be non-negative");
+        }
+
+        int[] localRanks = getInternalRanks(n);
+
+        if (transformsPoints()) {
+            sortFlatValidated(transformPoints(coords, n, dim), n, dim, localRanks, maximalMeaningfulRank);
+        } else if (dim == 0) {
+            fillRanksOfEqualPoints(localRanks, maximalMeaningfulRank);
+        } else if (dim == 1 && !dominance.isWeak()) {
+            DoubleBuffer values = coords;
+            ArrayHelper.fillIdentity(indices, n);
+            sorter.sort(values, 1, indices, 0, n, 0);
+            rankSortedOneDimensional(values::get, n, localRanks, maximalMeaningfulRank);
+        } else {
+            sortCheckedBuffer(coords, n, dim, localRanks, maximalMeaningfulRank);
+            filterMaximumMeaningfulRank(localRanks, maximalMeaningfulRank);
+        }
+
+        for (int i = 0, base = ranks.position(); i < n; ++i) {
+            ranks.put(base + i, localRanks[i]);
+        }
+    }
+
     /**
      * Performs actual release of any resources hold by the algorithm.
      */
@@ -140,16 +927,446 @@ public abstract class NonDominatedSorting implements AutoCloseable {
      */
     protected abstract void sortChecked(double[][] points, int[] ranks, int maximalMeaningfulRank);
 
-    private void requirePointsAreNonNull(double[][] points) {
-        Objects.requireNonNull(points, "The array of points must not be null");
-        for (double[] point : points) {
-            Objects.requireNonNull(point, "The points to be sorted must not be null");
-            for (double coordinate : point) {
-                if (Double.isNaN(coordinate) || Double.isInfinite(coordinate)) {
-                    throw new IllegalArgumentException("Coordinates of points to be sorted must not be NaN or Inf");
+    /**
+     * Performs actual sorting of the union of parents, which come first, and offspring.
+     * Assumes the input arrays are valid, and that the dimension is at least two.
+     *
+     * The default implementation ignores the ranks of parents and sorts all the points.
+     * Algorithms which can use the known ranks of parents are expected to override this method.
+     *
+     * @param points the parents followed by the offspring.
+     * @param nParents the number of parents.
+     * @param parentRanks the ranks of parents among themselves.
+     * @param ranks the array of ranks to be filled.
+     */
+    protected void mergeRankedChecked(double[][] points, int nParents, int[] parentRanks, int[] ranks) {
+        sortChecked(points, ranks, points.length);
+    }
+
+    /**
+     * Performs actual sorting and computes the crowding distance,
+     * as described in {@link #sortWithCrowdingDistance(double[][], int[], double[])}.
+     * Assumes the input arrays are valid, and that the dimension is at least two.
+     *
+     * The default implementation sorts the points and then orders them by every objective.
+     * Algorithms which order the points by every objective anyway are expected to override this method
+     * and to pass their orderings to {@link #getCrowdingDistance()}.
+     *
+     * @param points the points to be sorted.
+     * @param ranks the array of ranks to be filled.
+     * @param crowdingDistances the array of crowding distances to be filled.
+     */
+    protected void sortCheckedWithCrowdingDistance(double[][] points, int[] ranks, double[] crowdingDistances) {
+        sortChecked(points, ranks, points.length);
+        getCrowdingDistance().compute(points, ranks, crowdingDistances, sorter, indices);
+    }
+
+    /**
+     * Returns the helper which computes the crowding distance, creating it on the first call.
+     * @return the helper which computes the crowding distance.
+     */
+    protected final CrowdingDistance getCrowdingDistance() {
+        if (crowdingDistance == null) {
+            crowdingDistance = new CrowdingDistance(maximumPoints);
+        }
+        return crowdingDistance;
+    }
+
+    /**
+     * Performs actual sorting and fills the fronts in the layout described in
+     * {@link #sortIntoFronts(double[][], int[], int[], int)}, returning the number of fronts.
+     * Assumes the input arrays are valid, and that the dimension is at least two.
+     *
+     * The default implementation sorts the points and then distributes them into fronts by their ranks.
+     * Algorithms which keep their fronts as lists are expected to override this method
+     * and to fill the layout from these lists, see {@link #fillFronts}.
+     *
+     * @param points the points to be sorted.
+     * @param ranks the array of the length of {@code points}, which can be used for any purpose.
+     * @param frontOffsets the array of front offsets to be filled.
+     * @param frontMembers the array of front members to be filled.
+     * @param maximalMeaningfulRank the maximal rank which is meaningful to the caller.
+     *                              All points with ranks above shall be put to the front {@code maximalMeaningfulRank + 1}.
+     * @return the number of fronts.
+     */
+    protected int sortIntoFrontsChecked(double[][] points, int[] ranks, int[] frontOffsets, int[] frontMembers,
+                                        int maximalMeaningfulRank) {
+        sortChecked(points, ranks, maximalMeaningfulRank);
+        filterMaximumMeaningfulRank(ranks, maximalMeaningfulRank);
+        return distributeByRanks(ranks, frontOffsets, frontMembers);
+    }
+
+    /**
+     * Fills the layout of {@link #sortIntoFronts(double[][], int[], int[], int)} from the lists of fronts.
+     * The list of the front {@code f} starts at {@code firstInFront[f]} and follows {@code nextInFront}
+     * until {@code -1} is met. The fronts above {@code maximalMeaningfulRank} are joined into a single front.
+     *
+     * If the lists contain only distinct points, while the points of the original population
+     * are {@code 0}, ..., {@code n - 1}, the original points equal to the distinct point {@code u}
+     * are listed in the same way by {@code firstOriginal[u]} and {@code nextOriginal}.
+     * Otherwise, {@code firstOriginal} and {@code nextOriginal} shall be {@code null}.
+     *
+     * @param firstInFront the first points of the fronts.
+     * @param nextInFront the next points of the fronts.
+     * @param nFronts the number of fronts.
+     * @param firstOriginal the first original points of the distinct points, or {@code null}.
+     * @param nextOriginal the next original points of the distinct points, or {@code null}.
+     * @param frontOffsets the array of front offsets to be filled.
+     * @param frontMembers the array of front members to be filled.
+     * @param maximalMeaningfulRank the maximal rank which is meaningful to the caller.
+     * @return the number of fronts in the layout.
+     */
+    protected static int fillFronts(int[] firstInFront, int[] nextInFront, int nFronts,
+                                    int[] firstOriginal, int[] nextOriginal,
+                                    int[] frontOffsets, int[] frontMembers, int maximalMeaningfulRank) {
+        int size = 0;
+        for (int f = 0; f < nFronts; ++f) {
+            if (f <= maximalMeaningfulRank + 1) {
+                frontOffsets[f] = size;
+            }
+            for (int p = firstInFront[f]; p != -1; p = nextInFront[p]) {
+                if (firstOriginal == null) {
+                    frontMembers[size++] = p;
+                } else {
+                    for (int i = firstOriginal[p]; i != -1; i = nextOriginal[i]) {
+                        frontMembers[size++] = i;
+                    }
                 }
             }
         }
+        int nOutputFronts = Math.min(nFronts, maximalMeaningfulRank + 2);
+        frontOffsets[nOutputFronts] = size;
+        return nOutputFronts;
+    }
+
+    /**
+     * Performs actual sorting until the fronts which are ranked contain at least {@code count} points.
+     * Assumes the input arrays are valid, and that the dimension is at least two.
+     *
+     * The default implementation sorts all the points and then finds the last needed rank.
+     * Algorithms which rank the points front by front, or which know the final ranks of points early,
+     * are expected to override this method and to avoid ranking the points which are not needed.
+     *
+     * @param points the points to be sorted.
+     * @param ranks the array of ranks to be filled.
+     * @param count the number of points to be covered, which does not exceed the number of points.
+     * @return the smallest rank {@code r} such that the fronts {@code 0}, ..., {@code r} contain at least
+     *         {@code count} points. The ranks which do not exceed {@code r} must be correct,
+     *         all other ranks must just exceed {@code r}.
+     */
+    protected int sortUntilCountChecked(double[][] points, int[] ranks, int count) {
+        sortChecked(points, ranks, points.length);
+        return findRankCoveringCount(ranks, count);
+    }
+
+    /**
+     * Performs actual sorting of points stored in a single row-major array. Assumes the input arrays are valid,
+     * and that the dimension is at least two.
+     *
+     * The default implementation unpacks the points into separate arrays and calls
+     * {@link #sortChecked(double[][], int[], int)}. Algorithms which can work with the row-major layout directly
+     * are expected to override this method.
+     *
+     * @param coords the coordinates of the points to be sorted, stored point after point.
+     * @param n the number of points.
+     * @param dim the dimension of the points.
+     * @param ranks the array of ranks to be filled.
+     * @param maximalMeaningfulRank the maximal rank which is meaningful to the caller.
+     *                              All ranks above can be treated as same.
+     */
+    protected void sortCheckedFlat(double[] coords, int n, int dim, int[] ranks, int maximalMeaningfulRank) {
+        sortChecked(unpack(coords, n, dim), ranks, maximalMeaningfulRank);
+    }
+
+    /**
+     * Performs actual sorting of points stored as columns, one array per objective.
+     * Assumes the input arrays are valid, and that the dimension is at least two.
+     *
+     * The default implementation gathers the points into separate arrays and calls
+     * {@link #sortChecked(double[][], int[], int)}. Algorithms which can work with columns directly
+     * are expected to override this method.
+     *
+     * @param columns the arrays of coordinates of the points to be sorted, one array per objective.
+     * @param ranks the array of ranks to be filled.
+     * @param maximalMeaningfulRank the maximal rank which is meaningful to the caller.
+     *                              All ranks above can be treated as same.
+     */
+    protected void sortCheckedByColumns(double[][] columns, int[] ranks, int maximalMeaningfulRank) {
+        sortChecked(gather(columns, ranks.length), ranks, maximalMeaningfulRank);
+    }
+
+    /**
+     * Performs actual sorting of points stored in a row-major buffer. Assumes the input is valid,
+     * that the dimension is at least two, and that the coordinates start at the index zero of the buffer.
+     *
+     * The default implementation copies the points into an array and calls
+     * {@link #sortCheckedFlat(double[], int, int, int[], int)}. Algorithms which can read the buffer directly
+     * are expected to override this method.
+     *
+     * @param coords the buffer of coordinates of the points to be sorted, stored point after point.
+     * @param n the number of points.
+     * @param dim the dimension of the points.
+     * @param ranks the array of ranks to be filled, which has the length of exactly {@code n}.
+     * @param maximalMeaningfulRank the maximal rank which is meaningful to the caller.
+     *                              All ranks above can be treated as same.
+     */
+    protected void sortCheckedBuffer(DoubleBuffer coords, int n, int dim, int[] ranks, int maximalMeaningfulRank) {
+        sortCheckedFlat(copyOf(coords, n * dim), n, dim, ranks, maximalMeaningfulRank);
+    }
+
+    /**
+     * Performs actual sorting of points with integer coordinates. Assumes the input arrays are valid,
+     * and that the dimension is at least two.
+     *
+     * The default implementation converts the points to floating-point values and calls
+     * {@link #sortChecked(double[][], int[], int)}. Algorithms which can work with integer keys directly
+     * are expected to override this method.
+     *
+     * @param points the points to be sorted.
+     * @param ranks the array of ranks to be filled.
+     * @param maximalMeaningfulRank the maximal rank which is meaningful to the caller.
+     *                              All ranks above can be treated as same.
+     */
+    protected void sortCheckedInt(int[][] points, int[] ranks, int maximalMeaningfulRank) {
+        sortChecked(toDoublePoints(points), ranks, maximalMeaningfulRank);
+    }
+
+    /**
+     * Returns whether this algorithm supports {@link Dominance#WEAK}. Such algorithms shall read
+     * {@link #getDominance()} and rank equal points one after another in the increasing order of their indices.
+     * All points given to such algorithms have the dimension of at least one.
+     *
+     * @return {@code true} if this algorithm supports the weak dominance, {@code false} otherwise.
+     */
+    protected boolean supportsWeakDominance() {
+        return false;
+    }
+
+    private void sortValidated(double[][] points, int dimension, int[] ranks, int maximalMeaningfulRank) {
+        points = transformPoints(points, dimension);
+        if (dimension == 0) {
+            fillRanksOfEqualPoints(ranks, maximalMeaningfulRank);
+        } else if (dimension == 1 && !dominance.isWeak()) {
+            sortOneDimensional(points, ranks, maximalMeaningfulRank);
+        } else {
+            sortChecked(points, ranks, maximalMeaningfulRank);
+            filterMaximumMeaningfulRank(ranks, maximalMeaningfulRank);
+        }
+    }
+
+    private boolean transformsPoints() {
+        return dominance.usesEpsilonBoxes() || maximized != null;
+    }
+
+    private double[][] transformPoints(double[][] points, int dimension) {
+        if (!transformsPoints()) {
+            return points;
+        }
+        // The rows are reused, only the array which refers to them follows the number of points.
+        int n = points.length;
+        if (transformedRows == null) {
+            transformedRows = new double[maximumPoints][];
+        }
+        if (transformedPoints == null || transformedPoints.length != n) {
+            transformedPoints = new double[n][];
+        }
+        for (int i = 0; i < n; ++i) {
+            double[] row = transformedRows[i];
+            if (row == null || row.length != dimension) {
+                row = transformedRows[i] = new double[dimension];
+            }
+            transformedPoints[i] = row;
+        }
+        for (int j = 0; j < dimension; ++j) {
+            boolean negate = isMaximized(j);
+            for (int i = 0; i < n; ++i) {
+                transformedPoints[i][j] = transform(points[i][j], negate);
+            }
+        }
+        return transformedPoints;
+    }
+
+    private double[] transformPoints(double[] coords, int n, int dim) {
+        int length = n * dim;
+        double[] result = getTransformedCoords(length);
+        for (int j = 0; j < dim; ++j) {
+            boolean negate = isMaximized(j);
+            for (int offset = j; offset < length; offset += dim) {
+                result[offset] = transform(coords[offset], negate);
+            }
+        }
+        return result;
+    }
+
+    private double[] transformPoints(DoubleBuffer coords, int n, int dim) {
+        int length = n * dim;
+        double[] result = getTransformedCoords(length);
+        for (int j = 0; j < dim; ++j) {
+            boolean negate = isMaximized(j);
+            for (int offset = j; offset < length; offset += dim) {
+                result[offset] = transform(coords.get(offset), negate);
+            }
+        }
+        return result;
+    }
+
+    private double[] transformColumns(double[][] columns, int n) {
+        int dim = columns.length;
+        double[] result = getTransformedCoords(n * dim);
+        for (int j = 0; j < dim; ++j) {
+            double[] column = columns[j];
+            boolean negate = isMaximized(j);
+            for (int i = 0, offset = j; i < n; ++i, offset += dim) {
+                result[offset] = transform(column[i], negate);
+            }
+        }
+        return result;
+    }
+
+    private double[] transformPoints(int[][] points, int dim) {
+        int n = points.length;
+        double[] result = getTransformedCoords(n * dim);
+        for (int j = 0; j < dim; ++j) {
+            boolean negate = isMaximized(j);
+            for (int i = 0, offset = j; i < n; ++i, offset += dim) {
+                result[offset] = transform(points[i][j], negate);
+            }
+        }
+        return result;
+    }
+
+    private double transform(double value, boolean negate) {
+        double box = dominance.toBox(value);
+        // Subtracting from zero does not produce negative zeros, which Double.compare puts before positive zeros.
+        return negate ? 0 - box : box;
+    }
+
+    private double[] getTransformedCoords(int length) {
+        if (transformedCoords == null || transformedCoords.length < length) {
+            transformedCoords = new double[length];
+        }
+        return transformedCoords;
+    }
+
+    private void sortFlatValidated(double[] coords, int n, int dim, int[] ranks, int maximalMeaningfulRank) {
+        if (dim == 0) {
+            fillRanksOfEqualPoints(ranks, maximalMeaningfulRank);
+        } else if (dim == 1 && !dominance.isWeak()) {
+            ArrayHelper.fillIdentity(indices, n);
+            sorter.sort(coords, 1, indices, 0, n, 0);
+            rankSortedOneDimensional(i -> coords[i], n, ranks, maximalMeaningfulRank);
+        } else {
+            sortCheckedFlat(coords, n, dim, ranks, maximalMeaningfulRank);
+            filterMaximumMeaningfulRank(ranks, maximalMeaningfulRank);
+        }
+    }
+
+    private void fillRanksOfEqualPoints(int[] ranks, int maximalMeaningfulRank) {
+        if (dominance.isWeak()) {
+            for (int i = 0; i < ranks.length; ++i) {
+                ranks[i] = Math.min(i, maximalMeaningfulRank + 1);
+            }
+        } else {
+            Arrays.fill(ranks, 0);
+        }
+    }
+
+    private static double[][] toDoublePoints(int[][] points) {
+        int n = points.length;
+        double[][] doublePoints = new double[n][];
+        for (int i = 0; i < n; ++i) {
+            int[] point = points[i];
+            double[] doublePoint = doublePoints[i] = new double[point.length];
+            for (int j = 0; j < point.length; ++j) {
+                doublePoint[j] = point[j];
+            }
+        }
+        return doublePoints;
+    }
+
+    private static double[][] unpack(double[] coords, int n, int dim) {
+        double[][] points = new double[n][];
+        for (int i = 0, offset = 0; i < n; ++i, offset += dim) {
+            points[i] = Arrays.copyOfRange(coords, offset, offset + dim);
+        }
+        return points;
+    }
+
+    private static double[][] gather(double[][] columns, int n) {
+        int dim = columns.length;
+        double[][] points = new double[n][dim];
+        for (int j = 0; j < dim; ++j) {
+            double[] column = columns[j];
+            for (int i = 0; i < n; ++i) {
+                points[i][j] = column[i];
+            }
+        }
+        return points;
+    }
+
+    private static double[] copyOf(DoubleBuffer coords, int length) {
+        double[] flat = new double[length];
+        coords.get(flat);
+        coords.rewind();
+        return flat;
+    }
+
+    private void sortOneDimensional(double[][] points, int[] ranks, int maximalMeaningfulRank) {
+        int n = points.length;
+        ArrayHelper.fillIdentity(indices, n);
+        sorter.sort(points, indices, 0, n, 0);
+        rankSortedOneDimensional(i -> points[i][0], n, ranks, maximalMeaningfulRank);
+    }
+
+    private void rankSortedOneDimensional(IntToDoubleFunction values, int n, int[] ranks, int maximalMeaningfulRank) {
+        // The first n indices are sorted by the values, so the rank grows each time the value changes.
+        double last = Double.NaN;
+        int rank = -1;
+        int index = 0;
+        while (rank <= maximalMeaningfulRank && index < n) {
+            int ii = indices[index];
+            double curr = values.applyAsDouble(ii);
+            if (curr != last) {
+                ++rank;
+                last = curr;
+            }
+            ranks[ii] = rank;
+            ++index;
+        }
+        while (index < n) {
+            ranks[indices[index]] = rank;
+            ++index;
+        }
+    }
+
+    private int findRankCoveringCount(int[] ranks, int count) {
+        // The sizes of fronts are counted in the array of indices, which is free at this point.
+        int n = ranks.length;
+        Arrays.fill(indices, 0, n, 0);
+        for (int rank : ranks) {
+            ++indices[rank];
+        }
+        int rank = 0;
+        for (int covered = indices[0]; covered < count; covered += indices[rank]) {
+            ++rank;
+        }
+        return rank;
+    }
+
+    private int[] getInternalRanks(int n) {
+        if (bufferRanks == null || bufferRanks.length != n) {
+            bufferRanks = new int[n];
+        }
+        return bufferRanks;
+    }
+
+    private void requireCoordinatesAreFinite(double[] coords, int length) {
+        for (int i = 0; i < length; ++i) {
+            double coordinate = coords[i];
+            if (Double.isNaN(coordinate) || Double.isInfinite(coordinate)) {
+                throw new IllegalArgumentException("Coordinates of points to be sorted must not be NaN or Inf");
+            }
+        }
     }
 
     private void filterMaximumMeaningfulRank(int[] ranks, int maximalMeaningfulRank) {
@@ -161,19 +1378,32 @@ public abstract class NonDominatedSorting implements AutoCloseable {
     }
 
     private int checkAndGetDimension(double[][] points) {
-        int dimension = points[0].length;
-        for (int i = 1; i < points.length; ++i) {
-            if (points[i].length != dimension) {
-                throw new IllegalArgumentException("All points to be sorted must have equal dimension");
+        // Null checks, dimension checks and coordinate checks are done in a single pass over the points.
+        int dimension = Objects.requireNonNull(points[0], "The points to be sorted must not be null").length;
+        if (validatesInput) {
+            for (double[] point : points) {
+                Objects.requireNonNull(point, "The points to be sorted must not be null");
+                if (point.length != dimension) {
+                    throw new IllegalArgumentException("All points to be sorted must have equal dimension");
+                }
+                for (double coordinate : point) {
+                    if (Double.isNaN(coordinate) || Double.isInfinite(coordinate)) {
+                        throw new IllegalArgumentException("Coordinates of points to be sorted must not be NaN or Inf");
+                    }
+                }
             }
         }
+        checkDimension(dimension);
+        return dimension;
+    }
+
+    private void checkDimension(int dimension) {
         if (dimension > this.maximumDimension) {
             throw new IllegalArgumentException(
                     "The dimension of points to be sorted, " + dimension
                             + ", must not exceed the maximum dimension, " + this.maximumDimension
                             + ", which this instance of NonDominatedSorting can handle");
         }
-        return dimension;
     }
 
     private void checkNumbersOfPoints(int pointsLength, int ranksLength) {
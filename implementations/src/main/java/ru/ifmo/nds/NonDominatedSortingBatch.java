@@ -0,0 +1,101 @@
+package ru.ifmo.nds;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class performs non-dominated sorting of many independent populations, spreading them across several threads.
+ *
+ * Each thread owns an instance of the non-dominated sorting algorithm, which is created once
+ * and reused for all the populations sorted by this object. This gives parallelism for populations which are
+ * too small to benefit from parallel processing inside a single call.
+ */
+public final class NonDominatedSortingBatch implements AutoCloseable {
+    private final NonDominatedSorting[] instances;
+    private ForkJoinPool pool;
+
+    /**
+     * Creates a new batch sorter.
+     * @param factory the factory to produce instances of the non-dominated sorting algorithm.
+     * @param maximumPoints the maximum number of points in a population.
+     * @param maximumDimension the maximum dimension of points in a population.
+     * @param threads the number of threads to use.
+     *                If non-positive, the number of available processors is used.
+     */
+    public NonDominatedSortingBatch(NonDominatedSortingFactory factory,
+                                    int maximumPoints, int maximumDimension, int threads) {
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        instances = new NonDominatedSorting[threads];
+        for (int i = 0; i < threads; ++i) {
+            instances[i] = factory.getInstance(maximumPoints, maximumDimension);
+        }
+        pool = threads > 1 ? new ForkJoinPool(threads) : null;
+    }
+
+    /**
+     * Returns the number of threads used by this batch sorter.
+     * @return the number of threads.
+     */
+    public int getThreads() {
+        return instances.length;
+    }
+
+    /**
+     * Performs non-dominated sorting of the given populations.
+     * The ranks of points from {@code populations[i]} are written to {@code ranks[i]}.
+     *
+     * @param populations the populations to be sorted.
+     * @param ranks the arrays to be filled with ranks of points, one array per population.
+     */
+    public void sortBatch(double[][][] populations, int[][] ranks) {
+        if (instances[0] == null) {
+            throw new IllegalStateException("close() has already been called");
+        }
+        NonDominatedSorting.checkBatch(populations, ranks);
+        int nThreads = Math.min(instances.length, populations.length);
+        if (nThreads <= 1) {
+            instances[0].sortBatch(populations, ranks);
+        } else {
+            AtomicInteger next = new AtomicInteger();
+            RecursiveAction action = new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[nThreads];
+                    for (int t = 0; t < nThreads; ++t) {
+                        NonDominatedSorting instance = instances[t];
+                        tasks[t] = ForkJoinTask.adapt(() -> {
+                            int i;
+                            while ((i = next.getAndIncrement()) < populations.length) {
+                                instance.sort(populations[i], ranks[i]);
+                            }
+                        });
+                    }
+                    invokeAll(tasks);
+                }
+            };
+            pool.invoke(action);
+        }
+    }
+
+    /**
+     * Releases all resources taken by this batch sorter.
+     */
+    @Override
+    public void close() {
+        if (instances[0] == null) {
+            throw new IllegalStateException("close() has already been called");
+        }
+        for (int i = 0; i < instances.length; ++i) {
+            instances[i].close();
+            instances[i] = null;
+        }
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+}
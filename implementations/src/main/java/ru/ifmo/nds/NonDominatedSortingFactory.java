@@ -13,6 +13,19 @@ public interface NonDominatedSortingFactory {
      */
     NonDominatedSorting getInstance(int maximumPoints, int maximumDimension);
 
+    /**
+     * Creates a new instance of a non-dominated sorting algorithm, which maximizes some of the objectives.
+     * @param maximumPoints the maximum number of points to handle.
+     * @param maximumDimension the maximum number of dimensions to handle.
+     * @param maximized the flags of maximized objectives, see {@link NonDominatedSorting#setMaximizedObjectives(boolean[])}.
+     * @return the instance of the non-dominated sorting algorithm.
+     */
+    default NonDominatedSorting getInstance(int maximumPoints, int maximumDimension, boolean[] maximized) {
+        NonDominatedSorting instance = getInstance(maximumPoints, maximumDimension);
+        instance.setMaximizedObjectives(maximized);
+        return instance;
+    }
+
     /**
      * Returns the name of the non-dominated sorting algorithm, instances of which are produced by this factory.
      * @return the name of the non-dominated sorting algorithm.
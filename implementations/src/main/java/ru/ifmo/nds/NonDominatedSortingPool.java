@@ -0,0 +1,227 @@
+package ru.ifmo.nds;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This is a thread-safe pool of instances of a non-dominated sorting algorithm.
+ *
+ * Instances are leased to callers and returned to the pool afterwards, so that many threads can share
+ * a few instances, which is especially important when the instances hold expensive data structures.
+ * New instances are created when there are no idle ones. Returned instances are kept while the number
+ * of idle instances does not exceed the given limit, and idle instances which were not used for too long are closed.
+ *
+ * The most recently returned instances are leased first, which keeps their data warm in the caches,
+ * and lets the rarely used instances expire. The expired instances are closed whenever an instance
+ * is leased or returned; the pool has no background thread, so {@link #releaseIdle()} shall be called
+ * to close the idle instances of a pool which is no longer used, but is kept around.
+ */
+public final class NonDominatedSortingPool implements AutoCloseable {
+    private static final long DEFAULT_KEEP_ALIVE_MILLIS = 60000;
+
+    private final NonDominatedSortingFactory factory;
+    private final int maximumPoints;
+    private final int maximumDimension;
+    private final int maximumIdle;
+    private final long keepAliveNanos;
+
+    private final ConcurrentLinkedDeque<IdleInstance> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private volatile boolean closed = false;
+
+    private NonDominatedSortingPool(NonDominatedSortingFactory factory,
+                                    int maximumPoints, int maximumDimension,
+                                    int maximumIdle, long keepAliveMillis) {
+        if (maximumIdle < 0) {
+            throw new IllegalArgumentException("The maximum number of idle instances must be non-negative");
+        }
+        if (keepAliveMillis < 0) {
+            throw new IllegalArgumentException("The keep-alive time must be non-negative");
+        }
+        this.factory = factory;
+        this.maximumPoints = maximumPoints;
+        this.maximumDimension = maximumDimension;
+        this.maximumIdle = maximumIdle;
+        this.keepAliveNanos = TimeUnit.MILLISECONDS.toNanos(keepAliveMillis);
+    }
+
+    /**
+     * Creates a new pool, which keeps at most as many idle instances as there are available processors,
+     * and closes instances which were idle for more than a minute.
+     *
+     * @param factory the factory to produce instances of the non-dominated sorting algorithm.
+     * @param maximumPoints the maximum number of points to handle.
+     * @param maximumDimension the maximum number of dimensions to handle.
+     * @return the new pool.
+     */
+    public static NonDominatedSortingPool create(NonDominatedSortingFactory factory,
+                                                 int maximumPoints, int maximumDimension) {
+        return create(factory, maximumPoints, maximumDimension,
+                Runtime.getRuntime().availableProcessors(), DEFAULT_KEEP_ALIVE_MILLIS);
+    }
+
+    /**
+     * Creates a new pool.
+     *
+     * @param factory the factory to produce instances of the non-dominated sorting algorithm.
+     * @param maximumPoints the maximum number of points to handle.
+     * @param maximumDimension the maximum number of dimensions to handle.
+     * @param maximumIdle the maximum number of idle instances to keep.
+     * @param keepAliveMillis the time, in milliseconds, after which an idle instance is closed.
+     * @return the new pool.
+     */
+    public static NonDominatedSortingPool create(NonDominatedSortingFactory factory,
+                                                 int maximumPoints, int maximumDimension,
+                                                 int maximumIdle, long keepAliveMillis) {
+        return new NonDominatedSortingPool(factory, maximumPoints, maximumDimension, maximumIdle, keepAliveMillis);
+    }
+
+    /**
+     * Leases an instance from the pool. The instance is returned to the pool when the lease is closed.
+     * @return the lease of an instance.
+     */
+    public Lease acquire() {
+        if (closed) {
+            throw new IllegalStateException("The pool has already been closed");
+        }
+        expireIdle(System.nanoTime());
+        IdleInstance instance = idle.pollFirst();
+        if (instance == null) {
+            return new Lease(factory.getInstance(maximumPoints, maximumDimension));
+        }
+        idleCount.decrementAndGet();
+        return new Lease(instance.sorting);
+    }
+
+    /**
+     * Performs non-dominated sorting using an instance leased from this pool.
+     * @param points the array of points to be sorted.
+     * @param ranks the array to be filled with ranks of points.
+     */
+    public void sort(double[][] points, int[] ranks) {
+        try (Lease lease = acquire()) {
+            lease.getSorting().sort(points, ranks);
+        }
+    }
+
+    /**
+     * Performs non-dominated sorting using an instance leased from this pool.
+     * @param points the array of points to be sorted.
+     * @param ranks the array to be filled with ranks of points.
+     * @param maximalMeaningfulRank the maximal rank which is meaningful to the caller.
+     *                              All ranks above will be reported as {@code maximalMeaningfulRank + 1}.
+     */
+    public void sort(double[][] points, int[] ranks, int maximalMeaningfulRank) {
+        try (Lease lease = acquire()) {
+            lease.getSorting().sort(points, ranks, maximalMeaningfulRank);
+        }
+    }
+
+    /**
+     * Returns the number of idle instances in the pool.
+     * @return the number of idle instances.
+     */
+    public int getIdleCount() {
+        return idleCount.get();
+    }
+
+    /**
+     * Closes all idle instances. The pool can still be used afterwards.
+     */
+    public void releaseIdle() {
+        IdleInstance instance;
+        while ((instance = idle.pollLast()) != null) {
+            idleCount.decrementAndGet();
+            instance.sorting.close();
+        }
+    }
+
+    /**
+     * Closes the pool and all its idle instances. The leased instances are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        releaseIdle();
+    }
+
+    private void release(NonDominatedSorting sorting) {
+        if (closed) {
+            sorting.close();
+            return;
+        }
+        if (idleCount.incrementAndGet() > maximumIdle) {
+            idleCount.decrementAndGet();
+            sorting.close();
+            return;
+        }
+        long now = System.nanoTime();
+        idle.offerFirst(new IdleInstance(sorting, now));
+        if (closed) {
+            // The pool was closed concurrently, so this instance shall not stay idle.
+            releaseIdle();
+            return;
+        }
+        expireIdle(now);
+    }
+
+    // Closes all instances which were idle for too long. They are the least recently used ones,
+    // so they are taken from the tail of the deque until a fresh one is met.
+    private void expireIdle(long now) {
+        IdleInstance oldest;
+        while ((oldest = idle.peekLast()) != null && now - oldest.releaseTime > keepAliveNanos) {
+            if (idle.removeLastOccurrence(oldest)) {
+                idleCount.decrementAndGet();
+                oldest.sorting.close();
+            }
+        }
+    }
+
+    private static final class IdleInstance {
+        private final NonDominatedSorting sorting;
+        private final long releaseTime;
+
+        private IdleInstance(NonDominatedSorting sorting, long releaseTime) {
+            this.sorting = sorting;
+            this.releaseTime = releaseTime;
+        }
+    }
+
+    /**
+     * This is a lease of an instance of the non-dominated sorting algorithm.
+     * Every call to {@link #acquire()} produces a new lease, which cannot be used after it is closed,
+     * even when its instance is leased again.
+     */
+    public final class Lease implements AutoCloseable {
+        private final NonDominatedSorting sorting;
+        private boolean leased = true;
+
+        private Lease(NonDominatedSorting sorting) {
+            this.sorting = sorting;
+        }
+
+        /**
+         * Returns the leased instance.
+         * @return the leased instance.
+         */
+        public NonDominatedSorting getSorting() {
+            if (!leased) {
+                throw new IllegalStateException("The lease has already been closed");
+            }
+            return sorting;
+        }
+
+        /**
+         * Returns the leased instance to the pool.
+         */
+        @Override
+        public void close() {
+            if (!leased) {
+                throw new IllegalStateException("The lease has already been closed");
+            }
+            leased = false;
+            release(sorting);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package ru.ifmo.nds;
+
+/**
+ * This is a streaming non-dominated sorter, which maintains the ranks of the last few points which have arrived.
+ * When the window is full, pushing a new point expires the oldest one.
+ *
+ * The ranks are maintained incrementally by {@link DynamicNonDominatedSorting},
+ * so the window is never sorted again from scratch, and the memory is bounded by the window size.
+ */
+public final class SlidingWindowNonDominatedSorting {
+    private final DynamicNonDominatedSorting sorting;
+    private final int[] windowIds;
+    private int oldest;
+    private int size;
+
+    /**
+     * Creates an empty window.
+     *
+     * @param windowSize the maximum number of points in the window.
+     * @param dimension the dimension of points.
+     */
+    public SlidingWindowNonDominatedSorting(int windowSize, int dimension) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("The window size must be positive");
+        }
+        sorting = new DynamicNonDominatedSorting(windowSize, dimension);
+        windowIds = new int[windowSize];
+    }
+
+    /**
+     * Returns the maximum number of points in the window.
+     * @return the maximum number of points in the window.
+     */
+    public int getWindowSize() {
+        return windowIds.length;
+    }
+
+    /**
+     * Returns the number of points currently in the window.
+     * @return the number of points currently in the window.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of non-empty fronts in the window.
+     * @return the number of non-empty fronts in the window.
+     */
+    public int getNumberOfFronts() {
+        return sorting.getNumberOfFronts();
+    }
+
+    /**
+     * Adds a new point to the window, expiring the oldest point if the window is full. The point is copied.
+     *
+     * @param point the new point.
+     * @return the rank of the new point.
+     */
+    public int push(double[] point) {
+        if (size == windowIds.length) {
+            sorting.remove(windowIds[oldest]);
+            oldest = next(oldest);
+            --size;
+        }
+        int id = sorting.insert(point);
+        int position = oldest + size;
+        windowIds[position >= windowIds.length ? position - windowIds.length : position] = id;
+        ++size;
+        return sorting.getRank(id);
+    }
+
+    /**
+     * Returns the rank of a point in the window.
+     * @param index the index of the point in the window, where 0 is the oldest point.
+     * @return the rank of the point.
+     */
+    public int getRank(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("The index " + index + " is out of range [0; " + size + ")");
+        }
+        int position = oldest + index;
+        return sorting.getRank(windowIds[position >= windowIds.length ? position - windowIds.length : position]);
+    }
+
+    /**
+     * Writes the ranks of all points in the window, from the oldest to the newest, to the given array.
+     * @param ranks the array to receive the ranks.
+     */
+    public void getRanks(int[] ranks) {
+        for (int i = 0, position = oldest; i < size; ++i, position = next(position)) {
+            ranks[i] = sorting.getRank(windowIds[position]);
+        }
+    }
+
+    /**
+     * Removes all points from the window.
+     */
+    public void clear() {
+        sorting.clear();
+        oldest = 0;
+        size = 0;
+    }
+
+    private int next(int position) {
+        return position + 1 == windowIds.length ? 0 : position + 1;
+    }
+}
@@ -0,0 +1,230 @@
+package ru.ifmo.nds.adaptive;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+import ru.ifmo.nds.NonDominatedSorting;
+import ru.ifmo.nds.util.ArrayHelper;
+import ru.ifmo.nds.util.DominanceHelper;
+
+public class AdaptiveSorting extends NonDominatedSorting {
+    private static final int SAMPLE_SIZE = 64;
+
+    private final CostModel costModel;
+    private final Candidate[] candidates;
+    private NonDominatedSorting[] instances;
+    private int[] sample;
+    private int[] sampleRanks;
+    private double[][] samplePoints;
+    private double[][] sampleStorage; // copies of sampled points which do not come as rows, allocated on demand
+    private Candidate lastChoice;
+
+    public AdaptiveSorting(int maximumPoints, int maximumDimension, CostModel costModel) {
+        super(maximumPoints, maximumDimension);
+        this.costModel = costModel;
+        int count = 0;
+        Candidate[] all = Candidate.values();
+        for (Candidate candidate : all) {
+            if (costModel.getCoefficient(candidate) > 0 && candidate.isFeasible(maximumPoints, maximumDimension)) {
+                all[count++] = candidate;
+            }
+        }
+        if (count == 0) {
+            throw new IllegalArgumentException("No candidate of the cost model can handle "
+                    + maximumPoints + " points of dimension " + maximumDimension);
+        }
+        candidates = Arrays.copyOf(all, count);
+        instances = new NonDominatedSorting[Candidate.values().length];
+        sample = new int[SAMPLE_SIZE];
+        sampleRanks = new int[SAMPLE_SIZE];
+        samplePoints = new double[SAMPLE_SIZE][];
+    }
+
+    @Override
+    public String getName() {
+        StringBuilder sb = new StringBuilder("Adaptive (");
+        for (int i = 0; i < candidates.length; ++i) {
+            sb.append(i == 0 ? "" : ", ").append(candidates[i].getId());
+        }
+        return sb.append(")").toString();
+    }
+
+    /**
+     * Returns the candidate which was used in the last call, or {@code null} if no sorting was yet done.
+     * @return the last used candidate.
+     */
+    public Candidate getLastChoice() {
+        return lastChoice;
+    }
+
+    @Override
+    protected void closeImpl() {
+        for (NonDominatedSorting instance : instances) {
+            if (instance != null) {
+                instance.close();
+            }
+        }
+        instances = null;
+        sample = null;
+        sampleRanks = null;
+        samplePoints = null;
+        sampleStorage = null;
+    }
+
+    @Override
+    protected void sortChecked(double[][] points, int[] ranks, int maximalMeaningfulRank) {
+        choose(sampleRows(points), points.length, points[0].length).sort(points, ranks, maximalMeaningfulRank);
+    }
+
+    @Override
+    protected void mergeRankedChecked(double[][] points, int nParents, int[] parentRanks, int[] ranks) {
+        int n = points.length;
+        NonDominatedSorting instance = choose(sampleRows(points), n, points[0].length);
+        instance.mergeRanked(Arrays.copyOf(points, nParents), parentRanks, Arrays.copyOfRange(points, nParents, n), ranks);
+    }
+
+    @Override
+    protected void sortCheckedWithCrowdingDistance(double[][] points, int[] ranks, double[] crowdingDistances) {
+        choose(sampleRows(points), points.length, points[0].length)
+                .sortWithCrowdingDistance(points, ranks, crowdingDistances);
+    }
+
+    @Override
+    protected int sortUntilCountChecked(double[][] points, int[] ranks, int count) {
+        return choose(sampleRows(points), points.length, points[0].length).sortUntilCount(points, ranks, count) - 1;
+    }
+
+    @Override
+    protected int sortIntoFrontsChecked(double[][] points, int[] ranks, int[] frontOffsets, int[] frontMembers,
+                                        int maximalMeaningfulRank) {
+        return choose(sampleRows(points), points.length, points[0].length)
+                .sortIntoFronts(points, frontOffsets, frontMembers, maximalMeaningfulRank);
+    }
+
+    @Override
+    protected void sortCheckedFlat(double[] coords, int n, int dim, int[] ranks, int maximalMeaningfulRank) {
+        int size = sampleSize(n);
+        for (int i = 0; i < size; ++i) {
+            System.arraycopy(coords, sampleIndex(i, n, size) * dim, sampleRow(i), 0, dim);
+        }
+        choose(size, n, dim).sort(coords, n, dim, ranks, maximalMeaningfulRank);
+    }
+
+    @Override
+    protected void sortCheckedByColumns(double[][] columns, int[] ranks, int maximalMeaningfulRank) {
+        int n = ranks.length;
+        int dim = columns.length;
+        int size = sampleSize(n);
+        for (int i = 0; i < size; ++i) {
+            double[] row = sampleRow(i);
+            int index = sampleIndex(i, n, size);
+            for (int j = 0; j < dim; ++j) {
+                row[j] = columns[j][index];
+            }
+        }
+        choose(size, n, dim).sortByColumns(columns, ranks, maximalMeaningfulRank);
+    }
+
+    @Override
+    protected void sortCheckedBuffer(DoubleBuffer coords, int n, int dim, int[] ranks, int maximalMeaningfulRank) {
+        int size = sampleSize(n);
+        for (int i = 0; i < size; ++i) {
+            double[] row = sampleRow(i);
+            int offset = sampleIndex(i, n, size) * dim;
+            for (int j = 0; j < dim; ++j) {
+                row[j] = coords.get(offset + j);
+            }
+        }
+        choose(size, n, dim).sort(coords, n, dim, IntBuffer.wrap(ranks), maximalMeaningfulRank);
+    }
+
+    @Override
+    protected void sortCheckedInt(int[][] points, int[] ranks, int maximalMeaningfulRank) {
+        int n = points.length;
+        int dim = points[0].length;
+        int size = sampleSize(n);
+        for (int i = 0; i < size; ++i) {
+            double[] row = sampleRow(i);
+            int[] point = points[sampleIndex(i, n, size)];
+            for (int j = 0; j < dim; ++j) {
+                row[j] = point[j];
+            }
+        }
+        choose(size, n, dim).sort(points, ranks, maximalMeaningfulRank);
+    }
+
+    private static int sampleSize(int n) {
+        return Math.min(n, SAMPLE_SIZE);
+    }
+
+    private static int sampleIndex(int i, int n, int size) {
+        return (int) ((long) i * n / size);
+    }
+
+    // The sample of points given as rows is referenced, not copied.
+    private int sampleRows(double[][] points) {
+        int n = points.length;
+        int size = sampleSize(n);
+        for (int i = 0; i < size; ++i) {
+            samplePoints[i] = points[sampleIndex(i, n, size)];
+        }
+        return size;
+    }
+
+    private double[] sampleRow(int i) {
+        if (sampleStorage == null) {
+            sampleStorage = new double[SAMPLE_SIZE][getMaximumDimension()];
+        }
+        return samplePoints[i] = sampleStorage[i];
+    }
+
+    // Chooses the algorithm for the points whose sample is in samplePoints.
+    private NonDominatedSorting choose(int sampleSize, int n, int dim) {
+        double fronts = estimateFronts(sampleSize, n, dim);
+        Arrays.fill(samplePoints, 0, sampleSize, null);
+        Candidate choice = costModel.choose(candidates, n, dim, fronts);
+        NonDominatedSorting instance = instances[choice.ordinal()];
+        if (instance == null) {
+            // The instances are kept between the calls, so that they stay warm.
+            instance = instances[choice.ordinal()] = choice.getFactory().getInstance(getMaximumPoints(), getMaximumDimension());
+            // The points have already been validated by this instance.
+            instance.setInputValidation(false);
+        }
+        // The dominance and the maximized objectives are applied by this instance before the points are passed on,
+        // so only the settings of the sorting itself are passed on.
+        instance.setDuplicateCollapsing(isDuplicateCollapsing());
+        lastChoice = choice;
+        return instance;
+    }
+
+    // Sorts a small evenly spaced sample exactly, and the same for its every other point.
+    // The growth of the number of fronts between the two is used to extrapolate it to all points.
+    private double estimateFronts(int size, int n, int dim) {
+        ArrayHelper.fillIdentity(sample, size);
+        sorter.lexicographicalSort(samplePoints, sample, 0, size, dim);
+        int fronts = countFronts(size, 1, dim);
+        if (size == n) {
+            return fronts;
+        }
+        int halfFronts = countFronts(size, 2, dim);
+        double exponent = fronts <= halfFronts ? 0 : Math.min(1, Math.log((double) fronts / halfFronts) / Math.log(2));
+        return Math.min(n, fronts * Math.pow((double) n / size, exponent));
+    }
+
+    private int countFronts(int size, int step, int dim) {
+        int maxRank = 0;
+        for (int i = 0; i < size; i += step) {
+            double[] current = samplePoints[sample[i]];
+            int rank = 0;
+            for (int j = 0; j < i; j += step) {
+                if (sampleRanks[j] >= rank && DominanceHelper.strictlyDominates(samplePoints[sample[j]], current, dim)) {
+                    rank = sampleRanks[j] + 1;
+                }
+            }
+            sampleRanks[i] = rank;
+            maxRank = Math.max(maxRank, rank);
+        }
+        return maxRank + 1;
+    }
+}
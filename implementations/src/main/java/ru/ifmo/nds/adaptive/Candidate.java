@@ -0,0 +1,97 @@
+package ru.ifmo.nds.adaptive;
+
+import ru.ifmo.nds.*;
+
+/**
+ * This is the enumeration of algorithms the adaptive sorting chooses from.
+ * Each algorithm comes with the shape of its running time, which is multiplied
+ * by a machine-dependent coefficient from the {@link CostModel}.
+ */
+public enum Candidate {
+    ENS_BS("ens.bs", ENS.getENS_BS()) {
+        @Override
+        public double shape(int n, int d, double fronts) {
+            // Each point is compared to points from logarithmically many fronts, n / fronts points each.
+            return n * (d * (1 + n / fronts) * log2(fronts + 1));
+        }
+    },
+    BOS_IMPROVED("bos.improved", BestOrderSort.getImprovedImplementation()) {
+        @Override
+        public double shape(int n, int d, double fronts) {
+            // Sorting every objective, then comparing each point to the points in few fronts,
+            // which often stops after checking about a half of the objectives.
+            return n * d * (log2(n + 1) + (1 + n / fronts) * log2(fronts + 1) / 2);
+        }
+    },
+    MNDS_BITSETS("mnds.bitsets", SetIntersectionSort.getBitSetInstance()) {
+        @Override
+        public double shape(int n, int d, double fronts) {
+            // Sorting every objective, then intersecting bit sets of n bits for every point and objective.
+            return n * d * (log2(n + 1) + n / 64.0);
+        }
+
+        @Override
+        public boolean isFeasible(int maximumPoints, int maximumDimension) {
+            // The bit sets take memory quadratic in the maximum number of points.
+            return maximumPoints <= 1 << 15;
+        }
+    },
+    JFB_HYBRID("jfb.rbtree.hybrid.ndt.4", JensenFortinBuzdalov.getRedBlackTreeSweepHybridNDTImplementation(4, 1)) {
+        @Override
+        public double shape(int n, int d, double fronts) {
+            double logN = log2(n + 1);
+            if (d == 2) {
+                return n * logN;
+            }
+            // The divide-and-conquer part, which the hybrid stops when the quadratic algorithm becomes cheaper.
+            return n * Math.min(Math.pow(logN, d - 1), d * (logN + (1 + n / fronts) * log2(fronts + 1)));
+        }
+    };
+
+    private final String id;
+    private final NonDominatedSortingFactory factory;
+
+    Candidate(String id, NonDominatedSortingFactory factory) {
+        this.id = id;
+        this.factory = factory;
+    }
+
+    /**
+     * Returns the identifier of the algorithm, which matches the one used in benchmarks.
+     * @return the identifier of the algorithm.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns the factory producing instances of the algorithm.
+     * @return the factory.
+     */
+    public NonDominatedSortingFactory getFactory() {
+        return factory;
+    }
+
+    /**
+     * Returns the shape of the running time of the algorithm, up to a constant factor.
+     * @param n the number of points.
+     * @param d the dimension of points.
+     * @param fronts the (estimated) number of fronts.
+     * @return the shape of the running time.
+     */
+    public abstract double shape(int n, int d, double fronts);
+
+    /**
+     * Checks whether the algorithm can be used for the given maximum number of points and dimension.
+     * @param maximumPoints the maximum number of points.
+     * @param maximumDimension the maximum dimension.
+     * @return {@code true} if the algorithm can be used, {@code false} otherwise.
+     */
+    public boolean isFeasible(int maximumPoints, int maximumDimension) {
+        return true;
+    }
+
+    private static double log2(double value) {
+        return Math.log(value) / Math.log(2);
+    }
+}
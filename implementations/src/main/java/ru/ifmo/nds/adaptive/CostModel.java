@@ -0,0 +1,242 @@
+package ru.ifmo.nds.adaptive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * This is the cost model used by the adaptive sorting. The estimated running time of a candidate
+ * is its {@link Candidate#shape(int, int, double)} multiplied by the coefficient of this candidate.
+ * Candidates without coefficients are never chosen.
+ *
+ * The coefficients depend on the machine, and can be fitted by the calibration runner from the benchmarking module,
+ * which writes them to the "coefficients" object of its JSON output, keyed by candidate identifiers.
+ * The runner also writes the measured times for every cell of its grid of (n, d, number of fronts)
+ * to the "cells" array. When a model read from such output is asked to choose a candidate within the grid,
+ * the fastest candidate measured in the nearest cell is chosen, and the estimates are used only outside the grid.
+ */
+public final class CostModel {
+    private static final CostModel DEFAULT;
+    private static final Pattern COEFFICIENTS_HEADER = Pattern.compile("\"coefficients\"\\s*:\\s*\\{");
+    private static final Pattern COEFFICIENT_ENTRY = Pattern.compile("\"([^\"]+)\"\\s*:\\s*([-+0-9.eE]+)");
+    private static final Pattern CELL = Pattern.compile("\\{\\s*\"n\"\\s*:\\s*(\\d+)\\s*,\\s*\"d\"\\s*:\\s*(\\d+)"
+            + "\\s*,\\s*\"fronts\"\\s*:\\s*(\\d+)\\s*,\\s*\"times\"\\s*:\\s*\\{([^}]*)}");
+
+    static {
+        Map<Candidate, Double> coefficients = new EnumMap<>(Candidate.class);
+        coefficients.put(Candidate.ENS_BS, 1.0);
+        coefficients.put(Candidate.BOS_IMPROVED, 1.5);
+        coefficients.put(Candidate.MNDS_BITSETS, 4.0);
+        coefficients.put(Candidate.JFB_HYBRID, 3.0);
+        DEFAULT = new CostModel(coefficients);
+    }
+
+    private final double[] coefficients;
+    private final Cell[] cells;
+    private final double minLogN, maxLogN, minLogD, maxLogD, minLogFronts, maxLogFronts;
+
+    /**
+     * Creates a cost model with the given coefficients.
+     * @param coefficients the coefficients of the candidates. They must be positive.
+     */
+    public CostModel(Map<Candidate, Double> coefficients) {
+        this(coefficients, new ArrayList<>());
+    }
+
+    private CostModel(Map<Candidate, Double> coefficients, List<Cell> cells) {
+        this.cells = cells.toArray(new Cell[0]);
+        double minLogN = Double.POSITIVE_INFINITY, maxLogN = Double.NEGATIVE_INFINITY;
+        double minLogD = Double.POSITIVE_INFINITY, maxLogD = Double.NEGATIVE_INFINITY;
+        double minLogFronts = Double.POSITIVE_INFINITY, maxLogFronts = Double.NEGATIVE_INFINITY;
+        for (Cell cell : cells) {
+            minLogN = Math.min(minLogN, cell.logN);
+            maxLogN = Math.max(maxLogN, cell.logN);
+            minLogD = Math.min(minLogD, cell.logD);
+            maxLogD = Math.max(maxLogD, cell.logD);
+            minLogFronts = Math.min(minLogFronts, cell.logFronts);
+            maxLogFronts = Math.max(maxLogFronts, cell.logFronts);
+        }
+        this.minLogN = minLogN;
+        this.maxLogN = maxLogN;
+        this.minLogD = minLogD;
+        this.maxLogD = maxLogD;
+        this.minLogFronts = minLogFronts;
+        this.maxLogFronts = maxLogFronts;
+
+        this.coefficients = new double[Candidate.values().length];
+        boolean hasAny = false;
+        for (Map.Entry<Candidate, Double> entry : coefficients.entrySet()) {
+            double value = entry.getValue();
+            if (!(value > 0) || Double.isInfinite(value)) {
+                throw new IllegalArgumentException("The coefficient for " + entry.getKey()
+                        + " must be positive and finite, found " + value);
+            }
+            this.coefficients[entry.getKey().ordinal()] = value;
+            hasAny = true;
+        }
+        if (!hasAny) {
+            throw new IllegalArgumentException("At least one candidate must have a coefficient");
+        }
+    }
+
+    /**
+     * Returns the default cost model.
+     * @return the default cost model.
+     */
+    public static CostModel getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Reads the cost model from the "coefficients" object and the "cells" array of the JSON output
+     * of the calibration runner. Identifiers which do not correspond to candidates are ignored.
+     *
+     * @param json the JSON text.
+     * @return the cost model.
+     */
+    public static CostModel parse(String json) {
+        Matcher header = COEFFICIENTS_HEADER.matcher(json);
+        if (!header.find()) {
+            throw new IllegalArgumentException("No \"coefficients\" object found");
+        }
+        int end = json.indexOf('}', header.end());
+        if (end < 0) {
+            throw new IllegalArgumentException("The \"coefficients\" object is not closed");
+        }
+        Map<Candidate, Double> coefficients = parseEntries(json.substring(header.end(), end));
+
+        List<Cell> cells = new ArrayList<>();
+        Matcher cell = CELL.matcher(json);
+        while (cell.find()) {
+            double[] times = new double[Candidate.values().length];
+            for (Map.Entry<Candidate, Double> time : parseEntries(cell.group(4)).entrySet()) {
+                times[time.getKey().ordinal()] = time.getValue();
+            }
+            cells.add(new Cell(Integer.parseInt(cell.group(1)), Integer.parseInt(cell.group(2)),
+                    Integer.parseInt(cell.group(3)), times));
+        }
+        return new CostModel(coefficients, cells);
+    }
+
+    private static Map<Candidate, Double> parseEntries(String json) {
+        Map<Candidate, Double> entries = new EnumMap<>(Candidate.class);
+        Matcher entry = COEFFICIENT_ENTRY.matcher(json);
+        while (entry.find()) {
+            for (Candidate candidate : Candidate.values()) {
+                if (candidate.getId().equals(entry.group(1))) {
+                    entries.put(candidate, Double.parseDouble(entry.group(2)));
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Reads the cost model from a file written by the calibration runner.
+     * @param file the file to read.
+     * @return the cost model.
+     */
+    public static CostModel load(Path file) {
+        try {
+            return parse(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Returns the coefficient of the given candidate, or zero if the candidate is never chosen.
+     * @param candidate the candidate.
+     * @return the coefficient of the candidate.
+     */
+    public double getCoefficient(Candidate candidate) {
+        return coefficients[candidate.ordinal()];
+    }
+
+    /**
+     * Estimates the running time of the given candidate, in arbitrary units.
+     * @param candidate the candidate.
+     * @param n the number of points.
+     * @param d the dimension of points.
+     * @param fronts the estimated number of fronts.
+     * @return the estimated running time, or positive infinity if the candidate is never chosen.
+     */
+    public double estimate(Candidate candidate, int n, int d, double fronts) {
+        double coefficient = coefficients[candidate.ordinal()];
+        return coefficient > 0 ? coefficient * candidate.shape(n, d, fronts) : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Chooses the candidate which is expected to be the fastest. Within the grid of the measured cells,
+     * this is the fastest of the given candidates measured in the nearest cell, where the distance is measured
+     * between the logarithms of n, d and the number of fronts. Otherwise, or if none of the given candidates
+     * was measured there, this is the candidate with the smallest estimated running time.
+     *
+     * @param candidates the candidates to choose from, which must not be empty.
+     * @param n the number of points.
+     * @param d the dimension of points.
+     * @param fronts the estimated number of fronts.
+     * @return the chosen candidate.
+     */
+    public Candidate choose(Candidate[] candidates, int n, int d, double fronts) {
+        double logN = Math.log(n), logD = Math.log(d), logFronts = Math.log(fronts);
+        if (minLogN <= logN && logN <= maxLogN
+                && minLogD <= logD && logD <= maxLogD
+                && minLogFronts <= logFronts && logFronts <= maxLogFronts) {
+            Cell nearest = null;
+            double nearestDistance = Double.POSITIVE_INFINITY;
+            for (Cell cell : cells) {
+                double distance = square(cell.logN - logN) + square(cell.logD - logD) + square(cell.logFronts - logFronts);
+                if (distance < nearestDistance) {
+                    nearestDistance = distance;
+                    nearest = cell;
+                }
+            }
+            Candidate fastest = null;
+            for (Candidate candidate : candidates) {
+                double time = nearest.times[candidate.ordinal()];
+                if (time > 0 && (fastest == null || time < nearest.times[fastest.ordinal()])) {
+                    fastest = candidate;
+                }
+            }
+            if (fastest != null) {
+                return fastest;
+            }
+        }
+
+        Candidate choice = candidates[0];
+        double bestCost = estimate(choice, n, d, fronts);
+        for (int i = 1; i < candidates.length; ++i) {
+            double cost = estimate(candidates[i], n, d, fronts);
+            if (cost < bestCost) {
+                bestCost = cost;
+                choice = candidates[i];
+            }
+        }
+        return choice;
+    }
+
+    private static double square(double value) {
+        return value * value;
+    }
+
+    private static final class Cell {
+        private final double logN, logD, logFronts;
+        private final double[] times;
+
+        private Cell(int n, int d, int fronts, double[] times) {
+            this.logN = Math.log(n);
+            this.logD = Math.log(d);
+            this.logFronts = Math.log(Math.max(1, fronts));
+            this.times = times;
+        }
+    }
+}
@@ -4,17 +4,28 @@ import ru.ifmo.nds.NonDominatedSorting;
 import ru.ifmo.nds.util.ArrayHelper;
 import ru.ifmo.nds.util.DominanceHelper;
 import ru.ifmo.nds.util.ArraySorter;
+import ru.ifmo.nds.util.CrowdingDistance;
+import ru.ifmo.nds.util.RankLimitByCount;
 
 import java.util.Arrays;
 
 public class Improved extends NonDominatedSorting {
     private int[][] objectiveIndices;
     private double[][] points;
+    private double[] flatPoints;
+    private int flatDimension;
     private int[] ranks;
     private int[][] lastFrontIndex;
     private int[][] prevFrontIndex;
 
     private int[] indexNeededCount;
+    private int[] multiplicity; // allocated on the first call to sortUntilCount, as well as rankLimit
+    private RankLimitByCount rankLimit;
+
+    // The lists of points of every front, allocated on the first call to sortIntoFronts.
+    private int[] firstInFront;
+    private int[] nextInFront;
+    private int nLinkedFronts;
 
     public Improved(int maximumPoints, int maximumDimension) {
         super(maximumPoints, maximumDimension);
@@ -38,7 +49,12 @@ public class Improved extends NonDominatedSorting {
         prevFrontIndex = null;
         indexNeededCount = null;
         points = null;
+        flatPoints = null;
         ranks = null;
+        multiplicity = null;
+        rankLimit = null;
+        firstInFront = null;
+        nextInFront = null;
     }
 
     private void initializeObjectiveIndices(int newN, int dim) {
@@ -46,14 +62,25 @@ public class Improved extends NonDominatedSorting {
             int[] currentObjectiveIndex = objectiveIndices[d];
             ArrayHelper.fillIdentity(currentObjectiveIndex, newN);
             if (d > 0) {
-                sorter.sortComparingByIndicesIfEqual(this.points, currentObjectiveIndex, 0, newN, d);
+                if (flatDimension == 0) {
+                    sorter.sortComparingByIndicesIfEqual(this.points, currentObjectiveIndex, 0, newN, d);
+                } else {
+                    sorter.sortComparingByIndicesIfEqual(flatPoints, flatDimension, currentObjectiveIndex, 0, newN, d);
+                }
             }
         }
     }
 
-    private void rankPoint(int currIndex, int[] prevFI, int[] lastFI, int smallestRank, int maximalMeaningfulRank) {
-        double[] p2 = points[currIndex];
-        int maxObj = p2.length - 1;
+    private boolean dominates(int goodIndex, int weakIndex, int maxObj) {
+        if (flatDimension == 0) {
+            return DominanceHelper.strictlyDominatesAssumingLexicographicallySmaller(points[goodIndex], points[weakIndex], maxObj);
+        } else {
+            return DominanceHelper.strictlyDominatesAssumingLexicographicallySmaller(flatPoints,
+                    goodIndex * flatDimension, weakIndex * flatDimension, maxObj);
+        }
+    }
+
+    private void rankPoint(int currIndex, int[] prevFI, int[] lastFI, int smallestRank, int maxObj, int maximalMeaningfulRank) {
         int currRank = smallestRank;
         // This is currently implemented as sequential search.
         // A binary search implementation is expected as well.
@@ -62,7 +89,7 @@ public class Improved extends NonDominatedSorting {
             boolean someoneDominatesMe = false;
             while (prevIndex != -1) {
                 if (prevIndex < currIndex && // For now, we totally ignore that some coordinates are unneeded.
-                        DominanceHelper.strictlyDominatesAssumingLexicographicallySmaller(points[prevIndex], p2, maxObj)) {
+                        dominates(prevIndex, currIndex, maxObj)) {
                     someoneDominatesMe = true;
                     break;
                 }
@@ -80,9 +107,112 @@ public class Improved extends NonDominatedSorting {
     protected void sortChecked(double[][] points, int[] ranks, int maximalMeaningfulRank) {
         int origN = ranks.length;
         int dim = points[0].length;
-        ArrayHelper.fillIdentity(indices, origN);
-        sorter.lexicographicalSort(points, indices, 0, origN, dim);
-        int newN = ArraySorter.retainUniquePoints(points, indices, this.points, ranks);
+        int newN = sorter.sortAndRetainUniquePoints(points, indices, this.points, ranks);
+        flatDimension = 0;
+        rankUniquePoints(newN, dim, maximalMeaningfulRank, null, false);
+        Arrays.fill(this.points, 0, origN, null);
+        for (int i = 0; i < origN; ++i) {
+            ranks[i] = this.ranks[ranks[i]];
+        }
+    }
+
+    @Override
+    protected void sortCheckedFlat(double[] coords, int n, int dim, int[] ranks, int maximalMeaningfulRank) {
+        ArrayHelper.fillIdentity(indices, n);
+        sorter.lexicographicalSort(coords, dim, indices, 0, n, dim);
+        int newN = ArraySorter.retainUniquePoints(coords, n, dim, indices, ranks);
+        if (flatPoints == null) {
+            flatPoints = new double[getMaximumPoints() * getMaximumDimension()];
+        }
+        for (int i = 0; i < newN; ++i) {
+            System.arraycopy(coords, indices[i] * dim, flatPoints, i * dim, dim);
+        }
+        flatDimension = dim;
+        rankUniquePoints(newN, dim, maximalMeaningfulRank, null, false);
+        for (int i = 0; i < n; ++i) {
+            ranks[i] = this.ranks[ranks[i]];
+        }
+    }
+
+    @Override
+    protected void sortCheckedWithCrowdingDistance(double[][] points, int[] ranks, double[] crowdingDistances) {
+        int origN = ranks.length;
+        int dim = points[0].length;
+        int newN = sorter.sortAndRetainUniquePoints(points, indices, this.points, ranks);
+        flatDimension = 0;
+        rankUniquePoints(newN, dim, newN - 1, null, false);
+        // The points are already ordered by every objective, which is exactly what the crowding distance needs.
+        CrowdingDistance crowding = getCrowdingDistance();
+        crowding.initialize(ranks, origN, newN, this.ranks, crowdingDistances);
+        for (int d = 0; d < dim; ++d) {
+            crowding.addObjective(this.points, objectiveIndices[d], d);
+        }
+        crowding.finish();
+        Arrays.fill(this.points, 0, origN, null);
+        for (int i = 0; i < origN; ++i) {
+            ranks[i] = this.ranks[ranks[i]];
+        }
+    }
+
+    @Override
+    protected int sortUntilCountChecked(double[][] points, int[] ranks, int count) {
+        int origN = ranks.length;
+        int dim = points[0].length;
+        if (rankLimit == null) {
+            multiplicity = new int[getMaximumPoints()];
+            rankLimit = new RankLimitByCount(getMaximumPoints());
+        }
+        int newN = sorter.sortAndRetainUniquePoints(points, indices, this.points, ranks);
+        Arrays.fill(multiplicity, 0, newN, 0);
+        for (int i = 0; i < origN; ++i) {
+            ++multiplicity[ranks[i]];
+        }
+        rankLimit.reset(count, newN - 1);
+        flatDimension = 0;
+        int lastRank = rankUniquePoints(newN, dim, newN - 1, rankLimit, false);
+        Arrays.fill(this.points, 0, origN, null);
+        for (int i = 0; i < origN; ++i) {
+            ranks[i] = this.ranks[ranks[i]];
+        }
+        return lastRank;
+    }
+
+    @Override
+    protected int sortIntoFrontsChecked(double[][] points, int[] ranks, int[] frontOffsets, int[] frontMembers,
+                                        int maximalMeaningfulRank) {
+        int origN = ranks.length;
+        int dim = points[0].length;
+        int newN = sorter.sortAndRetainUniquePoints(points, indices, this.points, ranks);
+        flatDimension = 0;
+        if (firstInFront == null) {
+            firstInFront = new int[getMaximumPoints()];
+            nextInFront = new int[getMaximumPoints()];
+        }
+        rankUniquePoints(newN, dim, maximalMeaningfulRank, null, true);
+        Arrays.fill(this.points, 0, origN, null);
+        // The fronts list the distinct points, and the arrays of needed counts and indices,
+        // which are not needed anymore, list the original points equal to each of them.
+        int[] firstOriginal = indexNeededCount, nextOriginal = indices;
+        Arrays.fill(firstOriginal, 0, newN, -1);
+        for (int i = origN - 1; i >= 0; --i) {
+            int unique = ranks[i];
+            nextOriginal[i] = firstOriginal[unique];
+            firstOriginal[unique] = i;
+        }
+        return fillFronts(firstInFront, nextInFront, nLinkedFronts, firstOriginal, nextOriginal,
+                frontOffsets, frontMembers, maximalMeaningfulRank);
+    }
+
+    private void linkToFront(int index, int rank) {
+        while (nLinkedFronts <= rank) {
+            firstInFront[nLinkedFronts++] = -1;
+        }
+        nextInFront[index] = firstInFront[rank];
+        firstInFront[rank] = index;
+    }
+
+    private int rankUniquePoints(int newN, int dim, int maximalMeaningfulRank, RankLimitByCount rankLimit,
+                                 boolean linksFronts) {
         initializeObjectiveIndices(newN, dim);
         maximalMeaningfulRank = Math.min(maximalMeaningfulRank, newN - 1);
 
@@ -95,6 +225,7 @@ public class Improved extends NonDominatedSorting {
         }
 
         int smallestRank = 0;
+        nLinkedFronts = 0;
 
         for (int hIndex = 0, ranked = 0;
              hIndex < newN && smallestRank <= maximalMeaningfulRank && ranked < newN;
@@ -104,21 +235,26 @@ public class Improved extends NonDominatedSorting {
                 int[] prevFI = prevFrontIndex[oIndex];
                 int[] lastFI = lastFrontIndex[oIndex];
                 if (this.ranks[currIndex] == -1) {
-                    rankPoint(currIndex, prevFI, lastFI, smallestRank, maximalMeaningfulRank);
+                    rankPoint(currIndex, prevFI, lastFI, smallestRank, dim - 1, maximalMeaningfulRank);
                     ++ranked;
+                    if (linksFronts) {
+                        linkToFront(currIndex, this.ranks[currIndex]);
+                    }
+                    if (rankLimit != null) {
+                        // The rank of a point is final once computed, so the limit can be tightened right away.
+                        maximalMeaningfulRank = rankLimit.add(this.ranks[currIndex], multiplicity[currIndex]);
+                    }
                 }
                 int myRank = this.ranks[currIndex];
                 if (myRank <= maximalMeaningfulRank) {
                     prevFI[currIndex] = lastFI[myRank];
                     lastFI[myRank] = currIndex;
                 }
-                if (--indexNeededCount[currIndex] == 0) {
-                    if (smallestRank <= myRank) {
-                        smallestRank = myRank + 1;
-                        if (smallestRank > maximalMeaningfulRank) {
-                            break;
-                        }
-                    }
+                if (--indexNeededCount[currIndex] == 0 && smallestRank <= myRank) {
+                    smallestRank = myRank + 1;
+                }
+                if (smallestRank > maximalMeaningfulRank) {
+                    break;
                 }
             }
         }
@@ -127,13 +263,12 @@ public class Improved extends NonDominatedSorting {
             for (int i = 0; i < newN; ++i) {
                 if (this.ranks[i] == -1) {
                     this.ranks[i] = maximalMeaningfulRank + 1;
+                    if (linksFronts) {
+                        linkToFront(i, maximalMeaningfulRank + 1);
+                    }
                 }
             }
         }
-
-        Arrays.fill(this.points, 0, origN, null);
-        for (int i = 0; i < origN; ++i) {
-            ranks[i] = this.ranks[ranks[i]];
-        }
+        return maximalMeaningfulRank;
     }
 }
@@ -1,9 +1,9 @@
 package ru.ifmo.nds.dcns;
 
+import java.util.Arrays;
+
 import ru.ifmo.nds.NonDominatedSorting;
-import ru.ifmo.nds.util.ArrayHelper;
 import ru.ifmo.nds.util.DominanceHelper;
-import ru.ifmo.nds.util.ArraySorter;
 import ru.ifmo.nds.util.MathEx;
 
 public abstract class DCNSBase extends NonDominatedSorting {
@@ -162,11 +162,41 @@ public abstract class DCNSBase extends NonDominatedSorting {
     @Override
     protected void sortChecked(double[][] points, int[] ranks, int maximalMeaningfulRank) {
         int oldN = points.length;
-        int maxObj = points[0].length - 1;
-        ArrayHelper.fillIdentity(indices, oldN);
-        sorter.lexicographicalSort(points, indices, 0, oldN, maxObj + 1);
+        rankUniquePoints(points, ranks);
+        for (int i = 0; i < oldN; ++i) {
+            ranks[i] = this.ranks[ranks[i]];
+            this.points[i] = null;
+        }
+    }
+
+    @Override
+    protected int sortIntoFrontsChecked(double[][] points, int[] ranks, int[] frontOffsets, int[] frontMembers,
+                                        int maximalMeaningfulRank) {
+        int oldN = points.length;
+        int n = rankUniquePoints(points, ranks);
+        int nFronts = 0;
+        while (nFronts < n && firstIndex[nFronts] != -1) {
+            ++nFronts;
+        }
+        // The fronts are lists of distinct points, and the arrays of parents and temporary indices,
+        // which are not needed anymore, list the original points equal to each of them.
+        int[] firstOriginal = parents, nextOriginal = temp;
+        Arrays.fill(firstOriginal, 0, n, -1);
+        for (int i = oldN - 1; i >= 0; --i) {
+            int unique = ranks[i];
+            nextOriginal[i] = firstOriginal[unique];
+            firstOriginal[unique] = i;
+            this.points[i] = null;
+        }
+        return fillFronts(firstIndex, next, nFronts, firstOriginal, nextOriginal,
+                frontOffsets, frontMembers, maximalMeaningfulRank);
+    }
 
-        int n = ArraySorter.retainUniquePoints(points, indices, this.points, ranks);
+    // Ranks the distinct points, which are stored in this.points, and returns their number.
+    // The ranks array is filled with the indices of the distinct points equal to the original ones.
+    private int rankUniquePoints(double[][] points, int[] ranks) {
+        int maxObj = points[0].length - 1;
+        int n = sorter.sortAndRetainUniquePoints(points, indices, this.points, ranks);
         for (int i = 0; i < n; ++i) {
             this.ranks[i] = i;
             firstIndex[i] = i;
@@ -184,10 +214,6 @@ public abstract class DCNSBase extends NonDominatedSorting {
                 merge(r - delta, r, n);
             }
         }
-
-        for (int i = 0; i < oldN; ++i) {
-            ranks[i] = this.ranks[ranks[i]];
-            this.points[i] = null;
-        }
+        return n;
     }
 }
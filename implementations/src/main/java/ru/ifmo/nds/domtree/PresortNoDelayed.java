@@ -1,8 +1,6 @@
 package ru.ifmo.nds.domtree;
 
 import ru.ifmo.nds.NonDominatedSorting;
-import ru.ifmo.nds.util.ArrayHelper;
-import ru.ifmo.nds.util.ArraySorter;
 
 public final class PresortNoDelayed extends NonDominatedSorting {
     private Node[] nodes;
@@ -99,9 +97,7 @@ public final class PresortNoDelayed extends NonDominatedSorting {
     @Override
     protected void sortChecked(double[][] points, int[] ranks, int maximalMeaningfulRank) {
         int n = points.length;
-        ArrayHelper.fillIdentity(indices, n);
-        sorter.lexicographicalSort(points, indices, 0, n, points[0].length);
-        int realN = ArraySorter.retainUniquePoints(points, indices, this.points, ranks);
+        int realN = sorter.sortAndRetainUniquePoints(points, indices, this.points, ranks);
 
         for (int i = 0; i < realN; ++i) {
             Node.initialize(nodes[i], this.points[i]);
@@ -6,10 +6,15 @@ import static ru.ifmo.nds.util.DominanceHelper.strictlyDominatesAssumingLexicogr
 
 import ru.ifmo.nds.NonDominatedSorting;
 import ru.ifmo.nds.util.ArrayHelper;
+import ru.ifmo.nds.util.RankLimitByCount;
 
 public abstract class ENSBase extends NonDominatedSorting {
+    // Marks the points which are not linked to their fronts, as they are equal to the previous points.
+    private static final int EQUAL_TO_PREVIOUS = -2;
+
     private int[] prevIndex;
     private int[] lastRankIndex;
+    private RankLimitByCount rankLimit; // allocated on the first call to sortUntilCount
 
     ENSBase(int maximumPoints, int maximumDimension) {
         super(maximumPoints, maximumDimension);
@@ -21,6 +26,7 @@ public abstract class ENSBase extends NonDominatedSorting {
     protected void closeImpl() {
         prevIndex = null;
         lastRankIndex = null;
+        rankLimit = null;
     }
 
     final boolean frontDominates(int frontIndex, double[][] points, double[] point) {
@@ -40,6 +46,22 @@ public abstract class ENSBase extends NonDominatedSorting {
         }
     }
 
+    final boolean frontDominates(int frontIndex, double[] coords, int offset, int dim) {
+        int index = lastRankIndex[frontIndex];
+        int maxObj = dim - 1;
+        if (maxObj == 1) {
+            return strictlyDominatesAssumingLexicographicallySmaller(coords, index * dim, offset, maxObj);
+        } else {
+            while (index >= 0) {
+                if (strictlyDominatesAssumingLexicographicallySmaller(coords, index * dim, offset, maxObj)) {
+                    return true;
+                }
+                index = prevIndex[index];
+            }
+            return false;
+        }
+    }
+
     private int setRank(int pointIndex, int[] ranks, int rank, int maxRank, int maximumMeaningfulRank) {
         ranks[pointIndex] = rank;
         if (rank > maxRank) {
@@ -55,15 +77,62 @@ public abstract class ENSBase extends NonDominatedSorting {
         return maxRank;
     }
 
-    abstract int findRank(double[][] points, double[] curr, int maxRank);
+    // The fronts below minRank are known to dominate the point.
+    abstract int findRank(double[][] points, double[] curr, int minRank, int maxRank);
+    abstract int findRank(double[] coords, int offset, int dim, int maxRank);
+
+    @Override
+    protected boolean supportsWeakDominance() {
+        // A point is found dominated by the front of an equal point, so this needs only to keep equal points apart.
+        return true;
+    }
 
     @Override
     protected void sortChecked(double[][] points, int[] ranks, int maximalMeaningfulRank) {
+        sortImpl(points, ranks, maximalMeaningfulRank, 0, null);
+    }
+
+    @Override
+    protected void mergeRankedChecked(double[][] points, int nParents, int[] parentRanks, int[] ranks) {
+        sortImpl(points, ranks, points.length, nParents, parentRanks);
+    }
+
+    @Override
+    protected int sortIntoFrontsChecked(double[][] points, int[] ranks, int[] frontOffsets, int[] frontMembers,
+                                        int maximalMeaningfulRank) {
+        int n = ranks.length;
+        int nFronts = sortImpl(points, ranks, maximalMeaningfulRank, 0, null) + 1;
+        // The fronts are already linked, except for the points equal to the previous ones, which are linked
+        // right after these, and the points above the maximal meaningful rank, which are linked to an extra front.
+        int extraFront = nFronts;
+        int representative = indices[0];
+        for (int i = 1; i < n; ++i) {
+            int index = indices[i];
+            if (prevIndex[index] == EQUAL_TO_PREVIOUS) {
+                prevIndex[index] = prevIndex[representative];
+                prevIndex[representative] = index;
+            } else {
+                representative = index;
+                if (ranks[index] > maximalMeaningfulRank) {
+                    prevIndex[index] = nFronts == extraFront ? -1 : lastRankIndex[extraFront];
+                    lastRankIndex[extraFront] = index;
+                    nFronts = extraFront + 1;
+                }
+            }
+        }
+        return fillFronts(lastRankIndex, prevIndex, nFronts, null, null, frontOffsets, frontMembers, maximalMeaningfulRank);
+    }
+
+    private int sortImpl(double[][] points, int[] ranks, int maximalMeaningfulRank, int nParents, int[] parentRanks) {
         int n = ranks.length;
         final int len = points[0].length;
         ArrayHelper.fillIdentity(indices, n);
         Arrays.fill(prevIndex, 0, n, -1);
         sorter.lexicographicalSort(points, indices, 0, n, len);
+        boolean weak = getDominance().isWeak();
+        if (weak) {
+            orderEqualPointsByIndices(points, n, len);
+        }
         int i0 = indices[0];
         setRank(i0, ranks, 0, -1, maximalMeaningfulRank);
         int lastRank = 0;
@@ -72,10 +141,103 @@ public abstract class ENSBase extends NonDominatedSorting {
         for (int i = 1; i < n; ++i) {
             int index = indices[i];
             double[] curr = points[index];
-            if (ArrayHelper.equal(last, curr, len)) {
+            if (!weak && ArrayHelper.equal(last, curr, len)) {
+                ranks[index] = lastRank;
+                prevIndex[index] = EQUAL_TO_PREVIOUS;
+            } else {
+                // A parent is dominated by at least as many fronts as it was among the parents alone.
+                int minRank = index < nParents ? Math.min(parentRanks[index], maxRank + 1) : 0;
+                lastRank = findRank(points, curr, minRank, maxRank);
+                last = curr;
+                maxRank = setRank(index, ranks, lastRank, maxRank, maximalMeaningfulRank);
+            }
+        }
+        return maxRank;
+    }
+
+    @Override
+    protected int sortUntilCountChecked(double[][] points, int[] ranks, int count) {
+        int n = ranks.length;
+        final int len = points[0].length;
+        if (rankLimit == null) {
+            rankLimit = new RankLimitByCount(getMaximumPoints());
+        }
+        rankLimit.reset(count, n - 1);
+        ArrayHelper.fillIdentity(indices, n);
+        Arrays.fill(prevIndex, 0, n, -1);
+        sorter.lexicographicalSort(points, indices, 0, n, len);
+        boolean weak = getDominance().isWeak();
+        if (weak) {
+            orderEqualPointsByIndices(points, n, len);
+        }
+        int i0 = indices[0];
+        setRank(i0, ranks, 0, -1, n - 1);
+        int limit = rankLimit.add(0, 1);
+        int lastRank = 0;
+        int maxRank = 0;
+        double[] last = points[i0];
+        for (int i = 1; i < n; ++i) {
+            int index = indices[i];
+            double[] curr = points[index];
+            if (!weak && ArrayHelper.equal(last, curr, len)) {
+                ranks[index] = lastRank;
+            } else {
+                // Only the fronts up to the current limit are searched, the points above it are not ranked further.
+                lastRank = findRank(points, curr, 0, maxRank);
+                last = curr;
+                maxRank = setRank(index, ranks, lastRank, maxRank, limit);
+            }
+            limit = rankLimit.add(lastRank, 1);
+            maxRank = Math.min(maxRank, limit);
+        }
+        return limit;
+    }
+
+    private void orderEqualPointsByIndices(double[][] points, int n, int len) {
+        int last = 0;
+        for (int i = 1; i <= n; ++i) {
+            if (i == n || !ArrayHelper.equal(points[indices[last]], points[indices[i]], len)) {
+                if (last + 1 < i) {
+                    Arrays.sort(indices, last, i);
+                }
+                last = i;
+            }
+        }
+    }
+
+    private void orderEqualPointsByIndices(double[] coords, int n, int dim) {
+        int last = 0;
+        for (int i = 1; i <= n; ++i) {
+            if (i == n || !ArrayHelper.equal(coords, indices[last] * dim, indices[i] * dim, dim)) {
+                if (last + 1 < i) {
+                    Arrays.sort(indices, last, i);
+                }
+                last = i;
+            }
+        }
+    }
+
+    @Override
+    protected void sortCheckedFlat(double[] coords, int n, int dim, int[] ranks, int maximalMeaningfulRank) {
+        ArrayHelper.fillIdentity(indices, n);
+        Arrays.fill(prevIndex, 0, n, -1);
+        sorter.lexicographicalSort(coords, dim, indices, 0, n, dim);
+        boolean weak = getDominance().isWeak();
+        if (weak) {
+            orderEqualPointsByIndices(coords, n, dim);
+        }
+        int i0 = indices[0];
+        setRank(i0, ranks, 0, -1, maximalMeaningfulRank);
+        int lastRank = 0;
+        int maxRank = 0;
+        int last = i0 * dim;
+        for (int i = 1; i < n; ++i) {
+            int index = indices[i];
+            int curr = index * dim;
+            if (!weak && ArrayHelper.equal(coords, last, curr, dim)) {
                 ranks[index] = lastRank;
             } else {
-                lastRank = findRank(points, curr, maxRank);
+                lastRank = findRank(coords, curr, dim, maxRank);
                 last = curr;
                 maxRank = setRank(index, ranks, lastRank, maxRank, maximalMeaningfulRank);
             }
@@ -6,8 +6,8 @@ public final class ENS_BS extends ENSBase {
     }
 
     @Override
-    final int findRank(double[][] points, double[] point, int maxRank) {
-        int leftRank = -1, rightRank = maxRank + 1;
+    final int findRank(double[][] points, double[] point, int minRank, int maxRank) {
+        int leftRank = minRank - 1, rightRank = maxRank + 1;
         while (rightRank - leftRank > 1) {
             int currRank = (leftRank + rightRank) >>> 1;
             if (frontDominates(currRank, points, point)) {
@@ -19,6 +19,20 @@ public final class ENS_BS extends ENSBase {
         return rightRank;
     }
 
+    @Override
+    final int findRank(double[] coords, int offset, int dim, int maxRank) {
+        int leftRank = -1, rightRank = maxRank + 1;
+        while (rightRank - leftRank > 1) {
+            int currRank = (leftRank + rightRank) >>> 1;
+            if (frontDominates(currRank, coords, offset, dim)) {
+                leftRank = currRank;
+            } else {
+                rightRank = currRank;
+            }
+        }
+        return rightRank;
+    }
+
     @Override
     public String getName() {
         return "ENS-BS";
@@ -6,8 +6,8 @@ public final class ENS_SS extends ENSBase {
     }
 
     @Override
-    final int findRank(double[][] points, double[] point, int maxRank) {
-        int currRank = 0;
+    final int findRank(double[][] points, double[] point, int minRank, int maxRank) {
+        int currRank = minRank;
         while (currRank <= maxRank) {
             if (frontDominates(currRank, points, point)) {
                 ++currRank;
@@ -18,6 +18,19 @@ public final class ENS_SS extends ENSBase {
         return currRank;
     }
 
+    @Override
+    final int findRank(double[] coords, int offset, int dim, int maxRank) {
+        int currRank = 0;
+        while (currRank <= maxRank) {
+            if (frontDominates(currRank, coords, offset, dim)) {
+                ++currRank;
+            } else {
+                break;
+            }
+        }
+        return currRank;
+    }
+
     @Override
     public String getName() {
         return "ENS-SS";
@@ -0,0 +1,345 @@
+package ru.ifmo.nds.jfb;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import ru.ifmo.nds.util.ArraySorter;
+
+/**
+ * Counts, for every point, the number of points which dominate it, and the number of points which it dominates.
+ * These numbers are needed, for example, by niching and diversity preservation operators.
+ *
+ * Instead of comparing all pairs of points, this uses the same divide-and-conquer over objectives
+ * as the Jensen-Fortin-Buzdalov algorithm, where the last two objectives are handled by a sweep
+ * with a Fenwick tree which sums the numbers of points. This takes {@code O(n (log n)^d)} time
+ * instead of {@code O(n^2 d)} for pairwise comparisons.
+ */
+public final class DominanceCounter {
+    private static final int BRUTE_FORCE_THRESHOLD = 20;
+    private static final int SOURCE = 1, TARGET = 2;
+
+    private final int maximumPoints;
+    private final int maximumDimension;
+    private final ArraySorter sorter;
+    private final int[] indices;
+    private final int[] reindex;
+    private final int[] weights;
+    private final int[] counts;
+    private final double[][] uniquePoints;
+    private final double[] values;
+    private final int[] positions;
+    private final int[] firstRanks;
+    private final int[] fenwick;
+    private double[][] negatedPoints; // allocated on demand
+    private double[][] points;
+    private int[] work; // codes of points in the current subproblems: index * 4 + roles
+    private int workTop;
+
+    /**
+     * Creates a new instance for the given maximum number of points and the maximum dimension.
+     *
+     * @param maximumPoints the maximum number of points.
+     * @param maximumDimension the maximum dimension.
+     */
+    public DominanceCounter(int maximumPoints, int maximumDimension) {
+        this.maximumPoints = maximumPoints;
+        this.maximumDimension = maximumDimension;
+        sorter = new ArraySorter(maximumPoints);
+        indices = new int[maximumPoints];
+        reindex = new int[maximumPoints];
+        weights = new int[maximumPoints];
+        counts = new int[maximumPoints];
+        uniquePoints = new double[maximumPoints][];
+        values = new double[maximumPoints];
+        positions = new int[maximumPoints];
+        firstRanks = new int[maximumPoints];
+        fenwick = new int[maximumPoints + 1];
+        work = new int[4 * maximumPoints];
+    }
+
+    /**
+     * Counts the points which dominate every point, and optionally the points dominated by every point.
+     * Equal points do not dominate each other.
+     *
+     * @param points the points.
+     * @param dominatedByCounts the array to be filled with the numbers of points which dominate every point.
+     * @param dominatesCounts the array to be filled with the numbers of points which every point dominates,
+     *                        or {@code null} if these numbers are not needed.
+     */
+    public void count(double[][] points, int[] dominatedByCounts, int[] dominatesCounts) {
+        Objects.requireNonNull(points, "The array of points must not be null");
+        Objects.requireNonNull(dominatedByCounts, "The array of counts must not be null");
+        int n = points.length;
+        if (n > maximumPoints) {
+            throw new IllegalArgumentException("The number of points, " + n
+                    + ", must not exceed the maximum number of points, " + maximumPoints);
+        }
+        if (dominatedByCounts.length != n || dominatesCounts != null && dominatesCounts.length != n) {
+            throw new IllegalArgumentException("The arrays of counts must have the same length as the array of points");
+        }
+        if (n == 0) {
+            return;
+        }
+        int dim = points[0].length;
+        for (double[] point : points) {
+            if (point.length != dim) {
+                throw new IllegalArgumentException("All points must have equal dimension");
+            }
+        }
+        if (dim > maximumDimension) {
+            throw new IllegalArgumentException("The dimension, " + dim
+                    + ", must not exceed the maximum dimension, " + maximumDimension);
+        }
+        if (dim == 0) {
+            // All the points are equal, so none of them dominates another one.
+            Arrays.fill(dominatedByCounts, 0);
+            if (dominatesCounts != null) {
+                Arrays.fill(dominatesCounts, 0);
+            }
+            return;
+        }
+
+        int newN = sorter.sortAndRetainUniquePoints(points, indices, uniquePoints, reindex);
+        Arrays.fill(weights, 0, newN, 0);
+        for (int i = 0; i < n; ++i) {
+            ++weights[reindex[i]];
+        }
+
+        countWeaklyDominating(uniquePoints, newN, dim);
+        for (int i = 0; i < n; ++i) {
+            int u = reindex[i];
+            dominatedByCounts[i] = counts[u] - weights[u];
+        }
+        if (dominatesCounts != null) {
+            // A point dominates another one if and only if it is dominated by it after negation.
+            if (negatedPoints == null) {
+                negatedPoints = new double[maximumPoints][maximumDimension];
+            }
+            for (int u = 0; u < newN; ++u) {
+                for (int j = 0; j < dim; ++j) {
+                    negatedPoints[u][j] = -uniquePoints[u][j];
+                }
+            }
+            countWeaklyDominating(negatedPoints, newN, dim);
+            for (int i = 0; i < n; ++i) {
+                int u = reindex[i];
+                dominatesCounts[i] = counts[u] - weights[u];
+            }
+        }
+        Arrays.fill(uniquePoints, 0, newN, null);
+    }
+
+    // For every distinct point, counts the points which are not greater in every objective, including itself.
+    private void countWeaklyDominating(double[][] points, int n, int dim) {
+        this.points = points;
+        Arrays.fill(counts, 0, n, 0);
+        for (int i = 0; i < n; ++i) {
+            work[i] = (i << 2) | SOURCE | TARGET;
+        }
+        workTop = n;
+        solve(0, n, dim - 1);
+        this.points = null;
+    }
+
+    // Adds to the counts of targets in work[from, until) the weights of sources which are not greater
+    // in the objectives 0, ..., obj.
+    private void solve(int from, int until, int obj) {
+        int roles = 0;
+        for (int i = from; i < until; ++i) {
+            roles |= work[i];
+        }
+        if ((roles & (SOURCE | TARGET)) != (SOURCE | TARGET)) {
+            return;
+        }
+        if (obj == 0) {
+            sweepOne(from, until);
+        } else if (obj == 1) {
+            sweepTwo(from, until);
+        } else if (until - from <= BRUTE_FORCE_THRESHOLD) {
+            bruteForce(from, until, obj);
+        } else {
+            double median = findSplitValue(from, until, obj);
+            if (Double.isNaN(median)) {
+                // All the points are equal in this objective.
+                solve(from, until, obj - 1);
+            } else {
+                int mid = partition(from, until, obj, median);
+                solve(from, mid, obj);
+                solve(mid, until, obj);
+                // The sources from the smaller half are smaller than the targets from the greater half in this objective.
+                int crossFrom = workTop;
+                ensureWorkCapacity(crossFrom + until - from);
+                int crossUntil = crossFrom;
+                for (int i = from; i < mid; ++i) {
+                    if ((work[i] & SOURCE) != 0) {
+                        work[crossUntil++] = (work[i] & ~TARGET);
+                    }
+                }
+                for (int i = mid; i < until; ++i) {
+                    if ((work[i] & TARGET) != 0) {
+                        work[crossUntil++] = (work[i] & ~SOURCE);
+                    }
+                }
+                workTop = crossUntil;
+                solve(crossFrom, crossUntil, obj - 1);
+                workTop = crossFrom;
+            }
+        }
+    }
+
+    // Returns the value such that both the points not greater and the points greater than it are not empty,
+    // and which balances them as much as possible, or NaN if all the points are equal in the objective.
+    private double findSplitValue(int from, int until, int obj) {
+        int size = until - from;
+        for (int i = 0; i < size; ++i) {
+            positions[i] = i;
+            values[i] = points[work[from + i] >>> 2][obj];
+        }
+        sorter.sortByValues(values, positions, 0, size);
+        double min = values[positions[0]], max = values[positions[size - 1]];
+        if (min == max) {
+            return Double.NaN;
+        }
+        double median = values[positions[size >>> 1]];
+        // Either "not greater than median" or "less than median" splits the points into two non-empty parts.
+        int lessThanMedian = size >>> 1;
+        while (lessThanMedian > 0 && values[positions[lessThanMedian - 1]] == median) {
+            --lessThanMedian;
+        }
+        int notGreaterThanMedian = (size >>> 1) + 1;
+        while (notGreaterThanMedian < size && values[positions[notGreaterThanMedian]] == median) {
+            ++notGreaterThanMedian;
+        }
+        if (notGreaterThanMedian == size
+                || lessThanMedian > 0 && size - 2 * lessThanMedian < 2 * notGreaterThanMedian - size) {
+            return values[positions[lessThanMedian - 1]];
+        } else {
+            return median;
+        }
+    }
+
+    private int partition(int from, int until, int obj, double splitValue) {
+        int size = until - from;
+        int temp = workTop;
+        ensureWorkCapacity(temp + size);
+        int[] work = this.work;
+        int left = from, right = temp;
+        for (int i = from; i < until; ++i) {
+            int code = work[i];
+            if (points[code >>> 2][obj] <= splitValue) {
+                work[left++] = code;
+            } else {
+                work[right++] = code;
+            }
+        }
+        System.arraycopy(work, temp, work, left, right - temp);
+        return left;
+    }
+
+    private void ensureWorkCapacity(int capacity) {
+        if (work.length < capacity) {
+            work = Arrays.copyOf(work, Math.max(capacity, 2 * work.length));
+        }
+    }
+
+    private void bruteForce(int from, int until, int obj) {
+        for (int t = from; t < until; ++t) {
+            int target = work[t];
+            if ((target & TARGET) != 0) {
+                double[] targetPoint = points[target >>> 2];
+                int sum = 0;
+                for (int s = from; s < until; ++s) {
+                    int source = work[s];
+                    if ((source & SOURCE) != 0 && notGreater(points[source >>> 2], targetPoint, obj)) {
+                        sum += weights[source >>> 2];
+                    }
+                }
+                counts[target >>> 2] += sum;
+            }
+        }
+    }
+
+    private static boolean notGreater(double[] a, double[] b, int maxObj) {
+        for (int i = maxObj; i >= 0; --i) {
+            if (a[i] > b[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void sortPositionsBy(int from, int until, int obj) {
+        int size = until - from;
+        for (int i = 0; i < size; ++i) {
+            positions[i] = i;
+            values[i] = points[work[from + i] >>> 2][obj];
+        }
+        sorter.sortByValues(values, positions, 0, size);
+    }
+
+    private void sweepOne(int from, int until) {
+        sortPositionsBy(from, until, 0);
+        int size = until - from;
+        int sum = 0;
+        for (int runStart = 0, runEnd; runStart < size; runStart = runEnd) {
+            double value = values[positions[runStart]];
+            runEnd = runStart;
+            while (runEnd < size && values[positions[runEnd]] == value) {
+                int code = work[from + positions[runEnd]];
+                if ((code & SOURCE) != 0) {
+                    sum += weights[code >>> 2];
+                }
+                ++runEnd;
+            }
+            for (int i = runStart; i < runEnd; ++i) {
+                int code = work[from + positions[i]];
+                if ((code & TARGET) != 0) {
+                    counts[code >>> 2] += sum;
+                }
+            }
+        }
+    }
+
+    private void sweepTwo(int from, int until) {
+        int size = until - from;
+        // Compressing the first objective to ranks for the Fenwick tree.
+        sortPositionsBy(from, until, 0);
+        int nRanks = 0;
+        for (int i = 0; i < size; ++i) {
+            if (i > 0 && values[positions[i]] != values[positions[i - 1]]) {
+                ++nRanks;
+            }
+            firstRanks[positions[i]] = nRanks;
+        }
+        ++nRanks;
+        Arrays.fill(fenwick, 0, nRanks + 1, 0);
+
+        sortPositionsBy(from, until, 1);
+        for (int runStart = 0, runEnd; runStart < size; runStart = runEnd) {
+            double value = values[positions[runStart]];
+            runEnd = runStart;
+            while (runEnd < size && values[positions[runEnd]] == value) {
+                int position = positions[runEnd];
+                int code = work[from + position];
+                if ((code & SOURCE) != 0) {
+                    int weight = weights[code >>> 2];
+                    for (int r = firstRanks[position] + 1; r <= nRanks; r += r & -r) {
+                        fenwick[r] += weight;
+                    }
+                }
+                ++runEnd;
+            }
+            for (int i = runStart; i < runEnd; ++i) {
+                int position = positions[i];
+                int code = work[from + position];
+                if ((code & TARGET) != 0) {
+                    int sum = 0;
+                    for (int r = firstRanks[position] + 1; r > 0; r -= r & -r) {
+                        sum += fenwick[r];
+                    }
+                    counts[code >>> 2] += sum;
+                }
+            }
+        }
+    }
+}
@@ -1,14 +1,17 @@
 package ru.ifmo.nds.jfb;
 
+import ru.ifmo.nds.util.ObjectiveHelper;
+
 public abstract class HybridAlgorithmWrapper {
     public abstract boolean supportsMultipleThreads();
     public abstract String getName();
-    public abstract Instance create(int[] ranks, int[] indices, double[][] points, double[][] transposedPoints);
+    public abstract <T> Instance create(int[] ranks, int[] indices, PointAccess points, ObjectiveHelper<T> helper, T[] transposedPoints);
 
     public static abstract class Instance {
         /**
          * Tries to invoke the hook for the role of helperA on points at indices [{@code from}; {@code until})
-         * with the given maximum objective and maximal meaningful rank.
+         * with the given maximum objective and maximal meaningful rank,
+         * and also assuming that the free-space indices start at {@code tempFrom}.
          *
          * The method returns the new value for the largest index of the points to consider (exclusively).
          * Normally, it is the same as {@code until}.
@@ -19,10 +22,11 @@ public abstract class HybridAlgorithmWrapper {
          * @param from the smallest index of the points to consider (inclusively).
          * @param until the largest index of the points to consider (exclusively).
          * @param obj the maximum objective to consider.
+         * @param tempFrom the smallest index of the free space.
          * @param maximalMeaningfulRank the maximal meaningful rank.
          * @return -1 if the job is not complete, the new value for {@code until} otherwise.
          */
-        public abstract int helperAHook(int from, int until, int obj, int maximalMeaningfulRank);
+        public abstract int helperAHook(int from, int until, int obj, int tempFrom, int maximalMeaningfulRank);
 
         /**
          * Tries to invoke the hook for the role of helperB
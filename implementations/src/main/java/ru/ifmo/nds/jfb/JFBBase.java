@@ -1,5 +1,6 @@
 package ru.ifmo.nds.jfb;
 
+import java.nio.DoubleBuffer;
 import java.util.Arrays;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ForkJoinTask;
@@ -9,7 +10,13 @@ import java.util.concurrent.RecursiveTask;
 import ru.ifmo.nds.NonDominatedSorting;
 import ru.ifmo.nds.util.*;
 
-public abstract class JFBBase extends NonDominatedSorting {
+/**
+ * The Jensen-Fortin-Buzdalov algorithm, which keeps the objectives scanned by the recursion
+ * in the arrays of the given type, either in double or in single precision.
+ *
+ * @param <T> the type of the arrays holding the objectives.
+ */
+public abstract class JFBBase<T> extends NonDominatedSorting {
     private static final int FORK_JOIN_THRESHOLD = 400;
 
     // Shared resources (int[] indices from super also belongs here)
@@ -17,11 +24,15 @@ public abstract class JFBBase extends NonDominatedSorting {
 
     // Data which is immutable throughout the actual sorting.
     private double[][] points;
-    double[][] transposedPoints;
+    private int[] origins; // input indices of the distinct points which do not come as rows, allocated on demand
+    PointAccess pointAccess;
+    T[] transposedPoints;
     int maximalMeaningfulRank;
+    final ObjectiveHelper<T> helper;
 
     // Data which is interval-shared between threads.
-    private double[] temporary; // also used in 2D-only sweep
+    private T temporary;
+    private double[] ordinates; // used in 2D-only sweep, allocated on demand
     private SplitMergeHelper splitMerge;
     private HybridAlgorithmWrapper.Instance hybrid;
 
@@ -34,8 +45,10 @@ public abstract class JFBBase extends NonDominatedSorting {
             int maximumDimension,
             int allowedThreads,
             HybridAlgorithmWrapper hybridWrapper,
-            String nameAddend) {
+            String nameAddend,
+            ObjectiveHelper<T> helper) {
         super(maximumPoints, maximumDimension);
+        this.helper = helper;
         if (!hybridWrapper.supportsMultipleThreads()) {
             allowedThreads = 1;
         }
@@ -46,28 +59,39 @@ public abstract class JFBBase extends NonDominatedSorting {
         } else {
             pool = null; // current thread only execution
         }
+        // The presort is the serial part of the algorithm otherwise.
+        sorter.setForkJoinPool(pool);
         this.allowedThreads = allowedThreads > 0 ? allowedThreads : -1;
 
-        temporary = new double[maximumPoints];
         ranks = new int[maximumPoints];
+        pointAccess = new PointAccess();
 
         if (maximumDimension > 2) {
             points = new double[maximumPoints][];
-            transposedPoints = new double[maximumDimension][maximumPoints];
+            // The first objective only defines the order of the points, so it is not stored.
+            transposedPoints = helper.newArrays(maximumDimension);
+            for (int d = 1; d < maximumDimension; ++d) {
+                transposedPoints[d] = helper.newArray(maximumPoints);
+            }
+            temporary = helper.newArray(maximumPoints);
             splitMerge = new SplitMergeHelper(maximumPoints);
-            hybrid = hybridWrapper.create(ranks, indices, points, transposedPoints);
+            hybrid = hybridWrapper.create(ranks, indices, pointAccess, helper, transposedPoints);
         }
     }
 
     @Override
     protected void closeImpl() {
         temporary = null;
+        ordinates = null;
         ranks = null;
         points = null;
+        origins = null;
+        pointAccess = null;
         transposedPoints = null;
         splitMerge = null;
 
         if (pool != null) {
+            sorter.setForkJoinPool(null);
             pool.shutdown();
             pool = null;
         }
@@ -85,49 +109,225 @@ public abstract class JFBBase extends NonDominatedSorting {
         final int n = points.length;
         final int dim = points[0].length;
         Arrays.fill(ranks, 0);
-        ArrayHelper.fillIdentity(indices, n);
-        sorter.lexicographicalSort(points, indices, 0, n, dim);
 
         this.maximalMeaningfulRank = maximalMeaningfulRank;
 
         if (dim == 2) {
             // 2: Special case: binary search.
-            twoDimensionalCase(points, ranks);
+            ArrayHelper.fillIdentity(indices, n);
+            sorter.lexicographicalSort(points, indices, 0, n, dim);
+            pointAccess.setRows(points, indices);
+            sortTwoDimensional(ranks);
         } else {
             // 3: General case.
             // 3.1: Moving points in a sorted order to internal structures
-            final int newN = ArraySorter.retainUniquePoints(points, indices, this.points, ranks);
+            final int newN = sorter.sortAndRetainUniquePoints(points, indices, this.points, ranks);
             Arrays.fill(this.ranks, 0, newN, 0);
 
             // 3.2: Transposing points. This should fit in cache for reasonable dimensions.
-            for (int i = 0; i < newN; ++i) {
-                for (int j = 0; j < dim; ++j) {
-                    transposedPoints[j][i] = this.points[i][j];
-                }
-            }
+            pointAccess.setRows(this.points);
+            sortTransposed(n, newN, dim, ranks);
+        }
+    }
 
-            postTransposePointHook(newN);
+    @Override
+    protected final void sortCheckedWithCrowdingDistance(double[][] points, int[] ranks, double[] crowdingDistances) {
+        final int n = points.length;
+        final int dim = points[0].length;
+        if (dim == 2) {
+            super.sortCheckedWithCrowdingDistance(points, ranks, crowdingDistances);
+            return;
+        }
+        Arrays.fill(ranks, 0);
+        this.maximalMeaningfulRank = n;
+
+        final int newN = sorter.sortAndRetainUniquePoints(points, indices, this.points, ranks);
+        Arrays.fill(this.ranks, 0, newN, 0);
+        pointAccess.setRows(this.points);
+        rankDistinct(n, newN, dim);
+
+        // The distinct points are still in the lexicographical order, which is the order of the first objective
+        // the crowding distance needs. The other objectives are not sorted by the recursion, so they are sorted here.
+        CrowdingDistance crowding = getCrowdingDistance();
+        crowding.initialize(ranks, n, newN, this.ranks, crowdingDistances);
+        for (int d = 0; d < dim; ++d) {
             ArrayHelper.fillIdentity(indices, newN);
+            if (d > 0) {
+                sorter.sortComparingByIndicesIfEqual(this.points, indices, 0, newN, d);
+            }
+            crowding.addObjective(this.points, indices, d);
+        }
+        crowding.finish();
 
-            // 3.3: Calling the actual sorting
-            if (pool != null && makesSenseRunInParallel(n, dim)) {
-                RecursiveAction action = new RecursiveAction() {
-                    @Override
-                    protected void compute() {
-                        helperA(0, newN, dim - 1);
-                    }
-                };
-                pool.invoke(action);
-            } else {
-                helperA(0, newN, dim - 1);
+        applyRanks(n, ranks);
+    }
+
+    @Override
+    protected final void sortCheckedFlat(double[] coords, int n, int dim, int[] ranks, int maximalMeaningfulRank) {
+        Arrays.fill(ranks, 0);
+        ArrayHelper.fillIdentity(indices, n);
+        sorter.lexicographicalSort(coords, dim, indices, 0, n, dim);
+
+        this.maximalMeaningfulRank = maximalMeaningfulRank;
+
+        if (dim == 2) {
+            pointAccess.setFlat(coords, dim, indices);
+            sortTwoDimensional(ranks);
+        } else {
+            final int newN = ArraySorter.retainUniquePoints(coords, n, dim, indices, ranks);
+            Arrays.fill(this.ranks, 0, newN, 0);
+
+            // The dominance checks read the points right from the input.
+            pointAccess.setFlat(coords, dim, getOrigins(newN));
+
+            sortTransposed(n, newN, dim, ranks);
+        }
+    }
+
+    @Override
+    protected final void sortCheckedByColumns(double[][] columns, int[] ranks, int maximalMeaningfulRank) {
+        final int n = ranks.length;
+        final int dim = columns.length;
+        Arrays.fill(ranks, 0);
+        ArrayHelper.fillIdentity(indices, n);
+        sorter.lexicographicalSortByColumns(columns, indices, 0, n, dim);
+
+        this.maximalMeaningfulRank = maximalMeaningfulRank;
+
+        if (dim == 2) {
+            pointAccess.setColumns(columns, indices);
+            sortTwoDimensional(ranks);
+        } else {
+            final int newN = ArraySorter.retainUniquePointsByColumns(columns, n, indices, ranks);
+            Arrays.fill(this.ranks, 0, newN, 0);
+
+            // The transposed points still need to be gathered, as they must follow the lexicographical order.
+            // The dominance checks read the points right from the columns.
+            pointAccess.setColumns(columns, getOrigins(newN));
+
+            sortTransposed(n, newN, dim, ranks);
+        }
+    }
+
+    @Override
+    protected final void sortCheckedBuffer(DoubleBuffer coords, int n, int dim, int[] ranks, int maximalMeaningfulRank) {
+        Arrays.fill(ranks, 0);
+        ArrayHelper.fillIdentity(indices, n);
+        sorter.lexicographicalSort(coords, dim, indices, 0, n, dim);
+
+        this.maximalMeaningfulRank = maximalMeaningfulRank;
+
+        if (dim == 2) {
+            pointAccess.setBuffer(coords, dim, indices);
+            sortTwoDimensional(ranks);
+        } else {
+            final int newN = ArraySorter.retainUniquePoints(coords, n, dim, indices, ranks);
+            Arrays.fill(this.ranks, 0, newN, 0);
+
+            // The points are not copied to the heap, the dominance checks read them right from the buffer.
+            pointAccess.setBuffer(coords, dim, getOrigins(newN));
+
+            sortTransposed(n, newN, dim, ranks);
+        }
+    }
+
+    @Override
+    protected final void sortCheckedInt(int[][] points, int[] ranks, int maximalMeaningfulRank) {
+        final int n = points.length;
+        final int dim = points[0].length;
+        Arrays.fill(ranks, 0);
+        ArrayHelper.fillIdentity(indices, n);
+        sorter.lexicographicalSort(points, indices, 0, n, dim);
+
+        this.maximalMeaningfulRank = maximalMeaningfulRank;
+
+        if (dim == 2) {
+            pointAccess.setInts(points, indices);
+            sortTwoDimensional(ranks);
+        } else {
+            final int newN = ArraySorter.retainUniquePoints(points, n, indices, ranks);
+            Arrays.fill(this.ranks, 0, newN, 0);
+
+            // The dominance checks read the integer points right from the input.
+            pointAccess.setInts(points, getOrigins(newN));
+            if (transposePoints(newN, dim)) {
+                postTransposePointHook(points, newN);
+                rankTransposed(n, newN, dim);
             }
+            applyRanks(n, ranks);
+        }
+    }
+
+    private int[] getOrigins(int newN) {
+        if (origins == null) {
+            origins = new int[getMaximumPoints()];
+        }
+        System.arraycopy(indices, 0, origins, 0, newN);
+        return origins;
+    }
 
-            // 3.4: Applying the results back. After that, the argument "ranks" array stops being abused.
-            for (int i = 0; i < n; ++i) {
-                ranks[i] = this.ranks[ranks[i]];
-                this.points[i] = null;
+    private void sortTransposed(int n, int newN, int dim, int[] ranks) {
+        rankDistinct(n, newN, dim);
+        applyRanks(n, ranks);
+    }
+
+    private void rankDistinct(int n, int newN, int dim) {
+        if (transposePoints(newN, dim)) {
+            postTransposePointHook(newN);
+            rankTransposed(n, newN, dim);
+        }
+    }
+
+    private boolean transposePoints(int newN, int dim) {
+        for (int j = 1; j < dim; ++j) {
+            if (!transposeObjective(newN, j)) {
+                rankUntransposed(newN, dim);
+                return false;
             }
         }
+        return true;
+    }
+
+    // Stores the given objective of the distinct points, which pointAccess refers to, in transposedPoints.
+    // Returns false if this is not possible without losing the order of the values.
+    boolean transposeObjective(int newN, int objective) {
+        T target = transposedPoints[objective];
+        boolean exact = true;
+        for (int i = 0; i < newN; ++i) {
+            exact &= helper.set(target, i, pointAccess.get(i, objective));
+        }
+        return exact;
+    }
+
+    // Ranks the distinct points, which pointAccess refers to, if some objective could not be transposed.
+    void rankUntransposed(int newN, int dim) {
+        throw new IllegalStateException("The points cannot be transposed");
+    }
+
+    private void rankTransposed(int n, int newN, int dim) {
+        ArrayHelper.fillIdentity(indices, newN);
+
+        // 3.3: Calling the actual sorting
+        if (pool != null && makesSenseRunInParallel(n, dim)) {
+            RecursiveAction action = new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    helperA(0, newN, dim - 1, 0);
+                }
+            };
+            pool.invoke(action);
+        } else {
+            helperA(0, newN, dim - 1, 0);
+        }
+    }
+
+    private void applyRanks(int n, int[] ranks) {
+        // 3.4: Applying the results back. After that, the argument "ranks" array stops being abused.
+        for (int i = 0; i < n; ++i) {
+            ranks[i] = this.ranks[ranks[i]];
+            this.points[i] = null;
+        }
+        pointAccess.clear();
     }
 
     public static int kickOutOverflowedRanks(int[] indices, int[] ranks, int maximalMeaningfulRank, int from, int until) {
@@ -144,17 +344,23 @@ public abstract class JFBBase extends NonDominatedSorting {
 
     protected void postTransposePointHook(int newN) {}
 
-    protected abstract int sweepA(int from, int until);
+    // Same as above, but the original points have integer coordinates.
+    // The first newN elements of indices are the indices of the distinct points in the lexicographical order.
+    protected void postTransposePointHook(int[][] points, int newN) {
+        postTransposePointHook(newN);
+    }
+
+    protected abstract int sweepA(int from, int until, int tempFrom);
     protected abstract int sweepB(int goodFrom, int goodUntil, int weakFrom, int weakUntil, int tempFrom);
 
-    private int helperA(int from, int until, int obj) {
+    private int helperA(int from, int until, int obj, int tempFrom) {
         int n = until - from;
         if (n <= 2) {
             if (n == 2) {
                 int goodIndex = indices[from];
                 int weakIndex = indices[from + 1];
                 int goodRank = ranks[goodIndex];
-                if (ranks[weakIndex] <= goodRank && DominanceHelper.strictlyDominatesAssumingLexicographicallySmaller(points[goodIndex], points[weakIndex], obj)) {
+                if (ranks[weakIndex] <= goodRank && pointAccess.strictlyDominatesAssumingLexicographicallySmaller(goodIndex, weakIndex, obj)) {
                     ranks[weakIndex] = 1 + goodRank;
                     if (goodRank >= maximalMeaningfulRank) {
                         return from + 1;
@@ -164,35 +370,45 @@ public abstract class JFBBase extends NonDominatedSorting {
             return until;
         } else {
             while (obj > 1) {
-                int hookResponse = hybrid.helperAHook(from, until, obj, maximalMeaningfulRank);
+                int hookResponse = hybrid.helperAHook(from, until, obj, tempFrom, maximalMeaningfulRank);
                 if (hookResponse >= 0) {
                     return hookResponse;
                 }
-                if (ArrayHelper.transplantAndCheckIfSame(transposedPoints[obj], indices, from, until, temporary, from)) {
+                if (helper.transplantAndCheckIfSame(transposedPoints[obj], indices, from, until, temporary, tempFrom)) {
                     --obj;
                 } else {
-                    double median = ArrayHelper.destructiveMedian(temporary, from, until);
-                    long split = splitMerge.splitInThree(transposedPoints[obj], indices, from, from, until, median);
+                    double median = helper.destructiveMedian(temporary, tempFrom, tempFrom + n);
+                    long split = helper.splitInThree(splitMerge, transposedPoints[obj], indices, tempFrom, from, until, median);
                     int startMid = SplitMergeHelper.extractMid(split);
                     int startRight = SplitMergeHelper.extractRight(split);
 
-                    int newStartMid = helperA(from, startMid, obj);
+                    int newStartMid = helperA(from, startMid, obj, tempFrom);
                     --obj;
-                    int newStartRight = helperB(from, newStartMid, startMid, startRight, obj, from);
-                    newStartRight = helperA(startMid, newStartRight, obj);
-                    int newUntil = helperB(from, newStartMid, startRight, until, obj, from);
-                    newUntil = helperB(startMid, newStartRight, startRight, newUntil, obj, from);
+                    int newStartRight = helperB(from, newStartMid, startMid, startRight, obj, tempFrom);
+                    int newUntil;
+                    if (pool != null && newStartMid - from + until - startRight > FORK_JOIN_THRESHOLD) {
+                        // The left part updates the right part while the middle part is being finished.
+                        // The left and the right parts take the beginning of the temporary storage,
+                        // so the middle part takes its end, which is exactly as large as needed.
+                        ForkJoinTask<Integer> newUntilTask = helperBAsync(from, newStartMid, startRight, until, obj, tempFrom).fork();
+                        newStartRight = helperA(startMid, newStartRight, obj, tempFrom + n - (startRight - startMid));
+                        newUntil = newUntilTask.join();
+                    } else {
+                        newStartRight = helperA(startMid, newStartRight, obj, tempFrom + startMid - from);
+                        newUntil = helperB(from, newStartMid, startRight, until, obj, tempFrom);
+                    }
+                    newUntil = helperB(startMid, newStartRight, startRight, newUntil, obj, tempFrom);
                     ++obj;
-                    newUntil = helperA(startRight, newUntil, obj);
+                    newUntil = helperA(startRight, newUntil, obj, tempFrom + startRight - from);
 
-                    return splitMerge.mergeThree(indices, from, from, newStartMid, startMid, newStartRight, startRight, newUntil);
+                    return splitMerge.mergeThree(indices, tempFrom, from, newStartMid, startMid, newStartRight, startRight, newUntil);
                 }
             }
-            return sweepA(from, until);
+            return sweepA(from, until, tempFrom);
         }
     }
 
-    public static int updateByPoint(int[] ranks, int[] indices, double[][] points, int maximalMeaningfulRank,
+    public static int updateByPoint(int[] ranks, int[] indices, PointAccess points, int maximalMeaningfulRank,
                                     int pointIndex, int from, int until, int obj) {
         int ri = ranks[pointIndex];
         if (ri == maximalMeaningfulRank) {
@@ -203,24 +419,22 @@ public abstract class JFBBase extends NonDominatedSorting {
         }
     }
 
-    private static void updateByPointNormal(int[] ranks, int[] indices, double[][] points, int pointIndex,
+    private static void updateByPointNormal(int[] ranks, int[] indices, PointAccess points, int pointIndex,
                                             int pointRank, int from, int until, int obj) {
-        double[] pt = points[pointIndex];
         for (int i = from; i < until; ++i) {
             int ii = indices[i];
-            if (ranks[ii] <= pointRank && DominanceHelper.strictlyDominatesAssumingLexicographicallySmaller(pt, points[ii], obj)) {
+            if (ranks[ii] <= pointRank && points.strictlyDominatesAssumingLexicographicallySmaller(pointIndex, ii, obj)) {
                 ranks[ii] = pointRank + 1;
             }
         }
     }
 
-    private static int updateByPointCritical(int[] ranks, int[] indices, double[][] points, int maximalMeaningfulRank,
+    private static int updateByPointCritical(int[] ranks, int[] indices, PointAccess points, int maximalMeaningfulRank,
                                              int pointIndex, int from, int until, int obj) {
         int minOverflow = until;
-        double[] pt = points[pointIndex];
         for (int i = from; i < until; ++i) {
             int ii = indices[i];
-            if (DominanceHelper.strictlyDominatesAssumingLexicographicallySmaller(pt, points[ii], obj)) {
+            if (points.strictlyDominatesAssumingLexicographicallySmaller(pointIndex, ii, obj)) {
                 ranks[ii] = maximalMeaningfulRank + 1;
                 if (minOverflow > i) {
                     minOverflow = i;
@@ -230,11 +444,11 @@ public abstract class JFBBase extends NonDominatedSorting {
         return kickOutOverflowedRanks(indices, ranks, maximalMeaningfulRank, minOverflow, until);
     }
 
-    private int helperBWeak1Generic(int weak, int wi, int obj, int rw, int rw0, double[] wp, int goodMin, int goodMax) {
+    private int helperBWeak1Generic(int weak, int wi, int obj, int rw, int rw0, int goodMin, int goodMax) {
         for (int i = goodMax; i >= goodMin; --i) {
             int gi = indices[i];
             int gr = ranks[gi];
-            if (rw <= gr && DominanceHelper.strictlyDominatesAssumingLexicographicallySmaller(points[gi], wp, obj)) {
+            if (rw <= gr && pointAccess.strictlyDominatesAssumingLexicographicallySmaller(gi, wi, obj)) {
                 rw = gr + 1;
                 if (rw > maximalMeaningfulRank) {
                     ranks[wi] = rw;
@@ -248,16 +462,16 @@ public abstract class JFBBase extends NonDominatedSorting {
         return weak + 1;
     }
 
-    private int helperBWeak1Rank0(int weak, int wi, int obj, double[] wp, int goodMin, int goodMax) {
+    private int helperBWeak1Rank0(int weak, int wi, int obj, int goodMin, int goodMax) {
         for (int i = goodMax; i >= goodMin; --i) {
             int gi = indices[i];
-            if (DominanceHelper.strictlyDominatesAssumingLexicographicallySmaller(points[gi], wp, obj)) {
+            if (pointAccess.strictlyDominatesAssumingLexicographicallySmaller(gi, wi, obj)) {
                 int newRank = ranks[gi] + 1;
                 if (newRank > maximalMeaningfulRank) {
                     ranks[wi] = newRank;
                     return weak;
                 }
-                return helperBWeak1Generic(weak, wi, obj, newRank, 0, wp, goodMin, i - 1);
+                return helperBWeak1Generic(weak, wi, obj, newRank, 0, goodMin, i - 1);
             }
         }
         return weak + 1;
@@ -266,11 +480,10 @@ public abstract class JFBBase extends NonDominatedSorting {
     private int helperBWeak1(int goodFrom, int goodUntil, int weak, int obj) {
         int wi = indices[weak];
         int rw = ranks[wi];
-        double[] wp = points[wi];
         if (rw == 0) {
-            return helperBWeak1Rank0(weak, wi, obj, wp, goodFrom, goodUntil - 1);
+            return helperBWeak1Rank0(weak, wi, obj, goodFrom, goodUntil - 1);
         } else {
-            return helperBWeak1Generic(weak, wi, obj, rw, rw, wp, goodFrom, goodUntil - 1);
+            return helperBWeak1Generic(weak, wi, obj, rw, rw, goodFrom, goodUntil - 1);
         }
     }
 
@@ -295,7 +508,7 @@ public abstract class JFBBase extends NonDominatedSorting {
         int weakN = weakUntil - weakFrom;
         if (goodN > 0 && weakN > 0) {
             if (goodN == 1) {
-                return updateByPoint(ranks, indices, points, maximalMeaningfulRank, indices[goodFrom], weakFrom, weakUntil, obj);
+                return updateByPoint(ranks, indices, pointAccess, maximalMeaningfulRank, indices[goodFrom], weakFrom, weakUntil, obj);
             } else if (weakN == 1) {
                 return helperBWeak1(goodFrom, goodUntil, weakFrom, obj);
             } else {
@@ -304,8 +517,8 @@ public abstract class JFBBase extends NonDominatedSorting {
                     if (hookResponse >= 0) {
                         return hookResponse;
                     }
-                    double[] currentPoints = transposedPoints[obj];
-                    switch (ArrayHelper.transplantAndDecide(currentPoints, indices,
+                    T currentPoints = transposedPoints[obj];
+                    switch (helper.transplantAndDecide(currentPoints, indices,
                             goodFrom, goodUntil, weakFrom, weakUntil, temporary, tempFrom)) {
                         case ArrayHelper.TRANSPLANT_LEFT_NOT_GREATER:
                             --obj;
@@ -313,11 +526,11 @@ public abstract class JFBBase extends NonDominatedSorting {
                         case ArrayHelper.TRANSPLANT_RIGHT_SMALLER:
                             return weakUntil;
                         case ArrayHelper.TRANSPLANT_GENERAL_CASE:
-                            double median = ArrayHelper.destructiveMedian(temporary, tempFrom, tempFrom + goodUntil - goodFrom + weakUntil - weakFrom);
-                            long goodSplit = splitMerge.splitInThree(currentPoints, indices, tempFrom, goodFrom, goodUntil, median);
+                            double median = helper.destructiveMedian(temporary, tempFrom, tempFrom + goodUntil - goodFrom + weakUntil - weakFrom);
+                            long goodSplit = helper.splitInThree(splitMerge, currentPoints, indices, tempFrom, goodFrom, goodUntil, median);
                             int goodMidL = SplitMergeHelper.extractMid(goodSplit);
                             int goodMidR = SplitMergeHelper.extractRight(goodSplit);
-                            long weakSplit = splitMerge.splitInThree(currentPoints, indices, tempFrom, weakFrom, weakUntil, median);
+                            long weakSplit = helper.splitInThree(splitMerge, currentPoints, indices, tempFrom, weakFrom, weakUntil, median);
                             int weakMidL = SplitMergeHelper.extractMid(weakSplit);
                             int weakMidR = SplitMergeHelper.extractRight(weakSplit);
                             int tempMid = tempFrom + ((goodUntil - goodFrom + weakUntil - weakFrom) >>> 1);
@@ -350,13 +563,14 @@ public abstract class JFBBase extends NonDominatedSorting {
         return weakUntil;
     }
 
-    private void twoDimensionalCase(double[][] points, int[] ranks) {
+    private static void twoDimensionalCase(PointAccess points, int[] ranks, int[] indices,
+                                           double[] temporary, int maximalMeaningfulRank) {
+        // The point at the position i in the lexicographical order is the point indices[i] of the input.
         int maxRank = 1;
         int n = ranks.length;
 
-        double[] firstPoint = points[indices[0]];
-        double lastX = firstPoint[0];
-        double lastY = firstPoint[1];
+        double lastX = points.get(0, 0);
+        double lastY = points.get(0, 1);
         int lastRank = 0;
 
         // This is used here instead of temporary[0] to make it slightly faster.
@@ -364,9 +578,8 @@ public abstract class JFBBase extends NonDominatedSorting {
 
         for (int i = 1; i < n; ++i) {
             int ii = indices[i];
-            double[] pp = points[ii];
-            double currX = pp[0];
-            double currY = pp[1];
+            double currX = points.get(i, 0);
+            double currY = points.get(i, 1);
 
             if (currX == lastX && currY == lastY) {
                 // Same point as the previous one.
@@ -415,6 +628,14 @@ public abstract class JFBBase extends NonDominatedSorting {
         }
     }
 
+    private void sortTwoDimensional(int[] ranks) {
+        if (ordinates == null) {
+            ordinates = new double[getMaximumPoints()];
+        }
+        twoDimensionalCase(pointAccess, ranks, indices, ordinates, maximalMeaningfulRank);
+        pointAccess.clear();
+    }
+
     private boolean makesSenseRunInParallel(int nPoints, int dimension) {
         return nPoints > FORK_JOIN_THRESHOLD && dimension > 3;
     }
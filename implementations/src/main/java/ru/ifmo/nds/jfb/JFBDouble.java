@@ -1,8 +1,9 @@
 package ru.ifmo.nds.jfb;
 
+import ru.ifmo.nds.util.ObjectiveHelper;
 import ru.ifmo.nds.util.RankQueryStructureDouble;
 
-public class JFBDouble extends JFBBase {
+public class JFBDouble extends JFBBase<double[]> {
     private RankQueryStructureDouble rankQuery;
 
     public JFBDouble(RankQueryStructureDouble rankQueryStructure,
@@ -13,7 +14,8 @@ public class JFBDouble extends JFBBase {
                 maximumDimension,
                 rankQueryStructure.supportsMultipleThreads() ? allowedThreads : 1,
                 hybridWrapper,
-                "no ordinate compression, data structure = " + rankQueryStructure.getName());
+                "no ordinate compression, data structure = " + rankQueryStructure.getName(),
+                ObjectiveHelper.DOUBLES);
         this.rankQuery = rankQueryStructure;
     }
 
@@ -24,9 +26,9 @@ public class JFBDouble extends JFBBase {
     }
 
     @Override
-    protected int sweepA(int from, int until) {
+    protected int sweepA(int from, int until, int tempFrom) {
         double[] local = transposedPoints[1];
-        RankQueryStructureDouble.RangeHandle rankQuery = this.rankQuery.createHandle(from, from, until, indices, local);
+        RankQueryStructureDouble.RangeHandle rankQuery = this.rankQuery.createHandle(tempFrom, from, until, indices, local);
         int minOverflow = until;
         for (int i = from; i < until; ++i) {
             int curr = indices[i];
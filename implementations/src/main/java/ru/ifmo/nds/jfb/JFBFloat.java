@@ -0,0 +1,119 @@
+package ru.ifmo.nds.jfb;
+
+import ru.ifmo.nds.util.ObjectiveHelper;
+import ru.ifmo.nds.util.RankQueryStructureInt;
+
+/**
+ * This is a variant of the Jensen-Fortin-Buzdalov algorithm which stores the objectives scanned by the recursion
+ * in single precision, which halves the memory traffic of transplanting, median finding and splitting.
+ * The sweep objective is compressed to integers and served by a {@link RankQueryStructureInt}.
+ *
+ * The results are exact for all inputs. If some objective has values which cannot be represented as floats,
+ * this objective is replaced by the ordinal numbers of its values, which requires an extra sort of this objective.
+ * If there are too many points for these ordinal numbers to be exact floats, the points are sorted by {@link JFBInt},
+ * which stores the objectives in double precision.
+ */
+public class JFBFloat extends JFBBase<float[]> {
+    private static final int MAXIMUM_EXACT_FLOAT_ORDINAL = 1 << 24;
+
+    private RankQueryStructureInt rankQuery;
+    private int[] compressedOrdinates;
+    private double[] exactValues; // allocated on demand
+    private JFBInt doublePrecisionSorting; // allocated on demand
+
+    private final int allowedThreads;
+    private final HybridAlgorithmWrapper hybridWrapper;
+
+    public JFBFloat(RankQueryStructureInt rankQueryStructure,
+                    int maximumDimension,
+                    int allowedThreads,
+                    HybridAlgorithmWrapper hybridWrapper) {
+        super(rankQueryStructure.maximumPoints(),
+                maximumDimension,
+                rankQueryStructure.supportsMultipleThreads() ? allowedThreads : 1,
+                hybridWrapper,
+                "single precision, data structure = " + rankQueryStructure.getName(),
+                ObjectiveHelper.FLOATS);
+        compressedOrdinates = new int[rankQueryStructure.maximumPoints()];
+        this.rankQuery = rankQueryStructure;
+        this.allowedThreads = allowedThreads;
+        this.hybridWrapper = hybridWrapper;
+    }
+
+    @Override
+    protected void closeImpl() {
+        super.closeImpl();
+        rankQuery = null;
+        compressedOrdinates = null;
+        exactValues = null;
+        if (doublePrecisionSorting != null) {
+            doublePrecisionSorting.close();
+            doublePrecisionSorting = null;
+        }
+    }
+
+    @Override
+    boolean transposeObjective(int newN, int objective) {
+        if (super.transposeObjective(newN, objective)) {
+            return true;
+        }
+        if (newN > MAXIMUM_EXACT_FLOAT_ORDINAL) {
+            return false;
+        }
+        // Rounding may merge distinct values, so the ordinal numbers of the values are stored instead.
+        if (exactValues == null) {
+            exactValues = new double[getMaximumPoints()];
+        }
+        for (int i = 0; i < newN; ++i) {
+            exactValues[i] = pointAccess.get(i, objective);
+        }
+        int[] local = compressedOrdinates;
+        sorter.compressCoordinates(exactValues, indices, local, 0, newN);
+        float[] target = transposedPoints[objective];
+        for (int i = 0; i < newN; ++i) {
+            target[i] = local[i];
+        }
+        return true;
+    }
+
+    @Override
+    void rankUntransposed(int newN, int dim) {
+        double[][] points = new double[newN][dim];
+        for (int i = 0; i < newN; ++i) {
+            for (int j = 0; j < dim; ++j) {
+                points[i][j] = pointAccess.get(i, j);
+            }
+        }
+        if (doublePrecisionSorting == null) {
+            // The rank query structure is free, as the recursion of this sorting does not run.
+            doublePrecisionSorting = new JFBInt(rankQuery, getMaximumDimension(), allowedThreads, hybridWrapper);
+        }
+        int[] ranks = new int[newN];
+        doublePrecisionSorting.sort(points, ranks, maximalMeaningfulRank);
+        System.arraycopy(ranks, 0, this.ranks, 0, newN);
+    }
+
+    @Override
+    protected void postTransposePointHook(int newN) {
+        // The order of the floats is the order of their bits, once the bits of the negative ones are flipped.
+        // Adding zero turns the negative zero into the positive one.
+        float[] ordinates = transposedPoints[1];
+        int[] local = compressedOrdinates;
+        for (int i = 0; i < newN; ++i) {
+            int bits = Float.floatToIntBits(ordinates[i] + 0.0f);
+            local[i] = bits ^ ((bits >> 31) & Integer.MAX_VALUE);
+        }
+        sorter.compressCoordinates(local, indices, local, 0, newN);
+    }
+
+    @Override
+    protected int sweepA(int from, int until, int tempFrom) {
+        return JFBInt.sweepA(rankQuery, compressedOrdinates, indices, ranks, maximalMeaningfulRank, from, until, tempFrom);
+    }
+
+    @Override
+    protected int sweepB(int goodFrom, int goodUntil, int weakFrom, int weakUntil, int tempFrom) {
+        return JFBInt.sweepB(rankQuery, compressedOrdinates, indices, ranks, maximalMeaningfulRank,
+                goodFrom, goodUntil, weakFrom, weakUntil, tempFrom);
+    }
+}
@@ -1,8 +1,9 @@
 package ru.ifmo.nds.jfb;
 
+import ru.ifmo.nds.util.ObjectiveHelper;
 import ru.ifmo.nds.util.RankQueryStructureInt;
 
-public class JFBInt extends JFBBase {
+public class JFBInt extends JFBBase<double[]> {
     private RankQueryStructureInt rankQuery;
     private int[] compressedOrdinates;
 
@@ -14,7 +15,8 @@ public class JFBInt extends JFBBase {
                 maximumDimension,
                 rankQueryStructure.supportsMultipleThreads() ? allowedThreads : 1,
                 hybridWrapper,
-                "ordinate compression, data structure = " + rankQueryStructure.getName());
+                "ordinate compression, data structure = " + rankQueryStructure.getName(),
+                ObjectiveHelper.DOUBLES);
         compressedOrdinates = new int[rankQueryStructure.maximumPoints()];
         this.rankQuery = rankQueryStructure;
     }
@@ -32,9 +34,40 @@ public class JFBInt extends JFBBase {
     }
 
     @Override
-    protected int sweepA(int from, int until) {
+    protected void postTransposePointHook(int[][] points, int newN) {
         int[] local = compressedOrdinates;
-        RankQueryStructureInt.RangeHandle rankQuery = this.rankQuery.createHandle(from, from, until, indices, local);
+        int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+        for (int i = 0; i < newN; ++i) {
+            int value = points[indices[i]][1];
+            local[i] = value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        if ((long) max - min < rankQuery.maximumPoints()) {
+            // The values are already small enough to be the keys of the rank query structure.
+            for (int i = 0; i < newN; ++i) {
+                local[i] -= min;
+            }
+        } else {
+            sorter.compressCoordinates(local, indices, local, 0, newN);
+        }
+    }
+
+    @Override
+    protected int sweepA(int from, int until, int tempFrom) {
+        return sweepA(rankQuery, compressedOrdinates, indices, ranks, maximalMeaningfulRank, from, until, tempFrom);
+    }
+
+    @Override
+    protected int sweepB(int goodFrom, int goodUntil, int weakFrom, int weakUntil, int tempFrom) {
+        return sweepB(rankQuery, compressedOrdinates, indices, ranks, maximalMeaningfulRank,
+                goodFrom, goodUntil, weakFrom, weakUntil, tempFrom);
+    }
+
+    // The sweeps are shared with JFBFloat, which compresses the ordinates in the same way.
+    static int sweepA(RankQueryStructureInt structure, int[] local, int[] indices, int[] ranks, int maximalMeaningfulRank,
+                      int from, int until, int tempFrom) {
+        RankQueryStructureInt.RangeHandle rankQuery = structure.createHandle(tempFrom, from, until, indices, local);
         int minOverflow = until;
         for (int i = from; i < until; ++i) {
             int curr = indices[i];
@@ -50,10 +83,9 @@ public class JFBInt extends JFBBase {
         return JFBBase.kickOutOverflowedRanks(indices, ranks, maximalMeaningfulRank, minOverflow, until);
     }
 
-    @Override
-    protected int sweepB(int goodFrom, int goodUntil, int weakFrom, int weakUntil, int tempFrom) {
-        int[] local = compressedOrdinates;
-        RankQueryStructureInt.RangeHandle rankQuery = this.rankQuery.createHandle(tempFrom, goodFrom, goodUntil, indices, local);
+    static int sweepB(RankQueryStructureInt structure, int[] local, int[] indices, int[] ranks, int maximalMeaningfulRank,
+                      int goodFrom, int goodUntil, int weakFrom, int weakUntil, int tempFrom) {
+        RankQueryStructureInt.RangeHandle rankQuery = structure.createHandle(tempFrom, goodFrom, goodUntil, indices, local);
         int goodI = goodFrom;
         int minOverflow = weakUntil;
         for (int weakI = weakFrom; weakI < weakUntil; ++weakI) {
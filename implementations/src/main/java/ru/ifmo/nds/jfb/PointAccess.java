@@ -0,0 +1,133 @@
+package ru.ifmo.nds.jfb;
+
+import java.nio.DoubleBuffer;
+
+import ru.ifmo.nds.util.DominanceHelper;
+
+/**
+ * Gives the dominance checks of {@link JFBBase} and of its hybrid algorithms, as well as the two-dimensional sweep,
+ * access to the points being sorted, whatever their layout in the input is, so that the points need not be copied.
+ *
+ * The points are identified by their positions in the lexicographical order.
+ * The rows which were already put in this order are read directly.
+ * Otherwise, the positions are mapped to the indices of the points in the input.
+ */
+public final class PointAccess {
+    private static final int ROWS = 0;
+    private static final int FLAT = 1;
+    private static final int COLUMNS = 2;
+    private static final int BUFFER = 3;
+    private static final int INTS = 4;
+    private static final int MAPPED_ROWS = 5;
+
+    private int layout;
+    private double[][] rows;
+    private double[][] columns;
+    private double[] coords;
+    private DoubleBuffer buffer;
+    private int[][] ints;
+    private int dimension;
+    private int[] origins;
+
+    PointAccess() {}
+
+    void setRows(double[][] rows) {
+        this.layout = ROWS;
+        this.rows = rows;
+    }
+
+    void setRows(double[][] rows, int[] origins) {
+        this.layout = MAPPED_ROWS;
+        this.rows = rows;
+        this.origins = origins;
+    }
+
+    void setFlat(double[] coords, int dimension, int[] origins) {
+        this.layout = FLAT;
+        this.coords = coords;
+        this.dimension = dimension;
+        this.origins = origins;
+    }
+
+    void setColumns(double[][] columns, int[] origins) {
+        this.layout = COLUMNS;
+        this.columns = columns;
+        this.origins = origins;
+    }
+
+    void setBuffer(DoubleBuffer buffer, int dimension, int[] origins) {
+        this.layout = BUFFER;
+        this.buffer = buffer;
+        this.dimension = dimension;
+        this.origins = origins;
+    }
+
+    void setInts(int[][] ints, int[] origins) {
+        this.layout = INTS;
+        this.ints = ints;
+        this.origins = origins;
+    }
+
+    void clear() {
+        rows = null;
+        columns = null;
+        coords = null;
+        buffer = null;
+        ints = null;
+        origins = null;
+    }
+
+    public double get(int index, int objective) {
+        switch (layout) {
+            case FLAT:
+                return coords[origins[index] * dimension + objective];
+            case COLUMNS:
+                return columns[objective][origins[index]];
+            case INTS:
+                return ints[origins[index]][objective];
+            case BUFFER:
+                return buffer.get(origins[index] * dimension + objective);
+            case MAPPED_ROWS:
+                return rows[origins[index]][objective];
+            default:
+                return rows[index][objective];
+        }
+    }
+
+    public boolean strictlyDominatesAssumingLexicographicallySmaller(int goodIndex, int weakIndex, int maxObj) {
+        switch (layout) {
+            case FLAT:
+                return DominanceHelper.strictlyDominatesAssumingLexicographicallySmaller(coords,
+                        origins[goodIndex] * dimension, origins[weakIndex] * dimension, maxObj);
+            case COLUMNS:
+                return strictlyDominatesByColumns(origins[goodIndex], origins[weakIndex], maxObj);
+            case INTS:
+                return DominanceHelper.strictlyDominatesAssumingLexicographicallySmaller(ints[origins[goodIndex]], ints[origins[weakIndex]], maxObj);
+            case BUFFER:
+                return strictlyDominatesInBuffer(origins[goodIndex] * dimension, origins[weakIndex] * dimension, maxObj);
+            case MAPPED_ROWS:
+                return DominanceHelper.strictlyDominatesAssumingLexicographicallySmaller(rows[origins[goodIndex]], rows[origins[weakIndex]], maxObj);
+            default:
+                return DominanceHelper.strictlyDominatesAssumingLexicographicallySmaller(rows[goodIndex], rows[weakIndex], maxObj);
+        }
+    }
+
+    private boolean strictlyDominatesByColumns(int good, int weak, int maxObj) {
+        for (int i = maxObj; i > 0; --i) {
+            double[] column = columns[i];
+            if (column[good] > column[weak]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean strictlyDominatesInBuffer(int goodOffset, int weakOffset, int maxObj) {
+        for (int i = maxObj; i > 0; --i) {
+            if (buffer.get(goodOffset + i) > buffer.get(weakOffset + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
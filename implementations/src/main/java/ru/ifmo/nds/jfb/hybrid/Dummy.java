@@ -1,6 +1,8 @@
 package ru.ifmo.nds.jfb.hybrid;
 
 import ru.ifmo.nds.jfb.HybridAlgorithmWrapper;
+import ru.ifmo.nds.jfb.PointAccess;
+import ru.ifmo.nds.util.ObjectiveHelper;
 
 public final class Dummy extends HybridAlgorithmWrapper {
     private static final Dummy WRAPPER_INSTANCE = new Dummy();
@@ -21,13 +23,13 @@ public final class Dummy extends HybridAlgorithmWrapper {
     }
 
     @Override
-    public Instance create(int[] ranks, int[] indices, double[][] points, double[][] transposedPoints) {
+    public <T> Instance create(int[] ranks, int[] indices, PointAccess points, ObjectiveHelper<T> helper, T[] transposedPoints) {
         return INSTANCE;
     }
 
     private static final Instance INSTANCE = new Instance() {
         @Override
-        public int helperAHook(int from, int until, int obj, int maximalMeaningfulRank) {
+        public int helperAHook(int from, int until, int obj, int tempFrom, int maximalMeaningfulRank) {
             return -1;
         }
 
@@ -2,11 +2,10 @@ package ru.ifmo.nds.jfb.hybrid;
 
 import ru.ifmo.nds.jfb.HybridAlgorithmWrapper;
 import ru.ifmo.nds.jfb.JFBBase;
+import ru.ifmo.nds.jfb.PointAccess;
 import ru.ifmo.nds.util.ArrayHelper;
 import ru.ifmo.nds.util.ArraySorter;
-import ru.ifmo.nds.util.DominanceHelper;
-
-import java.util.Arrays;
+import ru.ifmo.nds.util.ObjectiveHelper;
 
 public final class ENS extends HybridAlgorithmWrapper {
     private final int threshold3D;
@@ -28,7 +27,7 @@ public final class ENS extends HybridAlgorithmWrapper {
     }
 
     @Override
-    public HybridAlgorithmWrapper.Instance create(int[] ranks, int[] indices, double[][] points, double[][] transposedPoints) {
+    public <T> HybridAlgorithmWrapper.Instance create(int[] ranks, int[] indices, PointAccess points, ObjectiveHelper<T> helper, T[] transposedPoints) {
         return new Instance(ranks, indices, points, threshold3D, thresholdAll);
     }
 
@@ -38,17 +37,17 @@ public final class ENS extends HybridAlgorithmWrapper {
         private final int[] space;
         private final int[] ranks;
         private final int[] indices;
-        private final double[][] points;
-        private final double[][] exPoints;
+        private final PointAccess points;
+        private final int[] exIndices;
 
         private final int threshold3D;
         private final int thresholdAll;
 
-        private Instance(int[] ranks, int[] indices, double[][] points, int threshold3D, int thresholdAll) {
+        private Instance(int[] ranks, int[] indices, PointAccess points, int threshold3D, int thresholdAll) {
             this.ranks = ranks;
             this.indices = indices;
             this.points = points;
-            this.exPoints = new double[points.length][];
+            this.exIndices = new int[indices.length];
             this.space = new int[STORAGE_MULTIPLE * indices.length];
             this.threshold3D = threshold3D;
             this.thresholdAll = thresholdAll;
@@ -71,10 +70,9 @@ public final class ENS extends HybridAlgorithmWrapper {
                 return true;
             }
             int virtualGoodIndex = space[sliceIndex + 2];
-            double[] wp = points[weakIndex];
             while (virtualGoodIndex != -1) {
                 int realGoodIndex = space[virtualGoodIndex];
-                if (DominanceHelper.strictlyDominatesAssumingLexicographicallySmaller(points[realGoodIndex], wp, obj)) {
+                if (points.strictlyDominatesAssumingLexicographicallySmaller(realGoodIndex, weakIndex, obj)) {
                     ranks[weakIndex] = 1 + sliceRank;
                     return true;
                 }
@@ -93,12 +91,12 @@ public final class ENS extends HybridAlgorithmWrapper {
         }
 
         @Override
-        public int helperAHook(int from, int until, int obj, int maximalMeaningfulRank) {
+        public int helperAHook(int from, int until, int obj, int tempFrom, int maximalMeaningfulRank) {
             if (notHookCondition(until - from, obj)) {
                 return -1;
             }
 
-            int sliceOffset = from * STORAGE_MULTIPLE;
+            int sliceOffset = tempFrom * STORAGE_MULTIPLE;
             int pointOffset = sliceOffset + 3 * (until - from);
 
             int sliceCurrent = sliceOffset - 3;
@@ -145,10 +143,10 @@ public final class ENS extends HybridAlgorithmWrapper {
             return JFBBase.kickOutOverflowedRanks(indices, ranks, maximalMeaningfulRank, minOverflow, until);
         }
 
-        private boolean checkWhetherDominates(int goodFrom, int goodUntil, double[] wp, int obj) {
+        private boolean checkWhetherDominates(int goodFrom, int goodUntil, int weakIndex, int obj) {
             while (goodUntil > goodFrom) {
                 --goodUntil;
-                if (DominanceHelper.strictlyDominatesAssumingLexicographicallySmaller(exPoints[goodUntil], wp, obj)) {
+                if (points.strictlyDominatesAssumingLexicographicallySmaller(exIndices[goodUntil], weakIndex, obj)) {
                     return true;
                 }
             }
@@ -160,7 +158,7 @@ public final class ENS extends HybridAlgorithmWrapper {
             int minUpdated = weakUntil;
             int offset = tempFrom - goodFrom;
             for (int good = goodFrom; good < goodUntil; ++good) {
-                exPoints[offset + good] = points[indices[good]];
+                exIndices[offset + good] = indices[good];
             }
             for (int weak = weakFrom, good = goodFrom; weak < weakUntil; ++weak) {
                 int wi = indices[weak];
@@ -168,14 +166,13 @@ public final class ENS extends HybridAlgorithmWrapper {
                     continue;
                 }
                 good = ArrayHelper.findWhereNotSmaller(indices, good, goodUntil, wi);
-                if (checkWhetherDominates(tempFrom, good + offset, points[wi], obj)) {
+                if (checkWhetherDominates(tempFrom, good + offset, wi, obj)) {
                     ranks[wi] = rank + 1;
                     if (minUpdated > weak) {
                         minUpdated = weak;
                     }
                 }
             }
-            Arrays.fill(exPoints, tempFrom, tempFrom + goodUntil - goodFrom, null);
             return rank == maximalMeaningfulRank && minUpdated < weakUntil
                     ? JFBBase.kickOutOverflowedRanks(indices, ranks, maximalMeaningfulRank, minUpdated, weakUntil)
                     : weakUntil;
@@ -231,14 +228,13 @@ public final class ENS extends HybridAlgorithmWrapper {
             int currSlice = sliceLast;
             int sliceRankIndex = ((currSlice - sliceOffset) >>> 1) + sliceRankOffset;
             int weakRank = ranks[wi];
-            double[] wp = points[wi];
             while (currSlice >= sliceOffset) {
                 int from = space[currSlice];
                 int until = space[currSlice + 1];
                 if (from < until) {
                     int currRank = -space[sliceRankIndex];
                     if (currRank >= weakRank) {
-                        if (checkWhetherDominates(from, until, wp, obj)) {
+                        if (checkWhetherDominates(from, until, wi, obj)) {
                             weakRank = currRank + 1;
                         } else {
                             break;
@@ -277,7 +273,7 @@ public final class ENS extends HybridAlgorithmWrapper {
                     while (good < goodUntil && (gi = indices[good]) < wi) {
                         int sliceTailIndex = space[sliceOfGood] + 1;
                         int spaceAtTail = space[sliceTailIndex];
-                        exPoints[spaceAtTail] = points[gi];
+                        exIndices[spaceAtTail] = gi;
                         space[sliceTailIndex] = spaceAtTail + 1;
                         ++good;
                         ++sliceOfGood;
@@ -287,7 +283,6 @@ public final class ENS extends HybridAlgorithmWrapper {
                         minOverflowed = weak;
                     }
                 }
-                Arrays.fill(exPoints, tempFrom, tempFrom + goodUntil - goodFrom, null);
                 return JFBBase.kickOutOverflowedRanks(indices, ranks, maximalMeaningfulRank, minOverflowed, weakUntil);
             }
         }
@@ -2,6 +2,8 @@ package ru.ifmo.nds.jfb.hybrid;
 
 import ru.ifmo.nds.jfb.HybridAlgorithmWrapper;
 import ru.ifmo.nds.jfb.JFBBase;
+import ru.ifmo.nds.jfb.PointAccess;
+import ru.ifmo.nds.util.ObjectiveHelper;
 
 public final class LinearNDS extends HybridAlgorithmWrapper {
     private static final int THRESHOLD_3D = 50;
@@ -25,16 +27,16 @@ public final class LinearNDS extends HybridAlgorithmWrapper {
     }
 
     @Override
-    public HybridAlgorithmWrapper.Instance create(int[] ranks, int[] indices, double[][] points, double[][] transposedPoints) {
+    public <T> HybridAlgorithmWrapper.Instance create(int[] ranks, int[] indices, PointAccess points, ObjectiveHelper<T> helper, T[] transposedPoints) {
         return new Instance(ranks, indices, points);
     }
 
     private static final class Instance extends HybridAlgorithmWrapper.Instance {
         private final int[] ranks;
         private final int[] indices;
-        private final double[][] points;
+        private final PointAccess points;
 
-        private Instance(int[] ranks, int[] indices, double[][] points) {
+        private Instance(int[] ranks, int[] indices, PointAccess points) {
             this.ranks = ranks;
             this.indices = indices;
             this.points = points;
@@ -49,7 +51,7 @@ public final class LinearNDS extends HybridAlgorithmWrapper {
         }
 
         @Override
-        public int helperAHook(int from, int until, int obj, int maximalMeaningfulRank) {
+        public int helperAHook(int from, int until, int obj, int tempFrom, int maximalMeaningfulRank) {
             if (notHookCondition(until - from, obj)) {
                 return -1;
             }
@@ -2,9 +2,11 @@ package ru.ifmo.nds.jfb.hybrid;
 
 import ru.ifmo.nds.jfb.HybridAlgorithmWrapper;
 import ru.ifmo.nds.jfb.JFBBase;
+import ru.ifmo.nds.jfb.PointAccess;
 import ru.ifmo.nds.ndt.Split;
 import ru.ifmo.nds.ndt.SplitBuilder;
 import ru.ifmo.nds.ndt.TreeRankNode;
+import ru.ifmo.nds.util.ObjectiveHelper;
 
 public final class NDT extends HybridAlgorithmWrapper {
     private final int threshold3D;
@@ -28,14 +30,15 @@ public final class NDT extends HybridAlgorithmWrapper {
     }
 
     @Override
-    public HybridAlgorithmWrapper.Instance create(int[] ranks, int[] indices, double[][] points, double[][] transposedPoints) {
-        return new Instance(ranks, indices, points, transposedPoints, threshold3D, thresholdAll, treeThreshold);
+    public <T> HybridAlgorithmWrapper.Instance create(int[] ranks, int[] indices, PointAccess points, ObjectiveHelper<T> helper, T[] transposedPoints) {
+        return new Instance<>(ranks, indices, helper, transposedPoints, threshold3D, thresholdAll, treeThreshold);
     }
 
-    private static final class Instance extends HybridAlgorithmWrapper.Instance {
-        private SplitBuilder splitBuilder;
+    private static final class Instance<T> extends HybridAlgorithmWrapper.Instance {
+        private SplitBuilder<T> splitBuilder;
 
-        private double[][] points;
+        private ObjectiveHelper<T> helper;
+        private T[] transposedPoints;
         private int[] indices;
         private int[] ranks;
 
@@ -45,10 +48,12 @@ public final class NDT extends HybridAlgorithmWrapper {
         private final int thresholdAll;
         private final int threshold;
 
-        private Instance(int[] ranks, int[] indices, double[][] points, double[][] transposedPoints, int threshold3D, int thresholdAll, int treeThreshold) {
+        private Instance(int[] ranks, int[] indices, ObjectiveHelper<T> helper, T[] transposedPoints,
+                         int threshold3D, int thresholdAll, int treeThreshold) {
             this.ranks = ranks;
             this.indices = indices;
-            this.points = points;
+            this.helper = helper;
+            this.transposedPoints = transposedPoints;
 
             this.threshold3D = threshold3D;
             this.thresholdAll = thresholdAll;
@@ -56,7 +61,7 @@ public final class NDT extends HybridAlgorithmWrapper {
 
             int maximumPoints = indices.length;
             int maximumDimension = transposedPoints.length;
-            this.splitBuilder = new SplitBuilder(transposedPoints, maximumPoints, threshold);
+            this.splitBuilder = new SplitBuilder<>(helper, transposedPoints, maximumPoints, threshold);
             this.localPoints = new double[maximumPoints][maximumDimension];
         }
 
@@ -68,17 +73,26 @@ public final class NDT extends HybridAlgorithmWrapper {
             }
         }
 
+        private void copyToLocalPoints(int from, int until, int obj) {
+            // The transposed points are read, as these are available whatever the layout of the input is,
+            // and the splits are built on them.
+            for (int j = 1; j <= obj; ++j) {
+                T source = transposedPoints[j];
+                for (int i = from; i < until; ++i) {
+                    localPoints[i][j] = helper.get(source, indices[i]);
+                }
+            }
+        }
+
         @Override
-        public int helperAHook(int from, int until, int obj, int maximalMeaningfulRank) {
+        public int helperAHook(int from, int until, int obj, int tempFrom, int maximalMeaningfulRank) {
             if (notHookCondition(until - from, obj)) {
                 return -1;
             }
 
             Split split = splitBuilder.result(from, until, indices, obj + 1);
 
-            for (int i = from; i < until; ++i) {
-                System.arraycopy(points[indices[i]], 1, localPoints[i], 1, obj);
-            }
+            copyToLocalPoints(from, until, obj);
 
             int minOverflow = until;
             TreeRankNode tree = threshold == 1 ? TreeRankNode.EMPTY_1 : TreeRankNode.EMPTY;
@@ -103,12 +117,8 @@ public final class NDT extends HybridAlgorithmWrapper {
 
             Split split = splitBuilder.result(goodFrom, goodUntil, indices, obj + 1);
 
-            for (int good = goodFrom; good < goodUntil; ++good) {
-                System.arraycopy(points[indices[good]], 1, localPoints[good], 1, obj);
-            }
-            for (int weak = weakFrom; weak < weakUntil; ++weak) {
-                System.arraycopy(points[indices[weak]], 1, localPoints[weak], 1, obj);
-            }
+            copyToLocalPoints(goodFrom, goodUntil, obj);
+            copyToLocalPoints(weakFrom, weakUntil, obj);
 
             int minOverflow = weakUntil;
             TreeRankNode tree = threshold == 1 ? TreeRankNode.EMPTY_1 : TreeRankNode.EMPTY;
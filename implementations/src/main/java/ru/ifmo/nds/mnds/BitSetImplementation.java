@@ -5,7 +5,6 @@ import java.util.BitSet;
 
 import ru.ifmo.nds.NonDominatedSorting;
 import ru.ifmo.nds.util.ArrayHelper;
-import ru.ifmo.nds.util.ArraySorter;
 
 public final class BitSetImplementation extends NonDominatedSorting {
     private double[][] points;
@@ -41,9 +40,7 @@ public final class BitSetImplementation extends NonDominatedSorting {
     protected void sortChecked(double[][] points, int[] ranks, int maximalMeaningfulRank) {
         int origN = ranks.length;
         int dim = points[0].length;
-        ArrayHelper.fillIdentity(indices, origN);
-        sorter.lexicographicalSort(points, indices, 0, origN, dim);
-        int newN = ArraySorter.retainUniquePoints(points, indices, this.points, ranks);
+        int newN = sorter.sortAndRetainUniquePoints(points, indices, this.points, ranks);
 
         for (int i = 1; i < newN; ++i) {
             pointBitSets[i].set(0, i);
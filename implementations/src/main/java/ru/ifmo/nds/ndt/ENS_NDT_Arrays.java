@@ -3,12 +3,11 @@ package ru.ifmo.nds.ndt;
 import java.util.Arrays;
 
 import ru.ifmo.nds.NonDominatedSorting;
-import ru.ifmo.nds.util.ArrayHelper;
-import ru.ifmo.nds.util.ArraySorter;
 import ru.ifmo.nds.util.DominanceHelper;
+import ru.ifmo.nds.util.ObjectiveHelper;
 
 public class ENS_NDT_Arrays extends NonDominatedSorting {
-    private SplitBuilder splitBuilder;
+    private SplitBuilder<double[]> splitBuilder;
     private int[] ranks;
     private double[][] transposedPoints;
     private double[][] points;
@@ -23,7 +22,7 @@ public class ENS_NDT_Arrays extends NonDominatedSorting {
         for (int d = 1; d < maximumDimension; ++d) {
             transposedPoints[d] = new double[maximumPoints];
         }
-        splitBuilder = new SplitBuilder(transposedPoints, maximumPoints, 2);
+        splitBuilder = new SplitBuilder<>(ObjectiveHelper.DOUBLES, transposedPoints, maximumPoints, 2);
         points = new double[maximumPoints][];
 
         // We need to have:
@@ -123,10 +122,7 @@ public class ENS_NDT_Arrays extends NonDominatedSorting {
     protected void sortChecked(double[][] points, int[] ranks, int maximalMeaningfulRank) {
         int n = points.length;
         int dim = points[0].length;
-        ArrayHelper.fillIdentity(indices, n);
-        sorter.lexicographicalSort(points, indices, 0, n, dim);
-
-        int newN = ArraySorter.retainUniquePoints(points, indices, this.points, ranks);
+        int newN = sorter.sortAndRetainUniquePoints(points, indices, this.points, ranks);
         Arrays.fill(this.ranks, 0, newN, 0);
         Arrays.fill(this.nodeArray, 0, 2 * newN, 0);
 
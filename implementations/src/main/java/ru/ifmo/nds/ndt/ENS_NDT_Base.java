@@ -0,0 +1,137 @@
+package ru.ifmo.nds.ndt;
+
+import java.util.Arrays;
+
+import ru.ifmo.nds.NonDominatedSorting;
+import ru.ifmo.nds.util.ArrayHelper;
+import ru.ifmo.nds.util.ArraySorter;
+import ru.ifmo.nds.util.ObjectiveHelper;
+
+/**
+ * The ENS-NDT algorithm, which builds its splits on the objectives stored in the arrays of the given type.
+ * The tree nodes always compare the points themselves, so the stored values must be exactly the same.
+ *
+ * @param <T> the type of the arrays holding the objectives for the splits.
+ */
+public abstract class ENS_NDT_Base<T> extends NonDominatedSorting {
+    SplitBuilder<T> splitBuilder;
+    private TreeNode[] levels;
+    private int[] ranks;
+    T[] transposedPoints;
+    private double[][] points;
+    private double[][] pointPool; // rows for points which do not come as rows, allocated on demand
+    final int threshold;
+
+    ENS_NDT_Base(int maximumPoints, int maximumDimension, int threshold, ObjectiveHelper<T> helper) {
+        super(maximumPoints, maximumDimension);
+        this.threshold = threshold;
+        levels = new TreeNode[maximumPoints];
+        ranks = new int[maximumPoints];
+        transposedPoints = helper.newArrays(maximumDimension);
+        for (int d = 1; d < maximumDimension; ++d) {
+            transposedPoints[d] = helper.newArray(maximumPoints);
+        }
+        splitBuilder = new SplitBuilder<>(helper, transposedPoints, maximumPoints, threshold);
+        points = new double[maximumPoints][];
+    }
+
+    @Override
+    protected void closeImpl() {
+        splitBuilder = null;
+        levels = null;
+        ranks = null;
+        transposedPoints = null;
+        points = null;
+        pointPool = null;
+    }
+
+    @Override
+    protected void sortChecked(double[][] points, int[] ranks, int maximalMeaningfulRank) {
+        int n = points.length;
+        int dim = points[0].length;
+        int newN = sorter.sortAndRetainUniquePoints(points, indices, this.points, ranks);
+        Arrays.fill(this.ranks, 0, newN, 0);
+
+        TreeNode empty = threshold == 1 ? TreeNode.EMPTY_1 : TreeNode.EMPTY;
+        for (int i = 0; i < newN; ++i) {
+            levels[i] = empty;
+        }
+
+        Split split = buildSplits(this.points, newN, dim);
+        rankUniquePoints(newN, split, maximalMeaningfulRank);
+
+        for (int i = 0; i < n; ++i) {
+            ranks[i] = this.ranks[ranks[i]];
+            this.points[i] = null;
+        }
+    }
+
+    @Override
+    protected void sortCheckedByColumns(double[][] columns, int[] ranks, int maximalMeaningfulRank) {
+        int n = ranks.length;
+        int dim = columns.length;
+        ArrayHelper.fillIdentity(indices, n);
+        sorter.lexicographicalSortByColumns(columns, indices, 0, n, dim);
+
+        int newN = ArraySorter.retainUniquePointsByColumns(columns, n, indices, ranks);
+        Arrays.fill(this.ranks, 0, newN, 0);
+
+        // The tree nodes need points as rows, but the splits can be built from the columns directly.
+        if (pointPool == null) {
+            pointPool = new double[getMaximumPoints()][];
+        }
+        TreeNode empty = threshold == 1 ? TreeNode.EMPTY_1 : TreeNode.EMPTY;
+        for (int i = 0; i < newN; ++i) {
+            double[] row = pointPool[i];
+            if (row == null || row.length != dim) {
+                row = pointPool[i] = new double[dim];
+            }
+            int ii = indices[i];
+            for (int j = 0; j < dim; ++j) {
+                row[j] = columns[j][ii];
+            }
+            this.points[i] = row;
+            levels[i] = empty;
+        }
+
+        Split split = buildSplitsByColumns(columns, indices, newN, dim);
+        rankUniquePoints(newN, split, maximalMeaningfulRank);
+
+        for (int i = 0; i < n; ++i) {
+            ranks[i] = this.ranks[ranks[i]];
+            this.points[i] = null;
+        }
+    }
+
+    protected abstract Split buildSplits(double[][] points, int newN, int dim);
+    protected abstract Split buildSplitsByColumns(double[][] columns, int[] indices, int newN, int dim);
+
+    private void rankUniquePoints(int newN, Split split, int maximalMeaningfulRank) {
+        int maxRank = 1;
+        levels[0] = levels[0].add(this.points[0], split, threshold);
+        for (int i = 1; i < newN; ++i) {
+            double[] current = this.points[i];
+            if (levels[0].dominates(current, split)) {
+                int left = 0, right = maxRank;
+                while (right - left > 1) {
+                    int mid = (left + right) >>> 1;
+                    if (levels[mid].dominates(current, split)) {
+                        left = mid;
+                    } else {
+                        right = mid;
+                    }
+                }
+                int rank = left + 1;
+                this.ranks[i] = rank;
+                if (rank <= maximalMeaningfulRank) {
+                    levels[rank] = levels[rank].add(current, split, threshold);
+                    if (rank == maxRank) {
+                        ++maxRank;
+                    }
+                }
+            } else {
+                levels[0] = levels[0].add(current, split, threshold);
+            }
+        }
+    }
+}
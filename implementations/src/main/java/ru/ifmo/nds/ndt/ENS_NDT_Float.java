@@ -0,0 +1,81 @@
+package ru.ifmo.nds.ndt;
+
+import ru.ifmo.nds.util.ObjectiveHelper;
+
+public class ENS_NDT_Float extends ENS_NDT_Base<float[]> {
+    private SplitBuilder<double[]> exactSplitBuilder; // for the points which are not floats, allocated on demand
+    private double[][] exactTransposedPoints;
+
+    public ENS_NDT_Float(int maximumPoints, int maximumDimension, int threshold) {
+        super(maximumPoints, maximumDimension, threshold, ObjectiveHelper.FLOATS);
+    }
+
+    @Override
+    public String getName() {
+        return "ENS-NDT (Objects, single precision splits, threshold = " + threshold + ")";
+    }
+
+    @Override
+    protected void closeImpl() {
+        super.closeImpl();
+        exactSplitBuilder = null;
+        exactTransposedPoints = null;
+    }
+
+    @Override
+    protected Split buildSplits(double[][] points, int newN, int dim) {
+        for (int i = 0; i < newN; ++i) {
+            double[] point = points[i];
+            for (int j = 1; j < dim; ++j) {
+                double value = point[j];
+                float floatValue = (float) value;
+                if (floatValue != value) {
+                    // Rounding may merge distinct values, which the tree cannot tolerate, so use exact splits.
+                    return buildExactSplits(points, newN, dim);
+                }
+                transposedPoints[j][i] = floatValue;
+            }
+        }
+        return splitBuilder.result(newN, dim);
+    }
+
+    @Override
+    protected Split buildSplitsByColumns(double[][] columns, int[] indices, int newN, int dim) {
+        for (int j = 1; j < dim; ++j) {
+            double[] column = columns[j];
+            float[] target = transposedPoints[j];
+            for (int i = 0; i < newN; ++i) {
+                double value = column[indices[i]];
+                float floatValue = (float) value;
+                if (floatValue != value) {
+                    return getExactSplitBuilder().result(columns, indices, newN, dim);
+                }
+                target[i] = floatValue;
+            }
+        }
+        return splitBuilder.result(newN, dim);
+    }
+
+    private Split buildExactSplits(double[][] points, int newN, int dim) {
+        SplitBuilder<double[]> builder = getExactSplitBuilder();
+        for (int i = 0; i < newN; ++i) {
+            double[] point = points[i];
+            for (int j = 1; j < dim; ++j) {
+                exactTransposedPoints[j][i] = point[j];
+            }
+        }
+        return builder.result(newN, dim);
+    }
+
+    private SplitBuilder<double[]> getExactSplitBuilder() {
+        if (exactSplitBuilder == null) {
+            int maximumPoints = getMaximumPoints();
+            exactTransposedPoints = new double[getMaximumDimension()][];
+            for (int d = 1; d < exactTransposedPoints.length; ++d) {
+                exactTransposedPoints[d] = new double[maximumPoints];
+            }
+            exactSplitBuilder = new SplitBuilder<>(ObjectiveHelper.DOUBLES, exactTransposedPoints, maximumPoints, threshold);
+        }
+        return exactSplitBuilder;
+    }
+}
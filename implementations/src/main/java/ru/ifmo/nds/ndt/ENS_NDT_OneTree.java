@@ -1,11 +1,10 @@
 package ru.ifmo.nds.ndt;
 
 import ru.ifmo.nds.NonDominatedSorting;
-import ru.ifmo.nds.util.ArrayHelper;
-import ru.ifmo.nds.util.ArraySorter;
+import ru.ifmo.nds.util.ObjectiveHelper;
 
 public class ENS_NDT_OneTree extends NonDominatedSorting {
-    private SplitBuilder splitBuilder;
+    private SplitBuilder<double[]> splitBuilder;
     private int[] ranks;
     private double[][] transposedPoints;
     private double[][] points;
@@ -19,7 +18,7 @@ public class ENS_NDT_OneTree extends NonDominatedSorting {
         for (int d = 1; d < maximumDimension; ++d) {
             transposedPoints[d] = new double[maximumPoints];
         }
-        splitBuilder = new SplitBuilder(transposedPoints, maximumPoints, threshold);
+        splitBuilder = new SplitBuilder<>(ObjectiveHelper.DOUBLES, transposedPoints, maximumPoints, threshold);
         points = new double[maximumPoints][];
     }
 
@@ -40,10 +39,7 @@ public class ENS_NDT_OneTree extends NonDominatedSorting {
     protected void sortChecked(double[][] points, int[] ranks, int maximalMeaningfulRank) {
         int n = points.length;
         int dim = points[0].length;
-        ArrayHelper.fillIdentity(indices, n);
-        sorter.lexicographicalSort(points, indices, 0, n, dim);
-
-        int newN = ArraySorter.retainUniquePoints(points, indices, this.points, ranks);
+        int newN = sorter.sortAndRetainUniquePoints(points, indices, this.points, ranks);
         this.ranks[0] = 0;
 
         TreeRankNode tree = threshold == 1 ? TreeRankNode.EMPTY_1 : TreeRankNode.EMPTY;
@@ -1,19 +1,22 @@
 package ru.ifmo.nds.ndt;
 
 import ru.ifmo.nds.util.ArrayHelper;
+import ru.ifmo.nds.util.ObjectiveHelper;
 import ru.ifmo.nds.util.SplitMergeHelper;
 
-public class SplitBuilder {
-    private final double[] medianSwap;
+public class SplitBuilder<T> {
+    private final ObjectiveHelper<T> helper;
+    private final T medianSwap;
     private final int[] indices;
-    private final double[][] transposedPoints;
+    private final T[] transposedPoints;
     private final int threshold;
     private final SplitMergeHelper splitMerge;
     private final Split[] splits;
 
-    public SplitBuilder(double[][] transposedPoints, int size, int threshold) {
+    public SplitBuilder(ObjectiveHelper<T> helper, T[] transposedPoints, int size, int threshold) {
+        this.helper = helper;
         this.transposedPoints = transposedPoints;
-        this.medianSwap = new double[size];
+        this.medianSwap = helper.newArray(size);
         this.indices = new int[size];
         this.splitMerge = new SplitMergeHelper(size);
         this.splits = new Split[size];
@@ -23,33 +26,33 @@ public class SplitBuilder {
         this.threshold = threshold;
     }
 
-    private Split construct(int from, int until, int coordinate, int depth, int[] maxCoordinateNSplits) {
+    private Split construct(T[] points, int from, int until, int coordinate, int depth, int[] maxCoordinateNSplits) {
         if (from + threshold < until) {
             int nextCoordinate = coordinate + 1 == maxCoordinateNSplits[0] ? 1 : coordinate + 1;
-            double min = ArrayHelper.transplantAndReturnMinIfNotSameElseNaN(transposedPoints[coordinate], indices, from, until, medianSwap, from);
+            double min = helper.transplantAndReturnMinIfNotSameElseNaN(points[coordinate], indices, from, until, medianSwap, from);
             if (Double.isNaN(min)) {
                 if (depth == maxCoordinateNSplits[0]) {
                     // When all median values are equal for all remaining coordinates,
                     // we have no choice other to fail splitting
                     return Split.NULL_MAX_DEPTH;
                 } else {
-                    return construct(from, until, nextCoordinate, depth + 1, maxCoordinateNSplits);
+                    return construct(points, from, until, nextCoordinate, depth + 1, maxCoordinateNSplits);
                 }
             }
-            double median = ArrayHelper.destructiveMedian(medianSwap, from, until);
+            double median = helper.destructiveMedian(medianSwap, from, until);
             if (min == median) {
                 // It can be that median equals to everything from [0; n/2].
                 // This will make a "0 vs n" split and the subsequent stack overflow.
                 // To prevent this, we will increase the median slightly.
-                median = Math.nextUp(median);
+                median = helper.nextUp(median);
             }
-            int mid = splitMerge.splitInTwo(transposedPoints[coordinate], indices,
+            int mid = helper.splitInTwo(splitMerge, points[coordinate], indices,
                     from, from, until, median, false);
             Split rv = splits[maxCoordinateNSplits[1]];
             ++maxCoordinateNSplits[1];
             rv.initialize(coordinate, median,
-                    construct(from, mid, nextCoordinate, 0, maxCoordinateNSplits),
-                    construct(mid, until, nextCoordinate, 0, maxCoordinateNSplits));
+                    construct(points, from, mid, nextCoordinate, 0, maxCoordinateNSplits),
+                    construct(points, mid, until, nextCoordinate, 0, maxCoordinateNSplits));
             return rv;
         } else {
             return Split.NULL_POINTS;
@@ -58,11 +61,17 @@ public class SplitBuilder {
 
     public Split result(int nPoints, int dimension) {
         ArrayHelper.fillIdentity(indices, nPoints);
-        return construct(0, nPoints, 1, 0, new int[] { dimension, 0 });
+        return construct(transposedPoints, 0, nPoints, 1, 0, new int[] { dimension, 0 });
+    }
+
+    public Split result(T[] columns, int[] indices, int nPoints, int dimension) {
+        // Builds the splits right on the given columns, which are indexed by the given indices.
+        System.arraycopy(indices, 0, this.indices, 0, nPoints);
+        return construct(columns, 0, nPoints, 1, 0, new int[] { dimension, 0 });
     }
 
     public Split result(int from, int until, int[] indices, int dimension) {
         System.arraycopy(indices, from, this.indices, from, until - from);
-        return construct(from, until, 1, 0, new int[] { dimension, from });
+        return construct(transposedPoints, from, until, 1, 0, new int[] { dimension, from });
     }
 }
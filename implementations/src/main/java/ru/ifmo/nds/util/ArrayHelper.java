@@ -1,5 +1,7 @@
 package ru.ifmo.nds.util;
 
+import java.nio.DoubleBuffer;
+
 public final class ArrayHelper {
     private ArrayHelper() {}
 
@@ -18,6 +20,33 @@ public final class ArrayHelper {
         return true;
     }
 
+    public static boolean equal(final double[] coords, final int aOffset, final int bOffset, final int prefixLength) {
+        for (int i = 0; i < prefixLength; ++i) {
+            if (coords[aOffset + i] != coords[bOffset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean equal(final DoubleBuffer coords, final int aOffset, final int bOffset, final int prefixLength) {
+        for (int i = 0; i < prefixLength; ++i) {
+            if (coords.get(aOffset + i) != coords.get(bOffset + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean equalByColumns(final double[][] columns, final int a, final int b) {
+        for (double[] column : columns) {
+            if (column[a] != column[b]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static void fillIdentity(int[] array, int n) {
         for (int i = 0; i < n; ++i) {
             array[i] = i;
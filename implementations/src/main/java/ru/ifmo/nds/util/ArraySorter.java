@@ -1,18 +1,47 @@
 package ru.ifmo.nds.util;
 
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public final class ArraySorter {
     private final double[] scratch;
     private double[][] points = null;
+    private double[] flatPoints = null;
+    private int flatDimension = 0;
+    private double[][] columns = null;
+    private DoubleBuffer bufferPoints = null;
     private int[] indices = null;
-    private int coordinate = -1;
     private int maxCoordinate = -1;
 
+    private ForkJoinPool pool = null; // see setForkJoinPool
+
+    // Scratch for the radix sorts of integer keys, allocated on demand.
+    private int[] intKeys = null, intKeysSwap = null, indicesSwap = null, digitCounts = null;
+
+    // Scratch for the radix sorts of double keys, allocated on demand.
+    private long[] longKeys = null, longKeysSwap = null;
+    private int[] longDigitCounts = null;
+    private int radixSortThreshold = DEFAULT_RADIX_SORT_THRESHOLD;
+
+    // Whether duplicate points are collapsed by hashing before the lexicographical sort,
+    // and the scratch for that, allocated on demand.
+    private boolean collapsesDuplicates = false;
+    private int[] hashTable = null, representatives = null;
+
     private static final int INDICES_BY_VALUES_INSERTION_THRESHOLD = 47;
     private static final int INDICES_BY_VALUES_INSERTION_THRESHOLD_ENTRY = 160;
 
     private static final int INSERTION_LEX_SORT_THRESHOLD = 42;
+    private static final int PARALLEL_SORT_THRESHOLD = 8192;
+
+    private static final int LONG_DIGIT_BITS = 11;
+    private static final int LONG_DIGIT_MASK = (1 << LONG_DIGIT_BITS) - 1;
+
+    public static final int DEFAULT_RADIX_SORT_THRESHOLD = 512;
 
     public ArraySorter(int maximumPoints) {
         this.scratch = new double[maximumPoints];
@@ -66,16 +95,141 @@ public final class ArraySorter {
         }
     }
 
-    private void sortImpl(int from, int until) {
+    // Maps a double to a long, such that the unsigned order of longs is the order of doubles.
+    // Both zeros are mapped to the same key, as they are equal.
+    private static long toSortableBits(double value) {
+        long bits = Double.doubleToRawLongBits(value + 0.0);
+        return bits ^ ((bits >> 63) | Long.MIN_VALUE);
+    }
+
+    private static double fromSortableBits(long key) {
+        return Double.longBitsToDouble(key ^ ((~key >> 63) | Long.MIN_VALUE));
+    }
+
+    // The same as sortImplInside, but with the LSD radix sort over the bits of the values.
+    // Only the digits on which the values differ are sorted by, so only their counts are cleared,
+    // which also skips the high bits common to all the values. The counts are given by the caller,
+    // as the parallel tasks may sort disjoint ranges concurrently.
+    private void radixSortImplInside(int from, int until, int[] counts) {
+        long[] keys = longKeys;
+        long first = toSortableBits(scratch[from]);
+        long differing = 0;
         for (int i = from; i < until; ++i) {
-            scratch[i] = points[indices[i]][coordinate];
+            long key = toSortableBits(scratch[i]);
+            keys[i] = key;
+            differing |= key ^ first;
+        }
+
+        int[] indices = this.indices;
+        long[] srcKeys = keys, dstKeys = longKeysSwap;
+        int[] srcIndices = indices, dstIndices = indicesSwap;
+        for (int shift = 0; shift < Long.SIZE; shift += LONG_DIGIT_BITS) {
+            if (((differing >>> shift) & LONG_DIGIT_MASK) == 0) {
+                continue;
+            }
+            Arrays.fill(counts, 0);
+            for (int i = from; i < until; ++i) {
+                ++counts[(int) ((srcKeys[i] >>> shift) & LONG_DIGIT_MASK)];
+            }
+            for (int i = 0, sum = from; i <= LONG_DIGIT_MASK; ++i) {
+                int count = counts[i];
+                counts[i] = sum;
+                sum += count;
+            }
+            for (int i = from; i < until; ++i) {
+                long key = srcKeys[i];
+                int target = counts[(int) ((key >>> shift) & LONG_DIGIT_MASK)]++;
+                dstKeys[target] = key;
+                dstIndices[target] = srcIndices[i];
+            }
+            long[] tmpKeys = srcKeys;
+            srcKeys = dstKeys;
+            dstKeys = tmpKeys;
+            int[] tmpIndices = srcIndices;
+            srcIndices = dstIndices;
+            dstIndices = tmpIndices;
+        }
+        if (srcIndices != indices) {
+            System.arraycopy(srcIndices, from, indices, from, until - from);
+        }
+        for (int i = from; i < until; ++i) {
+            scratch[i] = fromSortableBits(srcKeys[i]);
         }
-        sortImplInside(from, until);
     }
 
-    private void lexSortImpl(int from, int until, int coordinate) {
-        this.coordinate = coordinate;
-        sortImpl(from, until);
+    private static int[] newDigitCounts() {
+        return new int[1 << LONG_DIGIT_BITS];
+    }
+
+    // Allocates the scratch of the radix sort before it can be used, possibly by the parallel tasks.
+    private void ensureLongRadixScratch(int from, int until) {
+        if (until - from >= radixSortThreshold && longKeys == null) {
+            int size = scratch.length;
+            longKeys = new long[size];
+            longKeysSwap = new long[size];
+            longDigitCounts = newDigitCounts();
+            if (indicesSwap == null) {
+                indicesSwap = new int[size];
+            }
+        }
+    }
+
+    private void sortSequentially(int from, int until, int[] digitCounts) {
+        if (until - from >= radixSortThreshold) {
+            radixSortImplInside(from, until, digitCounts);
+        } else {
+            sortImplInside(from, until);
+        }
+    }
+
+    // Sorts scratch[from, until) along with indices, using the pool if the range is large enough.
+    private void sortInside(int from, int until) {
+        ensureLongRadixScratch(from, until);
+        if (pool != null && until - from >= PARALLEL_SORT_THRESHOLD) {
+            pool.invoke(quickSortTask(from, until));
+        } else {
+            sortSequentially(from, until, longDigitCounts);
+        }
+    }
+
+    private void fillScratch(int from, int until, int coordinate) {
+        if (points != null) {
+            for (int i = from; i < until; ++i) {
+                scratch[i] = points[indices[i]][coordinate];
+            }
+        } else if (flatPoints != null) {
+            for (int i = from; i < until; ++i) {
+                scratch[i] = flatPoints[indices[i] * flatDimension + coordinate];
+            }
+        } else if (columns != null) {
+            double[] column = columns[coordinate];
+            for (int i = from; i < until; ++i) {
+                scratch[i] = column[indices[i]];
+            }
+        } else {
+            for (int i = from; i < until; ++i) {
+                scratch[i] = bufferPoints.get(indices[i] * flatDimension + coordinate);
+            }
+        }
+    }
+
+    private void sortImpl(int from, int until, int coordinate) {
+        fillScratch(from, until, coordinate);
+        sortInside(from, until);
+    }
+
+    private void lexSort(int from, int until) {
+        ensureLongRadixScratch(from, until);
+        if (pool != null && until - from >= PARALLEL_SORT_THRESHOLD) {
+            pool.invoke(lexSortTask(from, until, 0));
+        } else {
+            lexSortImpl(from, until, 0, longDigitCounts);
+        }
+    }
+
+    private void lexSortImpl(int from, int until, int coordinate, int[] digitCounts) {
+        fillScratch(from, until, coordinate);
+        sortSequentially(from, until, digitCounts);
 
         if (coordinate + 1 < maxCoordinate) {
             int last = from;
@@ -84,18 +238,76 @@ public final class ArraySorter {
                 double currX = scratch[i];
                 if (currX != lastX) {
                     if (last + 1 < i) {
-                        lexSortImpl(last, i, coordinate + 1);
+                        lexSortImpl(last, i, coordinate + 1, digitCounts);
                     }
                     last = i;
                     lastX = currX;
                 }
             }
             if (last + 1 < until) {
-                lexSortImpl(last, until, coordinate + 1);
+                lexSortImpl(last, until, coordinate + 1, digitCounts);
             }
         }
     }
 
+    // The parallel tasks work on disjoint ranges of scratch and indices, and only read the other fields,
+    // so each of them uses its own digit counts for the radix sort.
+    private RecursiveAction quickSortTask(int from, int until) {
+        return new RecursiveAction() {
+            @Override
+            protected void compute() {
+                if (until - from < PARALLEL_SORT_THRESHOLD) {
+                    sortSequentially(from, until, newDigitCounts());
+                } else {
+                    long pack = split(scratch, indices, from, until);
+                    int l = (int) (pack);
+                    int r = (int) (pack >> 32);
+                    invokeAll(quickSortTask(from, r + 1), quickSortTask(l, until));
+                }
+            }
+        };
+    }
+
+    private RecursiveAction lexSortTask(int from, int until, int coordinate) {
+        return new RecursiveAction() {
+            @Override
+            protected void compute() {
+                int[] digitCounts = newDigitCounts();
+                if (until - from < PARALLEL_SORT_THRESHOLD) {
+                    lexSortImpl(from, until, coordinate, digitCounts);
+                    return;
+                }
+                fillScratch(from, until, coordinate);
+                quickSortTask(from, until).invoke();
+
+                if (coordinate + 1 < maxCoordinate) {
+                    // Large runs of equal values are forked, small ones are sorted by this thread meanwhile.
+                    List<RecursiveAction> forked = new ArrayList<>();
+                    int last = from;
+                    double lastX = scratch[from];
+                    for (int i = from + 1; i <= until; ++i) {
+                        if (i == until || scratch[i] != lastX) {
+                            if (i - last >= PARALLEL_SORT_THRESHOLD) {
+                                RecursiveAction task = lexSortTask(last, i, coordinate + 1);
+                                task.fork();
+                                forked.add(task);
+                            } else if (last + 1 < i) {
+                                lexSortImpl(last, i, coordinate + 1, digitCounts);
+                            }
+                            if (i < until) {
+                                last = i;
+                                lastX = scratch[i];
+                            }
+                        }
+                    }
+                    for (RecursiveAction task : forked) {
+                        task.join();
+                    }
+                }
+            }
+        };
+    }
+
     private void checkSize(int from, int until) {
         if (until > scratch.length) {
             throw new IllegalArgumentException("The internal scratch array length is " + scratch.length
@@ -111,7 +323,7 @@ public final class ArraySorter {
             indices[i] = i;
         }
         this.indices = indices;
-        sortImplInside(from, until);
+        sortInside(from, until);
         this.indices = null;
 
         double prev = Double.NaN;
@@ -130,13 +342,24 @@ public final class ArraySorter {
         checkSize(from, until);
         this.points = points;
         this.indices = indices;
-        this.coordinate = whichCoordinate;
 
-        sortImpl(from, until);
+        sortImpl(from, until, whichCoordinate);
 
         this.points = null;
         this.indices = null;
-        this.coordinate = -1;
+    }
+
+    public void sort(double[] coords, int dimension, int[] indices, int from, int until, int whichCoordinate) {
+        checkSize(from, until);
+        this.flatPoints = coords;
+        this.flatDimension = dimension;
+        this.indices = indices;
+
+        sortImpl(from, until, whichCoordinate);
+
+        this.flatPoints = null;
+        this.flatDimension = 0;
+        this.indices = null;
     }
 
     public void lexicographicalSort(double[][] points, int[] indices, int from, int until, int maxCoordinate) {
@@ -145,15 +368,30 @@ public final class ArraySorter {
         this.indices = indices;
         this.maxCoordinate = maxCoordinate;
 
-        lexSortImpl(from, until, 0);
+        lexSort(from, until);
 
         this.points = null;
         this.indices = null;
         this.maxCoordinate = -1;
     }
 
-    private void sortComparingByIndicesIfEqualImpl(int from, int until) {
-        sortImpl(from, until);
+    public void lexicographicalSort(double[] coords, int dimension, int[] indices, int from, int until, int maxCoordinate) {
+        checkSize(from, until);
+        this.flatPoints = coords;
+        this.flatDimension = dimension;
+        this.indices = indices;
+        this.maxCoordinate = maxCoordinate;
+
+        lexSort(from, until);
+
+        this.flatPoints = null;
+        this.flatDimension = 0;
+        this.indices = null;
+        this.maxCoordinate = -1;
+    }
+
+    private void sortComparingByIndicesIfEqualImpl(int from, int until, int coordinate) {
+        sortImpl(from, until, coordinate);
 
         // after sortImpl, scratch[i] == points[indices[i]][coordinate]
 
@@ -179,13 +417,274 @@ public final class ArraySorter {
 
         this.points = points;
         this.indices = indices;
-        this.coordinate = coordinate;
 
-        sortComparingByIndicesIfEqualImpl(from, until);
+        sortComparingByIndicesIfEqualImpl(from, until, coordinate);
 
         this.points = null;
         this.indices = null;
-        this.coordinate = -1;
+    }
+
+    public void sort(DoubleBuffer coords, int dimension, int[] indices, int from, int until, int whichCoordinate) {
+        checkSize(from, until);
+        this.bufferPoints = coords;
+        this.flatDimension = dimension;
+        this.indices = indices;
+
+        sortImpl(from, until, whichCoordinate);
+
+        this.bufferPoints = null;
+        this.flatDimension = 0;
+        this.indices = null;
+    }
+
+    public void lexicographicalSort(DoubleBuffer coords, int dimension, int[] indices, int from, int until, int maxCoordinate) {
+        checkSize(from, until);
+        this.bufferPoints = coords;
+        this.flatDimension = dimension;
+        this.indices = indices;
+        this.maxCoordinate = maxCoordinate;
+
+        lexSort(from, until);
+
+        this.bufferPoints = null;
+        this.flatDimension = 0;
+        this.indices = null;
+        this.maxCoordinate = -1;
+    }
+
+    public void lexicographicalSortByColumns(double[][] columns, int[] indices, int from, int until, int maxCoordinate) {
+        checkSize(from, until);
+        this.columns = columns;
+        this.indices = indices;
+        this.maxCoordinate = maxCoordinate;
+
+        lexSort(from, until);
+
+        this.columns = null;
+        this.indices = null;
+        this.maxCoordinate = -1;
+    }
+
+    public void sortByValues(double[] values, int[] indices, int from, int until) {
+        checkSize(from, until);
+        for (int i = from; i < until; ++i) {
+            scratch[i] = values[indices[i]];
+        }
+        this.indices = indices;
+        sortInside(from, until);
+        this.indices = null;
+    }
+
+    public void sortComparingByIndicesIfEqual(double[] coords, int dimension, int[] indices,
+                                              int from, int until, int coordinate) {
+        checkSize(from, until);
+
+        this.flatPoints = coords;
+        this.flatDimension = dimension;
+        this.indices = indices;
+
+        sortComparingByIndicesIfEqualImpl(from, until, coordinate);
+
+        this.flatPoints = null;
+        this.flatDimension = 0;
+        this.indices = null;
+    }
+
+    private void ensureRadixScratch() {
+        if (intKeys == null) {
+            int size = scratch.length;
+            intKeys = new int[size];
+            intKeysSwap = new int[size];
+            indicesSwap = new int[size];
+        }
+    }
+
+    // Stably sorts indices[from, until) by intKeys[from, until), which are permuted along with the indices.
+    // If the keys span a small range, this is a single counting sort pass, otherwise the digits are scanned
+    // from the least significant one, and the digit size grows with the number of keys.
+    private void radixSort(int[] indices, int from, int until) {
+        int[] keys = intKeys;
+        int min = keys[from], max = min;
+        for (int i = from + 1; i < until; ++i) {
+            int key = keys[i];
+            if (key < min) {
+                min = key;
+            } else if (key > max) {
+                max = key;
+            }
+        }
+        long range = (long) max - min;
+        if (range == 0) {
+            return;
+        }
+        int bitsNeeded = 64 - Long.numberOfLeadingZeros(range);
+        int digitBits = Math.min(bitsNeeded, Math.max(8, Math.min(16, 32 - Integer.numberOfLeadingZeros(until - from))));
+        int digitMask = (1 << digitBits) - 1;
+        if (digitCounts == null || digitCounts.length <= digitMask + 1) {
+            digitCounts = new int[Math.max(digitMask + 2, 257)];
+        }
+        int[] counts = digitCounts;
+        int[] srcKeys = keys, srcIndices = indices, dstKeys = intKeysSwap, dstIndices = indicesSwap;
+        for (int shift = 0; shift < bitsNeeded; shift += digitBits) {
+            Arrays.fill(counts, 0, digitMask + 2, 0);
+            for (int i = from; i < until; ++i) {
+                ++counts[(((srcKeys[i] - min) >>> shift) & digitMask) + 1];
+            }
+            counts[0] = from;
+            for (int d = 1; d <= digitMask; ++d) {
+                counts[d] += counts[d - 1];
+            }
+            for (int i = from; i < until; ++i) {
+                int key = srcKeys[i];
+                int target = counts[((key - min) >>> shift) & digitMask]++;
+                dstKeys[target] = key;
+                dstIndices[target] = srcIndices[i];
+            }
+            int[] tmp = srcKeys;
+            srcKeys = dstKeys;
+            dstKeys = tmp;
+            tmp = srcIndices;
+            srcIndices = dstIndices;
+            dstIndices = tmp;
+        }
+        if (srcIndices != indices) {
+            System.arraycopy(srcIndices, from, indices, from, until - from);
+            System.arraycopy(srcKeys, from, keys, from, until - from);
+        }
+    }
+
+    public void sort(int[][] points, int[] indices, int from, int until, int whichCoordinate) {
+        checkSize(from, until);
+        ensureRadixScratch();
+        for (int i = from; i < until; ++i) {
+            intKeys[i] = points[indices[i]][whichCoordinate];
+        }
+        radixSort(indices, from, until);
+    }
+
+    public void lexicographicalSort(int[][] points, int[] indices, int from, int until, int maxCoordinate) {
+        // The radix sort is stable, so sorting by the coordinates from the last one gives the lexicographical order.
+        checkSize(from, until);
+        ensureRadixScratch();
+        for (int c = maxCoordinate - 1; c >= 0; --c) {
+            for (int i = from; i < until; ++i) {
+                intKeys[i] = points[indices[i]][c];
+            }
+            radixSort(indices, from, until);
+        }
+    }
+
+    public void compressCoordinates(int[] original, int[] indices, int[] target, int from, int until) {
+        checkSize(from, until);
+        ensureRadixScratch();
+        System.arraycopy(original, from, intKeys, from, until - from);
+        for (int i = from; i < until; ++i) {
+            indices[i] = i;
+        }
+        radixSort(indices, from, until);
+
+        for (int i = from, x = -1; i < until; ++i) {
+            if (i == from || intKeys[i] != intKeys[i - 1]) {
+                ++x;
+            }
+            target[indices[i]] = x;
+        }
+    }
+
+    public void setDuplicateCollapsing(boolean collapsesDuplicates) {
+        this.collapsesDuplicates = collapsesDuplicates;
+    }
+
+    public boolean isDuplicateCollapsing() {
+        return collapsesDuplicates;
+    }
+
+    // Makes the sorts of double coordinates run in the given pool when they are large enough,
+    // or only in the calling thread if the pool is null. The pool is not shut down by this sorter.
+    public void setForkJoinPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // Makes the sequential sorts of double coordinates use the radix sort instead of the quicksort
+    // for ranges of at least the given size. Integer.MAX_VALUE disables the radix sort.
+    public void setRadixSortThreshold(int radixSortThreshold) {
+        this.radixSortThreshold = Math.max(2, radixSortThreshold);
+    }
+
+    public int getRadixSortThreshold() {
+        return radixSortThreshold;
+    }
+
+    // Sorts all the points lexicographically and does the same as retainUniquePoints.
+    // If duplicate collapsing is enabled, the duplicates are found by hashing first, so that only distinct points are sorted.
+    public int sortAndRetainUniquePoints(double[][] points, int[] indices, double[][] targetPoints, int[] reindex) {
+        int n = points.length;
+        int dim = points[0].length;
+        if (!collapsesDuplicates) {
+            ArrayHelper.fillIdentity(indices, n);
+            lexicographicalSort(points, indices, 0, n, dim);
+            return retainUniquePoints(points, indices, targetPoints, reindex);
+        }
+
+        int newN = collapseDuplicates(points, n, dim, indices);
+        lexicographicalSort(points, indices, 0, newN, dim);
+        for (int i = 0; i < newN; ++i) {
+            int ii = indices[i];
+            targetPoints[i] = points[ii];
+            reindex[ii] = i;
+        }
+        for (int i = 0; i < n; ++i) {
+            int representative = representatives[i];
+            if (representative != i) {
+                reindex[i] = reindex[representative];
+            }
+        }
+        return newN;
+    }
+
+    // Writes the indices of the first occurrences of distinct points to the beginning of indices,
+    // and sets representatives[i] to the index of the first occurrence of the point i.
+    private int collapseDuplicates(double[][] points, int n, int dim, int[] indices) {
+        int capacity = Integer.highestOneBit(Math.max(1, n - 1)) << 2;
+        if (hashTable == null || hashTable.length < capacity) {
+            hashTable = new int[capacity];
+        }
+        if (representatives == null) {
+            representatives = new int[scratch.length];
+        }
+        int mask = capacity - 1;
+        Arrays.fill(hashTable, 0, capacity, -1);
+        int newN = 0;
+        for (int i = 0; i < n; ++i) {
+            double[] point = points[i];
+            int slot = hash(point, dim) & mask;
+            int existing;
+            while ((existing = hashTable[slot]) >= 0 && !ArrayHelper.equal(points[existing], point, dim)) {
+                slot = (slot + 1) & mask;
+            }
+            if (existing < 0) {
+                hashTable[slot] = i;
+                representatives[i] = i;
+                indices[newN++] = i;
+            } else {
+                representatives[i] = existing;
+            }
+        }
+        return newN;
+    }
+
+    private static int hash(double[] point, int dim) {
+        long hash = 0;
+        for (int i = 0; i < dim; ++i) {
+            double value = point[i];
+            // Positive and negative zeros are equal, so they must have equal hashes.
+            hash = hash * 0x9E3779B97F4A7C15L + (value == 0 ? 0 : Double.doubleToRawLongBits(value));
+        }
+        // The final mixing of MurmurHash3, as the varying bits of small numbers are the high ones.
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        return (int) hash;
     }
 
     public static int retainUniquePoints(double[][] sourcePoints, int[] sortedIndices, double[][] targetPoints, int[] reindex) {
@@ -209,6 +708,79 @@ public final class ArraySorter {
         return newN;
     }
 
+    // Compacts the first occurrences of distinct points to the beginning of sortedIndices,
+    // and sets reindex[i] to the position of the point i among these distinct points.
+    public static int retainUniquePoints(double[] coords, int n, int dimension, int[] sortedIndices, int[] reindex) {
+        int newN = 1;
+        int lastII = sortedIndices[0];
+        int lastOffset = lastII * dimension;
+        reindex[lastII] = 0;
+        for (int i = 1; i < n; ++i) {
+            int currII = sortedIndices[i];
+            int currOffset = currII * dimension;
+            if (!ArrayHelper.equal(coords, lastOffset, currOffset, dimension)) {
+                sortedIndices[newN] = currII;
+                lastOffset = currOffset;
+                ++newN;
+            }
+            reindex[currII] = newN - 1;
+        }
+        return newN;
+    }
+
+    // Same as above, but the points are stored in a buffer.
+    public static int retainUniquePoints(DoubleBuffer coords, int n, int dimension, int[] sortedIndices, int[] reindex) {
+        int newN = 1;
+        int lastII = sortedIndices[0];
+        int lastOffset = lastII * dimension;
+        reindex[lastII] = 0;
+        for (int i = 1; i < n; ++i) {
+            int currII = sortedIndices[i];
+            int currOffset = currII * dimension;
+            if (!ArrayHelper.equal(coords, lastOffset, currOffset, dimension)) {
+                sortedIndices[newN] = currII;
+                lastOffset = currOffset;
+                ++newN;
+            }
+            reindex[currII] = newN - 1;
+        }
+        return newN;
+    }
+
+    // Same as above, but the points are stored as columns, one array per coordinate.
+    public static int retainUniquePointsByColumns(double[][] columns, int n, int[] sortedIndices, int[] reindex) {
+        int newN = 1;
+        int lastII = sortedIndices[0];
+        reindex[lastII] = 0;
+        for (int i = 1; i < n; ++i) {
+            int currII = sortedIndices[i];
+            if (!ArrayHelper.equalByColumns(columns, lastII, currII)) {
+                sortedIndices[newN] = currII;
+                lastII = currII;
+                ++newN;
+            }
+            reindex[currII] = newN - 1;
+        }
+        return newN;
+    }
+
+    // Same as above, but the points have integer coordinates.
+    public static int retainUniquePoints(int[][] points, int n, int[] sortedIndices, int[] reindex) {
+        int newN = 1;
+        int lastII = sortedIndices[0];
+        reindex[lastII] = 0;
+        for (int i = 1; i < n; ++i) {
+            int currII = sortedIndices[i];
+            if (!Arrays.equals(points[lastII], points[currII])) {
+                sortedIndices[newN] = currII;
+                lastII = currII;
+                ++newN;
+            }
+            reindex[currII] = newN - 1;
+        }
+        return newN;
+    }
+
     private static long splitIndicesByRanks(int[] indices, int[] values, int from, int until) {
         int left = from, right = until - 1;
         int pivot = values[indices[(from + until) >>> 1]];
@@ -0,0 +1,186 @@
+package ru.ifmo.nds.util;
+
+import java.util.Arrays;
+
+/**
+ * Computes the crowding distance of NSGA-II from the orderings of distinct points by each objective,
+ * so that an algorithm which already has such orderings does not need to sort the points again.
+ *
+ * Within each front, the points are ordered by the objective, then by their lexicographical order,
+ * then by their indices. The first and the last points of each front in this order get the infinite distance.
+ */
+public final class CrowdingDistance {
+    private final int[] groupStart;
+    private final int[] groupMembers;
+    private final int[] uniqueRanks;
+    private final int[] reindex;
+    private final int[] order;
+    private final double[][] uniquePoints;
+    private final int[] lastInFront;
+    private final double[] firstValue;
+    private final double[] lastValue;
+    private final double[] beforeLastValue;
+    private final double[] increments;
+
+    private int[] currentRanks;
+    private double[] distances;
+    private int newN;
+    private int nFronts;
+
+    public CrowdingDistance(int maximumPoints) {
+        groupStart = new int[maximumPoints + 1];
+        groupMembers = new int[maximumPoints];
+        uniqueRanks = new int[maximumPoints];
+        reindex = new int[maximumPoints];
+        order = new int[maximumPoints];
+        uniquePoints = new double[maximumPoints][];
+        lastInFront = new int[maximumPoints];
+        firstValue = new double[maximumPoints];
+        lastValue = new double[maximumPoints];
+        beforeLastValue = new double[maximumPoints];
+        increments = new double[maximumPoints];
+    }
+
+    /**
+     * Computes the crowding distance of the points which are already sorted, ordering them by every objective.
+     *
+     * @param points the points.
+     * @param ranks the ranks of the points.
+     * @param distances the array to be filled with crowding distances.
+     * @param sorter the sorter to be used.
+     * @param indices the scratch array of length at least {@code points.length}.
+     */
+    public void compute(double[][] points, int[] ranks, double[] distances, ArraySorter sorter, int[] indices) {
+        int n = points.length;
+        int dim = points[0].length;
+        int newN = sorter.sortAndRetainUniquePoints(points, indices, uniquePoints, reindex);
+        for (int i = 0; i < n; ++i) {
+            uniqueRanks[reindex[i]] = ranks[i];
+        }
+        for (int i = 0; i < n; ++i) {
+            if (uniqueRanks[reindex[i]] != ranks[i]) {
+                // Equal points have different ranks, as it happens with the weak dominance, so they are kept apart.
+                newN = keepEqualPointsApart(points, ranks, sorter, indices);
+                break;
+            }
+        }
+        initialize(reindex, n, newN, uniqueRanks, distances);
+        for (int obj = 0; obj < dim; ++obj) {
+            ArrayHelper.fillIdentity(order, newN);
+            if (obj > 0) {
+                sorter.sortComparingByIndicesIfEqual(uniquePoints, order, 0, newN, obj);
+            }
+            addObjective(uniquePoints, order, obj);
+        }
+        Arrays.fill(uniquePoints, 0, newN, null);
+        finish();
+    }
+
+    private int keepEqualPointsApart(double[][] points, int[] ranks, ArraySorter sorter, int[] indices) {
+        int n = points.length;
+        int dim = points[0].length;
+        ArrayHelper.fillIdentity(indices, n);
+        sorter.lexicographicalSort(points, indices, 0, n, dim);
+        for (int last = 0, i = 1; i <= n; ++i) {
+            if (i == n || !ArrayHelper.equal(points[indices[last]], points[indices[i]], dim)) {
+                Arrays.sort(indices, last, i);
+                last = i;
+            }
+        }
+        for (int k = 0; k < n; ++k) {
+            int i = indices[k];
+            uniquePoints[k] = points[i];
+            uniqueRanks[k] = ranks[i];
+            reindex[i] = k;
+        }
+        return n;
+    }
+
+    /**
+     * Starts the computation of the crowding distance.
+     *
+     * @param reindex for every point, the index of the distinct point equal to it,
+     *                where the distinct points are numbered in their lexicographical order.
+     * @param n the number of points.
+     * @param newN the number of distinct points.
+     * @param ranks the ranks of the distinct points.
+     * @param distances the array to be filled with crowding distances.
+     */
+    public void initialize(int[] reindex, int n, int newN, int[] ranks, double[] distances) {
+        this.newN = newN;
+        this.currentRanks = ranks;
+        this.distances = distances;
+
+        // The points equal to every distinct point, in the increasing order of indices.
+        Arrays.fill(groupStart, 0, newN + 1, 0);
+        for (int i = 0; i < n; ++i) {
+            ++groupStart[reindex[i] + 1];
+        }
+        for (int u = 0; u < newN; ++u) {
+            groupStart[u + 1] += groupStart[u];
+        }
+        for (int i = 0; i < n; ++i) {
+            groupMembers[groupStart[reindex[i]]++] = i;
+        }
+        System.arraycopy(groupStart, 0, groupStart, 1, newN);
+        groupStart[0] = 0;
+
+        nFronts = 0;
+        for (int u = 0; u < newN; ++u) {
+            nFronts = Math.max(nFronts, ranks[u] + 1);
+        }
+        Arrays.fill(distances, 0, n, 0);
+    }
+
+    /**
+     * Adds the contribution of one objective to the crowding distance.
+     *
+     * @param points the distinct points.
+     * @param order the indices of the distinct points, sorted by the objective, and by the index when equal.
+     * @param objective the objective.
+     */
+    public void addObjective(double[][] points, int[] order, int objective) {
+        Arrays.fill(lastInFront, 0, nFronts, -1);
+        for (int k = 0; k < newN; ++k) {
+            int u = order[k];
+            double value = points[u][objective];
+            int rank = currentRanks[u];
+            for (int g = groupStart[u], gMax = groupStart[u + 1]; g < gMax; ++g) {
+                int i = groupMembers[g];
+                int prev = lastInFront[rank];
+                if (prev < 0) {
+                    firstValue[rank] = value;
+                    beforeLastValue[rank] = value;
+                    distances[i] = Double.POSITIVE_INFINITY;
+                } else {
+                    increments[prev] = value - beforeLastValue[rank];
+                    beforeLastValue[rank] = lastValue[rank];
+                }
+                increments[i] = 0;
+                lastInFront[rank] = i;
+                lastValue[rank] = value;
+            }
+        }
+        for (int u = 0; u < newN; ++u) {
+            int rank = currentRanks[u];
+            double range = lastValue[rank] - firstValue[rank];
+            if (range > 0) {
+                for (int g = groupStart[u], gMax = groupStart[u + 1]; g < gMax; ++g) {
+                    int i = groupMembers[g];
+                    distances[i] += increments[i] / range;
+                }
+            }
+        }
+        for (int rank = 0; rank < nFronts; ++rank) {
+            distances[lastInFront[rank]] = Double.POSITIVE_INFINITY;
+        }
+    }
+
+    /**
+     * Finishes the computation of the crowding distance.
+     */
+    public void finish() {
+        currentRanks = null;
+        distances = null;
+    }
+}
@@ -27,6 +27,26 @@ public final class DominanceHelper {
         return true;
     }
 
+    public static boolean strictlyDominatesAssumingLexicographicallySmaller(double[] coords, int goodOffset, int weakOffset, int maxObj) {
+        // Same as above, but the points are stored in a single row-major array.
+        for (int i = maxObj; i > 0; --i) {
+            if (coords[goodOffset + i] > coords[weakOffset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean strictlyDominatesAssumingLexicographicallySmaller(int[] goodPoint, int[] weakPoint, int maxObj) {
+        // Same as above, but the points have integer coordinates.
+        for (int i = maxObj; i > 0; --i) {
+            if (goodPoint[i] > weakPoint[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static boolean strictlyDominatesAssumingNotEqual(double[] goodPoint, double[] weakPoint, int maxObj) {
         for (int i = maxObj; i >= 0; --i) {
             if (goodPoint[i] > weakPoint[i]) {
@@ -0,0 +1,271 @@
+package ru.ifmo.nds.util;
+
+/**
+ * Performs the operations which the divide-and-conquer algorithms need on the arrays holding one objective
+ * of all the points, so that these algorithms can keep the objectives in either double or single precision.
+ *
+ * The values are passed around as doubles, which represent the single-precision values exactly.
+ *
+ * @param <T> the type of the arrays, either {@code double[]} or {@code float[]}.
+ */
+public abstract class ObjectiveHelper<T> {
+    public static final ObjectiveHelper<double[]> DOUBLES = new Doubles();
+    public static final ObjectiveHelper<float[]> FLOATS = new Floats();
+
+    private ObjectiveHelper() {}
+
+    public abstract T newArray(int size);
+    public abstract T[] newArrays(int count);
+    public abstract double get(T array, int index);
+
+    /**
+     * Stores the value in the array and returns whether it is stored exactly.
+     */
+    public abstract boolean set(T array, int index, double value);
+
+    /**
+     * Returns the smallest value greater than the given one which can be stored in the arrays.
+     */
+    public abstract double nextUp(double value);
+
+    public abstract double destructiveMedian(T array, int from, int until);
+
+    public abstract boolean transplantAndCheckIfSame(T source, int[] indices, int from, int until,
+                                                     T target, int targetFrom);
+
+    public abstract int transplantAndDecide(T source, int[] indices,
+                                            int leftFrom, int leftUntil, int rightFrom, int rightUntil,
+                                            T target, int targetFrom);
+
+    public abstract double transplantAndReturnMinIfNotSameElseNaN(T source, int[] indices, int from, int until,
+                                                                  T target, int targetFrom);
+
+    public abstract int splitInTwo(SplitMergeHelper splitMerge, T points, int[] indices,
+                                   int tempFrom, int from, int until, double median, boolean equalToLeft);
+
+    public abstract long splitInThree(SplitMergeHelper splitMerge, T points, int[] indices,
+                                      int tempFrom, int from, int until, double median);
+
+    private static final class Doubles extends ObjectiveHelper<double[]> {
+        @Override
+        public double[] newArray(int size) {
+            return new double[size];
+        }
+
+        @Override
+        public double[][] newArrays(int count) {
+            return new double[count][];
+        }
+
+        @Override
+        public double get(double[] array, int index) {
+            return array[index];
+        }
+
+        @Override
+        public boolean set(double[] array, int index, double value) {
+            array[index] = value;
+            return true;
+        }
+
+        @Override
+        public double nextUp(double value) {
+            return Math.nextUp(value);
+        }
+
+        @Override
+        public double destructiveMedian(double[] array, int from, int until) {
+            return ArrayHelper.destructiveMedian(array, from, until);
+        }
+
+        @Override
+        public boolean transplantAndCheckIfSame(double[] source, int[] indices, int from, int until,
+                                                double[] target, int targetFrom) {
+            return ArrayHelper.transplantAndCheckIfSame(source, indices, from, until, target, targetFrom);
+        }
+
+        @Override
+        public int transplantAndDecide(double[] source, int[] indices,
+                                       int leftFrom, int leftUntil, int rightFrom, int rightUntil,
+                                       double[] target, int targetFrom) {
+            return ArrayHelper.transplantAndDecide(source, indices,
+                    leftFrom, leftUntil, rightFrom, rightUntil, target, targetFrom);
+        }
+
+        @Override
+        public double transplantAndReturnMinIfNotSameElseNaN(double[] source, int[] indices, int from, int until,
+                                                             double[] target, int targetFrom) {
+            return ArrayHelper.transplantAndReturnMinIfNotSameElseNaN(source, indices, from, until, target, targetFrom);
+        }
+
+        @Override
+        public int splitInTwo(SplitMergeHelper splitMerge, double[] points, int[] indices,
+                              int tempFrom, int from, int until, double median, boolean equalToLeft) {
+            return splitMerge.splitInTwo(points, indices, tempFrom, from, until, median, equalToLeft);
+        }
+
+        @Override
+        public long splitInThree(SplitMergeHelper splitMerge, double[] points, int[] indices,
+                                 int tempFrom, int from, int until, double median) {
+            return splitMerge.splitInThree(points, indices, tempFrom, from, until, median);
+        }
+    }
+
+    private static final class Floats extends ObjectiveHelper<float[]> {
+        @Override
+        public float[] newArray(int size) {
+            return new float[size];
+        }
+
+        @Override
+        public float[][] newArrays(int count) {
+            return new float[count][];
+        }
+
+        @Override
+        public double get(float[] array, int index) {
+            return array[index];
+        }
+
+        @Override
+        public boolean set(float[] array, int index, double value) {
+            float floatValue = (float) value;
+            array[index] = floatValue;
+            return floatValue == value;
+        }
+
+        @Override
+        public double nextUp(double value) {
+            return Math.nextUp((float) value);
+        }
+
+        @Override
+        public double destructiveMedian(float[] array, int from, int until) {
+            int index = (from + until) >>> 1;
+            int to = until - 1;
+            while (from < to) {
+                float pivot = array[(from + to) >>> 1];
+                if (from + 4 < to) {
+                    // Averaging in double precision, as sums of large floats may overflow.
+                    pivot = (float) ((pivot + ((double) array[from] + array[to]) / 2) / 2);
+                }
+                float vl, vr;
+                int l = from, r = to;
+                do {
+                    while ((vl = array[l]) < pivot) ++l;
+                    while ((vr = array[r]) > pivot) --r;
+                    if (l <= r) {
+                        array[l] = vr;
+                        array[r] = vl;
+                        ++l;
+                        --r;
+                    }
+                } while (l <= r);
+                if (index < r) {
+                    to = r;
+                } else if (l < index) {
+                    from = l;
+                } else if (r == index) {
+                    // The median is the maximum of the left part.
+                    float rv = array[from];
+                    for (int i = from + 1; i <= r; ++i) {
+                        if (rv < array[i]) {
+                            rv = array[i];
+                        }
+                    }
+                    return rv;
+                } else if (l == index) {
+                    // The median is the minimum of the right part.
+                    float rv = array[l];
+                    for (int i = l + 1; i <= to; ++i) {
+                        if (rv > array[i]) {
+                            rv = array[i];
+                        }
+                    }
+                    return rv;
+                } else {
+                    return array[index];
+                }
+            }
+            return array[index];
+        }
+
+        @Override
+        public boolean transplantAndCheckIfSame(float[] source, int[] indices, int from, int until,
+                                                float[] target, int targetFrom) {
+            float first = source[indices[from]];
+            boolean same = true;
+            for (int i = from; i < until; ++i, ++targetFrom) {
+                float value = source[indices[i]];
+                target[targetFrom] = value;
+                same &= value == first;
+            }
+            return same;
+        }
+
+        @Override
+        public int transplantAndDecide(float[] source, int[] indices,
+                                       int leftFrom, int leftUntil, int rightFrom, int rightUntil,
+                                       float[] target, int targetFrom) {
+            // Unlike the double-precision version, both parts are scanned in full, which keeps the code simple.
+            float leftMin = Float.POSITIVE_INFINITY, leftMax = Float.NEGATIVE_INFINITY;
+            for (int i = leftFrom; i < leftUntil; ++i, ++targetFrom) {
+                float value = source[indices[i]];
+                target[targetFrom] = value;
+                if (leftMin > value) {
+                    leftMin = value;
+                }
+                if (leftMax < value) {
+                    leftMax = value;
+                }
+            }
+            float rightMin = Float.POSITIVE_INFINITY, rightMax = Float.NEGATIVE_INFINITY;
+            for (int i = rightFrom; i < rightUntil; ++i, ++targetFrom) {
+                float value = source[indices[i]];
+                target[targetFrom] = value;
+                if (rightMin > value) {
+                    rightMin = value;
+                }
+                if (rightMax < value) {
+                    rightMax = value;
+                }
+            }
+            if (leftMax <= rightMin) {
+                return ArrayHelper.TRANSPLANT_LEFT_NOT_GREATER;
+            } else if (rightMax < leftMin) {
+                return ArrayHelper.TRANSPLANT_RIGHT_SMALLER;
+            } else {
+                return ArrayHelper.TRANSPLANT_GENERAL_CASE;
+            }
+        }
+
+        @Override
+        public double transplantAndReturnMinIfNotSameElseNaN(float[] source, int[] indices, int from, int until,
+                                                             float[] target, int targetFrom) {
+            float first = source[indices[from]];
+            float min = first;
+            boolean same = true;
+            for (int i = from; i < until; ++i, ++targetFrom) {
+                float value = source[indices[i]];
+                target[targetFrom] = value;
+                same &= value == first;
+                if (min > value) {
+                    min = value;
+                }
+            }
+            return same ? Double.NaN : min;
+        }
+
+        @Override
+        public int splitInTwo(SplitMergeHelper splitMerge, float[] points, int[] indices,
+                              int tempFrom, int from, int until, double median, boolean equalToLeft) {
+            return splitMerge.splitInTwo(points, indices, tempFrom, from, until, (float) median, equalToLeft);
+        }
+
+        @Override
+        public long splitInThree(SplitMergeHelper splitMerge, float[] points, int[] indices,
+                                 int tempFrom, int from, int until, double median) {
+            return splitMerge.splitInThree(points, indices, tempFrom, from, until, (float) median);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ru.ifmo.nds.util;
+
+import java.util.Arrays;
+
+/**
+ * Tracks the sizes of fronts while points are being ranked, and maintains the smallest rank limit
+ * such that the fronts up to this limit cover at least the given number of points.
+ *
+ * As the sizes of fronts only grow, the limit only decreases, so the points above the current limit
+ * do not need to be ranked precisely.
+ */
+public final class RankLimitByCount {
+    private final int[] frontSizes;
+    private int count;
+    private int limit;
+    private int covered;
+
+    public RankLimitByCount(int maximumPoints) {
+        frontSizes = new int[maximumPoints];
+    }
+
+    public void reset(int count, int limit) {
+        this.count = count;
+        this.limit = limit;
+        this.covered = 0;
+        Arrays.fill(frontSizes, 0, limit + 1, 0);
+    }
+
+    public int add(int rank, int weight) {
+        if (rank <= limit) {
+            frontSizes[rank] += weight;
+            covered += weight;
+            while (covered - frontSizes[limit] >= count) {
+                covered -= frontSizes[limit];
+                --limit;
+            }
+        }
+        return limit;
+    }
+}
@@ -0,0 +1,84 @@
+package ru.ifmo.nds.util;
+
+import java.util.Arrays;
+
+/**
+ * Finds the non-dominated points using the sort-filter-skyline approach:
+ * the points are sorted by the sums of their coordinates, so that every point comes after all points which dominate it,
+ * and each point is compared only to the current window of non-dominated points.
+ *
+ * This is fast when the first front is small, so the filter gives up as soon as the window grows above its limit.
+ */
+public final class SkylineFilter {
+    private final double[] sums;
+    private final int[] window;
+
+    public SkylineFilter(int maximumPoints, int windowLimit) {
+        sums = new double[maximumPoints];
+        window = new int[windowLimit];
+    }
+
+    /**
+     * Writes the indices of the non-dominated points to {@code result}, in the increasing order.
+     *
+     * @param points the points.
+     * @param n the number of points.
+     * @param dim the number of objectives to consider.
+     * @param order the scratch array of length at least {@code n}.
+     * @param sorter the sorter to be used.
+     * @param result the array to receive the indices of the non-dominated points.
+     * @return the number of non-dominated points, or -1 if there are more of them than the window limit.
+     */
+    public int filter(double[][] points, int n, int dim, int[] order, ArraySorter sorter, int[] result) {
+        for (int i = 0; i < n; ++i) {
+            double[] point = points[i];
+            double sum = 0;
+            for (int j = 0; j < dim; ++j) {
+                sum += point[j];
+            }
+            sums[i] = sum;
+        }
+        // Floating-point addition is monotone, so a dominating point never has a greater sum.
+        ArrayHelper.fillIdentity(order, n);
+        sorter.sortByValues(sums, order, 0, n);
+
+        int size = 0;
+        for (int i = 0; i < n; ++i) {
+            int curr = order[i];
+            double[] point = points[curr];
+            if (isDominatedByWindow(points, point, size, dim)) {
+                continue;
+            }
+            // Only the points with an equal sum, which are all at the end of the window, can be dominated by the new one.
+            double sum = sums[curr];
+            int equalStart = size;
+            while (equalStart > 0 && sums[window[equalStart - 1]] == sum) {
+                --equalStart;
+            }
+            int newSize = equalStart;
+            for (int j = equalStart; j < size; ++j) {
+                int w = window[j];
+                if (!DominanceHelper.strictlyDominates(point, points[w], dim)) {
+                    window[newSize++] = w;
+                }
+            }
+            size = newSize;
+            if (size == window.length) {
+                return -1;
+            }
+            window[size++] = curr;
+        }
+        System.arraycopy(window, 0, result, 0, size);
+        Arrays.sort(result, 0, size);
+        return size;
+    }
+
+    private boolean isDominatedByWindow(double[][] points, double[] point, int size, int dim) {
+        for (int j = 0; j < size; ++j) {
+            if (DominanceHelper.strictlyDominates(points[window[j]], point, dim)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
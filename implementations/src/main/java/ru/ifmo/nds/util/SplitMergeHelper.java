@@ -53,6 +53,49 @@ public final class SplitMergeHelper {
         return pack(l, m);
     }
 
+    public final int splitInTwo(float[] points, int[] indices,
+                                int tempFrom, int from, int until, float median,
+                                boolean equalToLeft) {
+        int left = from, right = tempFrom;
+        for (int i = from; i < until; ++i) {
+            int ii = indices[i];
+            float v = points[ii];
+            if (v < median || (equalToLeft && v == median)) {
+                indices[left] = ii;
+                ++left;
+            } else {
+                scratchR[right] = ii;
+                ++right;
+            }
+        }
+        System.arraycopy(scratchR, tempFrom, indices, left, right - tempFrom);
+        return left;
+    }
+
+    public final long splitInThree(float[] points, int[] indices,
+                                   int tempFrom, int from, int until, float median) {
+        int l = from, m = tempFrom, r = tempFrom;
+        for (int i = from; i < until; ++i) {
+            int ii = indices[i];
+            float v = points[ii];
+            if (v < median) {
+                indices[l] = ii;
+                ++l;
+            } else if (v == median) {
+                scratchM[m] = ii;
+                ++m;
+            } else {
+                scratchR[r] = ii;
+                ++r;
+            }
+        }
+        m -= tempFrom;
+        System.arraycopy(scratchM, tempFrom, indices, l, m);
+        m += l;
+        System.arraycopy(scratchR, tempFrom, indices, m, r - tempFrom);
+        return pack(l, m);
+    }
+
     public final int mergeThree(int[] indices, int tempFrom,
                                 int fromLeft, int untilLeft,
                                 int fromMid, int untilMid,
@@ -0,0 +1,128 @@
+package ru.ifmo.nds.tests;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ru.ifmo.nds.Adaptive;
+import ru.ifmo.nds.ENS;
+import ru.ifmo.nds.NonDominatedSorting;
+import ru.ifmo.nds.NonDominatedSortingFactory;
+import ru.ifmo.nds.adaptive.AdaptiveSorting;
+import ru.ifmo.nds.adaptive.Candidate;
+import ru.ifmo.nds.adaptive.CostModel;
+
+public class AdaptiveTest extends CorrectnessTestsBase {
+    @Override
+    protected NonDominatedSortingFactory getFactory() {
+        return Adaptive.getInstance();
+    }
+
+    @Test
+    public void factoryIsCreatedOnce() {
+        Assert.assertSame(Adaptive.getInstance(), Adaptive.getInstance());
+    }
+
+    @Test
+    public void sameChoiceForAllLayouts() {
+        Random random = new Random(823542);
+        for (int n : new int[] { 10, 200, 3000 }) {
+            for (int dim : new int[] { 2, 3, 7 }) {
+                double[][] points = new double[n][dim];
+                double[] coords = new double[n * dim];
+                double[][] columns = new double[dim][n];
+                for (int i = 0; i < n; ++i) {
+                    for (int j = 0; j < dim; ++j) {
+                        coords[i * dim + j] = columns[j][i] = points[i][j] = random.nextInt(100);
+                    }
+                }
+                int[] ranks = new int[n];
+                try (AdaptiveSorting sorting = (AdaptiveSorting) getFactory().getInstance(n, dim)) {
+                    sorting.sort(points, ranks);
+                    Candidate choice = sorting.getLastChoice();
+                    sorting.sort(coords, n, dim, ranks);
+                    Assert.assertSame(choice, sorting.getLastChoice());
+                    sorting.sortByColumns(columns, ranks);
+                    Assert.assertSame(choice, sorting.getLastChoice());
+                    sorting.sort(DoubleBuffer.wrap(coords), n, dim, IntBuffer.wrap(ranks), n);
+                    Assert.assertSame(choice, sorting.getLastChoice());
+                    sorting.sortUntilCount(points, ranks, n / 2);
+                    Assert.assertSame(choice, sorting.getLastChoice());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void largeIntegerInputsAreSortedCorrectly() {
+        // The cost model chooses the divide-and-conquer algorithm for some of these inputs,
+        // which is also checked on its own whatever the choice is.
+        Random random = new Random(7734541);
+        int dim = 3;
+        for (int n : new int[] { 10000, 20000, 60000 }) {
+            double[][] points = new double[n][dim];
+            for (double[] point : points) {
+                for (int j = 0; j < dim; ++j) {
+                    point[j] = random.nextInt(50);
+                }
+            }
+            int[] expected = new int[n];
+            try (NonDominatedSorting reference = ENS.getENS_BS().getInstance(n, dim)) {
+                reference.sort(points, expected);
+            }
+            int[] ranks = new int[n];
+            try (NonDominatedSorting sorting = getFactory().getInstance(n, dim)) {
+                sorting.sort(points, ranks);
+            }
+            Assert.assertArrayEquals(expected, ranks);
+            try (NonDominatedSorting sorting = Candidate.JFB_HYBRID.getFactory().getInstance(n, dim)) {
+                sorting.sort(points, ranks);
+            }
+            Assert.assertArrayEquals(expected, ranks);
+        }
+    }
+
+    @Test
+    public void costModelIsParsedFromCalibrationOutput() {
+        String json = "{\n"
+                + "  \"cells\" : [ { \"n\" : 10, \"d\" : 2, \"fronts\" : 1, \"times\" : { \"ens.bs\" : 1e-7 } } ],\n"
+                + "  \"coefficients\" : {\n"
+                + "    \"ens.bs\" : 2.5E-9,\n"
+                + "    \"jfb.rbtree.hybrid.ndt.4\" : 7.0E-9,\n"
+                + "    \"unknown\" : 1.0\n"
+                + "  }\n"
+                + "}\n";
+        CostModel model = CostModel.parse(json);
+        Assert.assertEquals(2.5e-9, model.getCoefficient(Candidate.ENS_BS), 1e-20);
+        Assert.assertEquals(7e-9, model.getCoefficient(Candidate.JFB_HYBRID), 1e-20);
+        Assert.assertEquals(0, model.getCoefficient(Candidate.BOS_IMPROVED), 0);
+        Assert.assertEquals(Double.POSITIVE_INFINITY, model.estimate(Candidate.MNDS_BITSETS, 10, 3, 1), 0);
+    }
+
+    @Test
+    public void measuredCellsAreUsedWithinTheGrid() {
+        // The coefficients favor ENS everywhere, while the measurements favor BOS for n = 1000.
+        String json = "{\n"
+                + "  \"cells\" : [\n"
+                + "    { \"n\" : 10, \"d\" : 2, \"fronts\" : 1, \"times\" : { \"bos.improved\" : 2e-6, \"ens.bs\" : 1e-6 } },\n"
+                + "    { \"n\" : 1000, \"d\" : 2, \"fronts\" : 1, \"times\" : { \"bos.improved\" : 1e-4, \"ens.bs\" : 2e-4 } },\n"
+                + "    { \"n\" : 10, \"d\" : 5, \"fronts\" : 10, \"times\" : { \"bos.improved\" : 2e-6, \"ens.bs\" : 1e-6 } },\n"
+                + "    { \"n\" : 1000, \"d\" : 5, \"fronts\" : 10, \"times\" : { \"bos.improved\" : 1e-4, \"unknown\" : 1e-9 } }\n"
+                + "  ],\n"
+                + "  \"coefficients\" : { \"ens.bs\" : 1e-9, \"bos.improved\" : 1e-6 }\n"
+                + "}\n";
+        CostModel model = CostModel.parse(json);
+        Candidate[] both = { Candidate.ENS_BS, Candidate.BOS_IMPROVED };
+        Assert.assertSame(Candidate.ENS_BS, model.choose(both, 12, 2, 1));
+        Assert.assertSame(Candidate.BOS_IMPROVED, model.choose(both, 900, 3, 2));
+        Assert.assertSame(Candidate.BOS_IMPROVED, model.choose(both, 1000, 5, 10));
+        // Only the given candidates are considered.
+        Assert.assertSame(Candidate.ENS_BS, model.choose(new Candidate[] { Candidate.ENS_BS }, 1000, 2, 1));
+        // Outside of the grid, the estimates are used.
+        Assert.assertSame(Candidate.ENS_BS, model.choose(both, 100000, 3, 2));
+        Assert.assertSame(Candidate.ENS_BS, model.choose(both, 900, 10, 2));
+    }
+}
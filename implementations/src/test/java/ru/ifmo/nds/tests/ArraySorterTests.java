@@ -3,10 +3,12 @@ package ru.ifmo.nds.tests;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 
 import org.junit.Assert;
 import org.junit.Test;
+import ru.ifmo.nds.util.ArrayHelper;
 import ru.ifmo.nds.util.ArraySorter;
 
 public class ArraySorterTests {
@@ -75,4 +77,196 @@ public class ArraySorterTests {
             }
         }
     }
+
+    @Test
+    public void checkLexicographicalSortOfFlatArray() {
+        Random random = new Random();
+        ArraySorter sorter = new ArraySorter(100);
+        for (int times = 0; times < 1000; ++times) {
+            int size = 1 + random.nextInt(100);
+            int dim = 1 + random.nextInt(5);
+            double[][] points = new double[size][dim];
+            double[] coords = new double[size * dim];
+            for (int i = 0; i < size; ++i) {
+                for (int j = 0; j < dim; ++j) {
+                    coords[i * dim + j] = points[i][j] = random.nextInt(3);
+                }
+            }
+            int[] expectedIndices = new int[size];
+            int[] indices = new int[size];
+            for (int i = 0; i < size; ++i) {
+                expectedIndices[i] = i;
+                indices[i] = i;
+            }
+            sorter.lexicographicalSort(points, expectedIndices, 0, size, dim);
+            sorter.lexicographicalSort(coords, dim, indices, 0, size, dim);
+            for (int i = 0; i < size; ++i) {
+                Assert.assertTrue(Arrays.equals(points[expectedIndices[i]], points[indices[i]]));
+            }
+        }
+    }
+
+    @Test
+    public void checkLexicographicalSortOfIntegerPoints() {
+        Random random = new Random();
+        ArraySorter sorter = new ArraySorter(100);
+        for (int times = 0; times < 1000; ++times) {
+            int size = 1 + random.nextInt(100);
+            int dim = 1 + random.nextInt(5);
+            boolean smallRange = random.nextBoolean();
+            double[][] points = new double[size][dim];
+            int[][] intPoints = new int[size][dim];
+            for (int i = 0; i < size; ++i) {
+                for (int j = 0; j < dim; ++j) {
+                    points[i][j] = intPoints[i][j] = smallRange ? random.nextInt(3) - 1 : random.nextInt();
+                }
+            }
+            int[] expectedIndices = new int[size];
+            int[] indices = new int[size];
+            for (int i = 0; i < size; ++i) {
+                expectedIndices[i] = i;
+                indices[i] = i;
+            }
+            sorter.lexicographicalSort(points, expectedIndices, 0, size, dim);
+            sorter.lexicographicalSort(intPoints, indices, 0, size, dim);
+            for (int i = 0; i < size; ++i) {
+                Assert.assertTrue(Arrays.equals(points[expectedIndices[i]], points[indices[i]]));
+            }
+
+            double[] column = new double[size];
+            int[] intColumn = new int[size];
+            for (int i = 0; i < size; ++i) {
+                column[i] = intColumn[i] = intPoints[i][0];
+            }
+            int[] expectedCompressed = new int[size];
+            int[] compressed = new int[size];
+            sorter.compressCoordinates(column, expectedIndices, expectedCompressed, 0, size);
+            sorter.compressCoordinates(intColumn, indices, compressed, 0, size);
+            Assert.assertArrayEquals(expectedCompressed, compressed);
+        }
+    }
+
+    @Test
+    public void checkDuplicateCollapsing() {
+        Random random = new Random();
+        ArraySorter sorter = new ArraySorter(100);
+        ArraySorter hashingSorter = new ArraySorter(100);
+        hashingSorter.setDuplicateCollapsing(true);
+        for (int times = 0; times < 1000; ++times) {
+            int size = 1 + random.nextInt(100);
+            int dim = 1 + random.nextInt(5);
+            double[][] points = new double[size][dim];
+            for (int i = 0; i < size; ++i) {
+                for (int j = 0; j < dim; ++j) {
+                    // Positive and negative zeros are equal points.
+                    int value = random.nextInt(3) - 1;
+                    points[i][j] = value == 0 && random.nextBoolean() ? -0.0 : value;
+                }
+            }
+            int[] indices = new int[size];
+            int[] expectedReindex = new int[size];
+            int[] reindex = new int[size];
+            double[][] expectedTarget = new double[size][];
+            double[][] target = new double[size][];
+            int expectedN = sorter.sortAndRetainUniquePoints(points, indices, expectedTarget, expectedReindex);
+            int newN = hashingSorter.sortAndRetainUniquePoints(points, indices, target, reindex);
+            Assert.assertEquals(expectedN, newN);
+            Assert.assertArrayEquals(expectedReindex, reindex);
+            for (int i = 0; i < newN; ++i) {
+                Assert.assertTrue(ArrayHelper.equal(expectedTarget[i], target[i], dim));
+            }
+        }
+    }
+
+    @Test
+    public void checkParallelSorts() {
+        Random random = new Random(82354);
+        int maxSize = 40000;
+        ArraySorter sorter = new ArraySorter(maxSize);
+        sorter.setRadixSortThreshold(Integer.MAX_VALUE);
+        // The parallel tasks also run the radix sort on their ranges.
+        ArraySorter parallelSorter = new ArraySorter(maxSize);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        parallelSorter.setForkJoinPool(pool);
+        try {
+            for (int times = 0; times < 10; ++times) {
+                int size = maxSize / 2 + random.nextInt(maxSize / 2);
+                int dim = 1 + random.nextInt(4);
+                // Small domains make large runs of equal values, which are sorted by the next coordinates in parallel.
+                int domain = times % 2 == 0 ? 3 : 0;
+                double[][] points = new double[size][dim];
+                double[] coords = new double[size * dim];
+                for (int i = 0; i < size; ++i) {
+                    for (int j = 0; j < dim; ++j) {
+                        coords[i * dim + j] = points[i][j] = domain > 0 ? random.nextInt(domain) : random.nextDouble();
+                    }
+                }
+                int[] expectedIndices = new int[size];
+                int[] indices = new int[size];
+                ArrayHelper.fillIdentity(expectedIndices, size);
+                ArrayHelper.fillIdentity(indices, size);
+                sorter.lexicographicalSort(points, expectedIndices, 0, size, dim);
+                parallelSorter.lexicographicalSort(coords, dim, indices, 0, size, dim);
+                for (int i = 0; i < size; ++i) {
+                    Assert.assertTrue(Arrays.equals(points[expectedIndices[i]], points[indices[i]]));
+                }
+
+                int obj = random.nextInt(dim);
+                ArrayHelper.fillIdentity(indices, size);
+                parallelSorter.sortComparingByIndicesIfEqual(points, indices, 0, size, obj);
+                for (int i = 1; i < size; ++i) {
+                    double prev = points[indices[i - 1]][obj], curr = points[indices[i]][obj];
+                    Assert.assertTrue(prev < curr || prev == curr && indices[i - 1] < indices[i]);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void checkRadixSort() {
+        Random random = new Random(2352351);
+        ArraySorter sorter = new ArraySorter(3000);
+        ArraySorter radixSorter = new ArraySorter(3000);
+        sorter.setRadixSortThreshold(Integer.MAX_VALUE);
+        radixSorter.setRadixSortThreshold(2);
+        double[] special = { 0.0, -0.0, Double.MIN_VALUE, -Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, 1, -1 };
+        for (int times = 0; times < 100; ++times) {
+            int size = 2 + random.nextInt(3000 - 1);
+            int dim = 1 + random.nextInt(4);
+            int kind = times % 3;
+            double[][] points = new double[size][dim];
+            for (int i = 0; i < size; ++i) {
+                for (int j = 0; j < dim; ++j) {
+                    if (kind == 0) {
+                        points[i][j] = random.nextGaussian() * 1e6;
+                    } else if (kind == 1) {
+                        points[i][j] = special[random.nextInt(special.length)];
+                    } else {
+                        points[i][j] = random.nextInt(5) - 2;
+                    }
+                }
+            }
+            int[] expectedIndices = new int[size];
+            int[] indices = new int[size];
+            ArrayHelper.fillIdentity(expectedIndices, size);
+            ArrayHelper.fillIdentity(indices, size);
+            sorter.lexicographicalSort(points, expectedIndices, 0, size, dim);
+            radixSorter.lexicographicalSort(points, indices, 0, size, dim);
+            for (int i = 0; i < size; ++i) {
+                Assert.assertTrue(ArrayHelper.equal(points[expectedIndices[i]], points[indices[i]], dim));
+            }
+
+            double[] column = new double[size];
+            for (int i = 0; i < size; ++i) {
+                column[i] = points[i][0];
+            }
+            int[] expectedCompressed = new int[size];
+            int[] compressed = new int[size];
+            sorter.compressCoordinates(column, expectedIndices, expectedCompressed, 0, size);
+            radixSorter.compressCoordinates(column, indices, compressed, 0, size);
+            Assert.assertArrayEquals(expectedCompressed, compressed);
+        }
+    }
 }
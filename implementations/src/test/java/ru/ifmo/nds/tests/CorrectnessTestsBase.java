@@ -1,13 +1,20 @@
 package ru.ifmo.nds.tests;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Random;
 
 import org.junit.Assert;
 import org.junit.Test;
 
 import ru.ifmo.nds.NonDominatedSorting;
+import ru.ifmo.nds.NonDominatedSortingBatch;
 import ru.ifmo.nds.NonDominatedSortingFactory;
 
 public abstract class CorrectnessTestsBase {
@@ -22,6 +29,23 @@ public abstract class CorrectnessTestsBase {
             }
         }
         groupCheck(doubleInput, expectedOutput);
+
+        try (NonDominatedSorting sorting = getFactory().getInstance(input.length, input[0].length)) {
+            int[] actualOutput = new int[expectedOutput.length];
+            sorting.sort(input, actualOutput);
+            assertArrayEquals(expectedOutput, actualOutput);
+            for (int maxRank = 0; maxRank <= 3; ++maxRank) {
+                int[] localExpectedOutput = expectedOutput.clone();
+                for (int i = 0; i < localExpectedOutput.length; ++i) {
+                    if (localExpectedOutput[i] > maxRank) {
+                        localExpectedOutput[i] = maxRank + 1;
+                    }
+                }
+                Arrays.fill(actualOutput, 2347);
+                sorting.sort(input, actualOutput, maxRank);
+                assertArrayEquals(localExpectedOutput, actualOutput);
+            }
+        }
     }
 
     private void assertArrayEquals(int[] expected, int[] found) {
@@ -60,8 +84,216 @@ public abstract class CorrectnessTestsBase {
         }
     }
 
+    private double[] flatten(double[][] input) {
+        int dim = input[0].length;
+        double[] rv = new double[input.length * dim];
+        for (int i = 0; i < input.length; ++i) {
+            System.arraycopy(input[i], 0, rv, i * dim, dim);
+        }
+        return rv;
+    }
+
+    private double[][] transpose(double[][] input) {
+        double[][] rv = new double[input[0].length][input.length];
+        for (int i = 0; i < input.length; ++i) {
+            for (int j = 0; j < rv.length; ++j) {
+                rv[j][i] = input[i][j];
+            }
+        }
+        return rv;
+    }
+
+    private void checkBuffers(NonDominatedSorting sorting, double[][] input, int[] expectedOutput) {
+        // The data starts after one element to check that buffer positions are respected.
+        int dim = input[0].length;
+        DoubleBuffer coords = ByteBuffer.allocateDirect(8 * (1 + input.length * dim))
+                .order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        coords.put(Double.NaN);
+        for (double[] point : input) {
+            coords.put(point);
+        }
+        coords.position(1);
+        IntBuffer ranks = IntBuffer.allocate(1 + input.length);
+        ranks.put(0, 2347).position(1);
+        sorting.sort(coords, input.length, dim, ranks, input.length);
+        Assert.assertEquals(1, coords.position());
+        Assert.assertEquals(1, ranks.position());
+        Assert.assertEquals(2347, ranks.get(0));
+        int[] actualOutput = new int[input.length];
+        ranks.get(actualOutput);
+        assertArrayEquals(expectedOutput, actualOutput);
+    }
+
+    private void checkFronts(NonDominatedSorting sorting, double[][] input, int[] expectedOutput, int maxRank) {
+        int n = input.length;
+        int[] frontOffsets = new int[n + 1];
+        int[] frontMembers = new int[n];
+        int nFronts = sorting.sortIntoFronts(input, frontOffsets, frontMembers, maxRank);
+        Assert.assertEquals(0, frontOffsets[0]);
+        Assert.assertEquals(n, frontOffsets[nFronts]);
+        int[] actualOutput = new int[n];
+        Arrays.fill(actualOutput, -1);
+        for (int f = 0; f < nFronts; ++f) {
+            Assert.assertTrue(frontOffsets[f] < frontOffsets[f + 1]);
+            for (int i = frontOffsets[f]; i < frontOffsets[f + 1]; ++i) {
+                // Every point shall be found exactly once.
+                Assert.assertEquals(-1, actualOutput[frontMembers[i]]);
+                actualOutput[frontMembers[i]] = f;
+            }
+        }
+        int[] localExpectedOutput = expectedOutput.clone();
+        for (int i = 0; i < n; ++i) {
+            localExpectedOutput[i] = Math.min(localExpectedOutput[i], maxRank + 1);
+        }
+        assertArrayEquals(localExpectedOutput, actualOutput);
+    }
+
+    private void checkFirstFront(NonDominatedSorting sorting, double[][] input, int[] expectedOutput) {
+        int[] firstFront = new int[input.length];
+        int size = sorting.findNonDominated(input, firstFront);
+        int expectedSize = 0;
+        for (int i = 0; i < input.length; ++i) {
+            if (expectedOutput[i] == 0) {
+                Assert.assertTrue(expectedSize < size);
+                Assert.assertEquals(i, firstFront[expectedSize++]);
+            }
+        }
+        Assert.assertEquals(expectedSize, size);
+    }
+
+    private void checkUntilCount(NonDominatedSorting sorting, double[][] input, int[] expectedOutput, int count) {
+        int n = input.length;
+        int[] frontSizes = new int[n + 1];
+        for (int rank : expectedOutput) {
+            ++frontSizes[rank];
+        }
+        int expectedFronts = 0;
+        for (int covered = 0; covered < count && covered < n; ++expectedFronts) {
+            covered += frontSizes[expectedFronts];
+        }
+        int[] localExpectedOutput = new int[n];
+        for (int i = 0; i < n; ++i) {
+            localExpectedOutput[i] = Math.min(expectedOutput[i], expectedFronts);
+        }
+        int[] actualOutput = new int[n];
+        Arrays.fill(actualOutput, 2347);
+        Assert.assertEquals(expectedFronts, sorting.sortUntilCount(input, actualOutput, count));
+        assertArrayEquals(localExpectedOutput, actualOutput);
+    }
+
+    private static int compareLexicographically(double[] a, double[] b) {
+        for (int i = 0; i < a.length; ++i) {
+            int cmp = Double.compare(a[i], b[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    private void checkCrowdingDistance(NonDominatedSorting sorting, double[][] input, int[] expectedOutput) {
+        int n = input.length;
+        int dim = input[0].length;
+        double[] expectedDistances = new double[n];
+        int maxRank = 0;
+        for (int rank : expectedOutput) {
+            maxRank = Math.max(maxRank, rank);
+        }
+        for (int rank = 0; rank <= maxRank; ++rank) {
+            List<Integer> front = new ArrayList<>();
+            for (int i = 0; i < n; ++i) {
+                if (expectedOutput[i] == rank) {
+                    front.add(i);
+                }
+            }
+            for (int obj = 0; obj < dim; ++obj) {
+                final int o = obj;
+                front.sort((a, b) -> {
+                    int cmp = Double.compare(input[a][o], input[b][o]);
+                    if (cmp == 0) {
+                        cmp = compareLexicographically(input[a], input[b]);
+                    }
+                    return cmp != 0 ? cmp : Integer.compare(a, b);
+                });
+                int size = front.size();
+                double range = input[front.get(size - 1)][obj] - input[front.get(0)][obj];
+                for (int k = 1; k + 1 < size && range > 0; ++k) {
+                    expectedDistances[front.get(k)] += (input[front.get(k + 1)][obj] - input[front.get(k - 1)][obj]) / range;
+                }
+                expectedDistances[front.get(0)] = Double.POSITIVE_INFINITY;
+                expectedDistances[front.get(size - 1)] = Double.POSITIVE_INFINITY;
+            }
+        }
+        int[] actualOutput = new int[n];
+        double[] actualDistances = new double[n];
+        Arrays.fill(actualDistances, 2347);
+        sorting.sortWithCrowdingDistance(input, actualOutput, actualDistances);
+        assertArrayEquals(expectedOutput, actualOutput);
+        for (int i = 0; i < n; ++i) {
+            Assert.assertEquals(expectedDistances[i], actualDistances[i], 1e-9);
+        }
+    }
+
+    private void checkMergeRanked(NonDominatedSorting sorting, double[][] input, int[] expectedOutput, int nParents) {
+        int n = input.length;
+        double[][] parents = Arrays.copyOfRange(input, 0, nParents);
+        double[][] offspring = Arrays.copyOfRange(input, nParents, n);
+        int[] parentRanks = new int[nParents];
+        if (nParents > 0) {
+            sorting.sort(parents, parentRanks);
+        }
+        int[] actualOutput = new int[n];
+        Arrays.fill(actualOutput, 2347);
+        sorting.mergeRanked(parents, parentRanks, offspring, actualOutput);
+        assertArrayEquals(expectedOutput, actualOutput);
+    }
+
+    private void checkConstrained(NonDominatedSorting sorting, double[][] input, int[] expectedOutput) {
+        int n = input.length;
+        double[] violations = new double[n];
+        for (int i = 0; i < n; ++i) {
+            violations[i] = -(i % 2);
+        }
+        int[] actualOutput = new int[n];
+        Arrays.fill(actualOutput, 2347);
+        sorting.sortConstrained(input, violations, actualOutput);
+        assertArrayEquals(expectedOutput, actualOutput);
+
+        // Every even point is feasible, the violations of odd points are 1, 2, 3, 1, 2, 3, ...
+        double[][] feasible = new double[(n + 1) / 2][];
+        for (int i = 0; i < n; i += 2) {
+            feasible[i / 2] = input[i];
+            violations[i] = 0;
+            if (i + 1 < n) {
+                violations[i + 1] = 1 + (i / 2) % 3;
+            }
+        }
+        int[] feasibleOutput = new int[feasible.length];
+        sorting.sort(feasible, feasibleOutput);
+        int nFeasibleFronts = 0;
+        for (int rank : feasibleOutput) {
+            nFeasibleFronts = Math.max(nFeasibleFronts, rank + 1);
+        }
+        int[] constrainedOutput = new int[n];
+        for (int i = 0; i < n; ++i) {
+            constrainedOutput[i] = i % 2 == 0 ? feasibleOutput[i / 2] : nFeasibleFronts + (int) violations[i] - 1;
+        }
+        Arrays.fill(actualOutput, 2347);
+        sorting.sortConstrained(input, violations, actualOutput);
+        assertArrayEquals(constrainedOutput, actualOutput);
+        for (int i = 0; i < n; ++i) {
+            constrainedOutput[i] = Math.min(constrainedOutput[i], 1);
+        }
+        Arrays.fill(actualOutput, 2347);
+        sorting.sortConstrained(input, violations, actualOutput, 0);
+        assertArrayEquals(constrainedOutput, actualOutput);
+    }
+
     private void groupCheck(double[][] input, int[] expectedOutput) {
         expectedOutput = expectedOutput.clone();
+        double[] flatInput = flatten(input);
+        double[][] columnInput = transpose(input);
+        int dim = input[0].length;
         NonDominatedSortingFactory factory = getFactory();
 
         int maxExpectedOutput = 0;
@@ -98,6 +330,12 @@ public abstract class CorrectnessTestsBase {
                 Arrays.fill(actualOutput, 2347);
                 sorting.sort(input, actualOutput, maxRank);
                 assertArrayEquals(localExpectedOutput, actualOutput);
+                Arrays.fill(actualOutput, 2347);
+                sorting.sort(flatInput, input.length, dim, actualOutput, maxRank);
+                assertArrayEquals(localExpectedOutput, actualOutput);
+                Arrays.fill(actualOutput, 2347);
+                sorting.sortByColumns(columnInput, actualOutput, maxRank);
+                assertArrayEquals(localExpectedOutput, actualOutput);
             }
 
             Arrays.fill(actualOutput, 0);
@@ -106,6 +344,36 @@ public abstract class CorrectnessTestsBase {
             Arrays.fill(actualOutput, 2347);
             sorting.sort(input, actualOutput);
             assertArrayEquals(expectedOutput, actualOutput);
+            Arrays.fill(actualOutput, 2347);
+            sorting.sort(flatInput, input.length, dim, actualOutput);
+            assertArrayEquals(expectedOutput, actualOutput);
+            Arrays.fill(actualOutput, 2347);
+            sorting.sortByColumns(columnInput, actualOutput);
+            assertArrayEquals(expectedOutput, actualOutput);
+            checkBuffers(sorting, input, expectedOutput);
+
+            checkFronts(sorting, input, expectedOutput, maxExpectedOutput);
+            checkFronts(sorting, input, expectedOutput, maxExpectedOutput / 2);
+            checkFronts(sorting, input, expectedOutput, 0);
+            checkFirstFront(sorting, input, expectedOutput);
+            checkCrowdingDistance(sorting, input, expectedOutput);
+            checkMergeRanked(sorting, input, expectedOutput, input.length / 2);
+            checkMergeRanked(sorting, input, expectedOutput, input.length);
+            checkConstrained(sorting, input, expectedOutput);
+            for (int count : new int[] { 1, 2, input.length / 2, input.length - 1, input.length, input.length + 1 }) {
+                if (count > 0) {
+                    checkUntilCount(sorting, input, expectedOutput, count);
+                }
+            }
+
+            sorting.setInputValidation(false);
+            Arrays.fill(actualOutput, 2347);
+            sorting.sort(input, actualOutput);
+            assertArrayEquals(expectedOutput, actualOutput);
+            Arrays.fill(actualOutput, 2347);
+            sorting.sort(flatInput, input.length, dim, actualOutput);
+            assertArrayEquals(expectedOutput, actualOutput);
+            sorting.setInputValidation(true);
         }
 
         try (NonDominatedSorting sorting = factory.getInstance(dupInput.length, dupInput[0].length)) {
@@ -115,6 +383,21 @@ public abstract class CorrectnessTestsBase {
             Arrays.fill(actualOutput, 2347);
             sorting.sort(dupInput, actualOutput);
             assertArrayEquals(dupOutput, actualOutput);
+            Arrays.fill(actualOutput, 2347);
+            sorting.sort(flatten(dupInput), dupInput.length, dim, actualOutput);
+            assertArrayEquals(dupOutput, actualOutput);
+            Arrays.fill(actualOutput, 2347);
+            sorting.sortByColumns(transpose(dupInput), actualOutput);
+            assertArrayEquals(dupOutput, actualOutput);
+
+            sorting.setDuplicateCollapsing(true);
+            Arrays.fill(actualOutput, 2347);
+            sorting.sort(dupInput, actualOutput);
+            assertArrayEquals(dupOutput, actualOutput);
+            sorting.setDuplicateCollapsing(false);
+            checkBuffers(sorting, dupInput, dupOutput);
+            checkFronts(sorting, dupInput, dupOutput, maxExpectedOutput);
+            checkFronts(sorting, dupInput, dupOutput, maxExpectedOutput / 2);
         }
     }
 
@@ -357,6 +640,97 @@ public abstract class CorrectnessTestsBase {
         groupCheck(data, ranks);
     }
 
+    @Test
+    public void valuesCloserThanSinglePrecision() {
+        int n = 50;
+        for (int d = 2; d <= 5; ++d) {
+            double[][] data = new double[n][d];
+            int[] ranks = new int[n];
+            for (int i = 0; i < n; ++i) {
+                for (int j = 0; j < d; ++j) {
+                    data[i][j] = 1 + i * 1e-12;
+                }
+                ranks[i] = i;
+            }
+            groupCheck(data, ranks);
+            for (int i = 0; i < n; ++i) {
+                data[i][d - 1] = 1 - i * 1e-12;
+                ranks[i] = 0;
+            }
+            groupCheck(data, ranks);
+        }
+    }
+
+    @Test
+    public void nonDominatedOfHeavilyDominatedPopulation() {
+        Random random = new Random(723423);
+        int n = 1000, dim = 3;
+        double[][] points = new double[n][dim];
+        for (double[] point : points) {
+            for (int j = 0; j < dim; ++j) {
+                point[j] = 1 + random.nextDouble();
+            }
+        }
+        for (int i = 0; i < 5; ++i) {
+            double[] point = points[random.nextInt(n)];
+            for (int j = 0; j < dim; ++j) {
+                point[j] = random.nextDouble();
+            }
+        }
+        // The sums of these points are equal due to rounding, but the second one dominates the first one.
+        points[10] = new double[] { 1e20, 0, 0 };
+        points[20] = new double[] { 1e20, 0, -1 };
+        int[] expected = new int[n];
+        int[] firstFront = new int[n];
+        try (NonDominatedSorting sorting = getFactory().getInstance(n, dim)) {
+            sorting.sort(points, expected, 0);
+            int size = sorting.findNonDominated(points, firstFront);
+            int expectedSize = 0;
+            for (int i = 0; i < n; ++i) {
+                if (expected[i] == 0) {
+                    Assert.assertEquals(i, firstFront[expectedSize++]);
+                }
+            }
+            Assert.assertEquals(expectedSize, size);
+        }
+    }
+
+    @Test
+    public void batchSortingMatchesSeparateSorting() {
+        Random random = new Random(8234235);
+        int count = 20, maxPoints = 30, dim = 4;
+        double[][][] populations = new double[count][][];
+        int[][] expected = new int[count][];
+        int[][] found = new int[count][];
+        try (NonDominatedSorting sorting = getFactory().getInstance(maxPoints, dim)) {
+            for (int i = 0; i < count; ++i) {
+                int n = 1 + random.nextInt(maxPoints);
+                populations[i] = new double[n][dim];
+                for (double[] point : populations[i]) {
+                    for (int j = 0; j < dim; ++j) {
+                        point[j] = random.nextInt(5);
+                    }
+                }
+                expected[i] = new int[n];
+                found[i] = new int[n];
+                sorting.sort(populations[i], expected[i]);
+            }
+            sorting.sortBatch(populations, found);
+            for (int i = 0; i < count; ++i) {
+                assertArrayEquals(expected[i], found[i]);
+            }
+        }
+        try (NonDominatedSortingBatch batch = new NonDominatedSortingBatch(getFactory(), maxPoints, dim, 3)) {
+            for (int[] ranks : found) {
+                Arrays.fill(ranks, 2347);
+            }
+            batch.sortBatch(populations, found);
+            for (int i = 0; i < count; ++i) {
+                assertArrayEquals(expected[i], found[i]);
+            }
+        }
+    }
+
     @Test
     public void singleMeaningfulRow() {
         int n = 100, d = 5;
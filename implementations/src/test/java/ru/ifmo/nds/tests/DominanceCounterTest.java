@@ -0,0 +1,73 @@
+package ru.ifmo.nds.tests;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ru.ifmo.nds.jfb.DominanceCounter;
+import ru.ifmo.nds.util.DominanceHelper;
+
+public class DominanceCounterTest {
+    private void checkRandom(int maxPoints, int dim, int maxValue, long seed) {
+        Random random = new Random(seed);
+        DominanceCounter counter = new DominanceCounter(maxPoints, dim);
+        for (int times = 0; times < 50; ++times) {
+            int n = 1 + random.nextInt(maxPoints);
+            double[][] points = new double[n][dim];
+            for (double[] point : points) {
+                for (int j = 0; j < dim; ++j) {
+                    point[j] = maxValue > 0 ? random.nextInt(maxValue) : random.nextDouble();
+                }
+            }
+            int[] expectedDominatedBy = new int[n];
+            int[] expectedDominates = new int[n];
+            for (int i = 0; i < n; ++i) {
+                for (int j = 0; j < n; ++j) {
+                    if (DominanceHelper.strictlyDominates(points[i], points[j], dim)) {
+                        ++expectedDominates[i];
+                        ++expectedDominatedBy[j];
+                    }
+                }
+            }
+            int[] dominatedBy = new int[n];
+            int[] dominates = new int[n];
+            counter.count(points, dominatedBy, dominates);
+            Assert.assertArrayEquals(expectedDominatedBy, dominatedBy);
+            Assert.assertArrayEquals(expectedDominates, dominates);
+            counter.count(points, dominatedBy, null);
+            Assert.assertArrayEquals(expectedDominatedBy, dominatedBy);
+        }
+    }
+
+    @Test
+    public void oneDimension() {
+        checkRandom(100, 1, 10, 823);
+    }
+
+    @Test
+    public void twoDimensions() {
+        checkRandom(200, 2, 0, 5234);
+        checkRandom(200, 2, 5, 2345);
+    }
+
+    @Test
+    public void threeDimensions() {
+        checkRandom(300, 3, 0, 9234);
+        checkRandom(300, 3, 4, 72);
+    }
+
+    @Test
+    public void fiveDimensions() {
+        checkRandom(300, 5, 0, 23466);
+        checkRandom(300, 5, 3, 8245);
+    }
+
+    @Test
+    public void zeroDimensions() {
+        DominanceCounter counter = new DominanceCounter(3, 0);
+        int[] dominatedBy = { 1, 1, 1 };
+        counter.count(new double[3][0], dominatedBy, null);
+        Assert.assertArrayEquals(new int[3], dominatedBy);
+    }
+}
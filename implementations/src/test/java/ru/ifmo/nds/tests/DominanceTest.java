@@ -0,0 +1,223 @@
+package ru.ifmo.nds.tests;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ru.ifmo.nds.Dominance;
+import ru.ifmo.nds.ENS;
+import ru.ifmo.nds.JensenFortinBuzdalov;
+import ru.ifmo.nds.NonDominatedSorting;
+import ru.ifmo.nds.NonDominatedSortingFactory;
+import ru.ifmo.nds.util.DominanceHelper;
+
+public class DominanceTest {
+    private static int[] naiveRanks(double[][] points, Dominance dominance) {
+        int n = points.length;
+        int dim = points[0].length;
+        double[][] boxes = new double[n][dim];
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < dim; ++j) {
+                boxes[i][j] = dominance.toBox(points[i][j]);
+            }
+        }
+        // Both relations are compatible with the lexicographical order of boxes, with ties broken by indices.
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; ++i) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            for (int j = 0; j < dim; ++j) {
+                int cmp = Double.compare(boxes[a][j], boxes[b][j]);
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return Integer.compare(a, b);
+        });
+        int[] ranks = new int[n];
+        for (int t = 0; t < n; ++t) {
+            int curr = order[t];
+            for (int s = 0; s < t; ++s) {
+                int prev = order[s];
+                boolean dominates = dominance.isWeak()
+                        ? DominanceHelper.strictlyDominatesAssumingNotEqual(boxes[prev], boxes[curr], dim - 1)
+                        : DominanceHelper.strictlyDominates(boxes[prev], boxes[curr], dim);
+                if (dominates) {
+                    ranks[curr] = Math.max(ranks[curr], ranks[prev] + 1);
+                }
+            }
+        }
+        return ranks;
+    }
+
+    private static double[][] generate(Random random, int n, int dim, int maxValue, double shift) {
+        double[][] points = new double[n][dim];
+        for (double[] point : points) {
+            for (int j = 0; j < dim; ++j) {
+                point[j] = shift + (maxValue > 0 ? random.nextInt(maxValue) : 100 * random.nextDouble());
+            }
+        }
+        return points;
+    }
+
+    private void checkRandom(NonDominatedSortingFactory factory, Dominance dominance,
+                             int maxPoints, int dim, int maxValue, double shift, long seed) {
+        Random random = new Random(seed);
+        try (NonDominatedSorting sorting = factory.getInstance(maxPoints, dim)) {
+            Assert.assertSame(dominance, sorting.getDominance());
+            for (int times = 0; times < 20; ++times) {
+                int n = 1 + random.nextInt(maxPoints);
+                double[][] points = generate(random, n, dim, maxValue, shift);
+                int[] expected = naiveRanks(points, dominance);
+                int[] ranks = new int[n];
+
+                sorting.sort(points, ranks);
+                Assert.assertArrayEquals(expected, ranks);
+
+                double[] coords = new double[n * dim];
+                for (int i = 0; i < n; ++i) {
+                    System.arraycopy(points[i], 0, coords, i * dim, dim);
+                }
+                Arrays.fill(ranks, -1);
+                sorting.sort(coords, n, dim, ranks);
+                Assert.assertArrayEquals(expected, ranks);
+
+                Arrays.fill(ranks, -1);
+                sorting.sort(DoubleBuffer.wrap(coords), n, dim, IntBuffer.wrap(ranks), n);
+                Assert.assertArrayEquals(expected, ranks);
+
+                Arrays.fill(ranks, -1);
+                sorting.sortWithCrowdingDistance(points, ranks, new double[n]);
+                Assert.assertArrayEquals(expected, ranks);
+
+                int[] firstFront = new int[n];
+                int size = sorting.findNonDominated(points, firstFront);
+                int expectedSize = 0;
+                for (int i = 0; i < n; ++i) {
+                    if (expected[i] == 0) {
+                        Assert.assertEquals(i, firstFront[expectedSize++]);
+                    }
+                }
+                Assert.assertEquals(expectedSize, size);
+
+                int[] frontOffsets = new int[n + 1];
+                int[] frontMembers = new int[n];
+                int nFronts = sorting.sortIntoFronts(points, frontOffsets, frontMembers);
+                Arrays.fill(ranks, -1);
+                for (int f = 0; f < nFronts; ++f) {
+                    for (int i = frontOffsets[f]; i < frontOffsets[f + 1]; ++i) {
+                        ranks[frontMembers[i]] = f;
+                    }
+                }
+                Assert.assertArrayEquals(expected, ranks);
+
+                int count = 1 + random.nextInt(n);
+                nFronts = sorting.sortUntilCount(points, ranks, count);
+                for (int i = 0; i < n; ++i) {
+                    Assert.assertEquals(Math.min(expected[i], nFronts), ranks[i]);
+                }
+
+                int nParents = random.nextInt(n + 1);
+                double[][] parents = Arrays.copyOf(points, nParents);
+                int[] parentRanks = nParents == 0 ? new int[0] : naiveRanks(parents, dominance);
+                double[][] offspring = Arrays.copyOfRange(points, nParents, n);
+                Arrays.fill(ranks, -1);
+                sorting.mergeRanked(parents, parentRanks, offspring, ranks);
+                Assert.assertArrayEquals(expected, ranks);
+            }
+        }
+    }
+
+    @Test
+    public void additiveEpsilonENS() {
+        Dominance dominance = Dominance.additiveEpsilon(7.5);
+        for (int dim = 1; dim <= 4; ++dim) {
+            checkRandom(ENS.getENS_BS(dominance), dominance, 60, dim, 0, -20, 7234 + dim);
+            checkRandom(ENS.getENS_SS(dominance), dominance, 60, dim, 0, -20, 2353 + dim);
+        }
+    }
+
+    @Test
+    public void additiveEpsilonJFB() {
+        Dominance dominance = Dominance.additiveEpsilon(3);
+        for (int dim = 1; dim <= 4; ++dim) {
+            checkRandom(JensenFortinBuzdalov.getRedBlackTreeSweepImplementation(1, dominance),
+                    dominance, 80, dim, 20, 0.5, 9824 + dim);
+            checkRandom(JensenFortinBuzdalov.getFenwickSweepImplementation(1, dominance),
+                    dominance, 80, dim, 0, 0, 123 + dim);
+            checkRandom(JensenFortinBuzdalov.getVanEmdeBoasImplementation(dominance),
+                    dominance, 80, dim, 0, 0, 823 + dim);
+        }
+    }
+
+    @Test
+    public void multiplicativeEpsilon() {
+        Dominance dominance = Dominance.multiplicativeEpsilon(0.2);
+        for (int dim = 1; dim <= 4; ++dim) {
+            checkRandom(ENS.getENS_BS(dominance), dominance, 60, dim, 0, 1, 52 + dim);
+            checkRandom(JensenFortinBuzdalov.getRedBlackTreeSweepImplementation(1, dominance),
+                    dominance, 60, dim, 0, 1, 8234 + dim);
+        }
+    }
+
+    @Test
+    public void weakENS() {
+        for (int dim = 1; dim <= 4; ++dim) {
+            checkRandom(ENS.getENS_BS(Dominance.WEAK), Dominance.WEAK, 50, dim, 3, 0, 9234 + dim);
+            checkRandom(ENS.getENS_SS(Dominance.WEAK), Dominance.WEAK, 50, dim, 3, 0, 1263 + dim);
+            checkRandom(ENS.getENS_BS(Dominance.WEAK), Dominance.WEAK, 50, dim, 0, 0, 623 + dim);
+        }
+    }
+
+    @Test
+    public void weakOrdersEqualPointsByIndices() {
+        try (NonDominatedSorting sorting = ENS.getENS_BS(Dominance.WEAK).getInstance(5, 2)) {
+            double[][] points = { { 1, 1 }, { 0, 2 }, { 1, 1 }, { 2, 2 }, { 1, 1 } };
+            int[] ranks = new int[5];
+            sorting.sort(points, ranks);
+            Assert.assertArrayEquals(new int[] { 0, 0, 1, 3, 2 }, ranks);
+            int[] equalRanks = new int[3];
+            sorting.sort(new double[][] { {}, {}, {} }, equalRanks, 1);
+            Assert.assertArrayEquals(new int[] { 0, 1, 2 }, equalRanks);
+            sorting.sort(new int[][] { { 3 }, { 3 }, { 2 } }, equalRanks);
+            Assert.assertArrayEquals(new int[] { 1, 2, 0 }, equalRanks);
+        }
+    }
+
+    @Test
+    public void strictIsTheDefault() {
+        Assert.assertSame(ENS.getENS_BS(), ENS.getENS_BS(Dominance.STRICT));
+        try (NonDominatedSorting sorting = ENS.getENS_BS().getInstance(5, 2)) {
+            Assert.assertSame(Dominance.STRICT, sorting.getDominance());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void weakIsRejectedByJFB() {
+        JensenFortinBuzdalov.getRedBlackTreeSweepImplementation(1, Dominance.WEAK);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void weakIsRejectedByInstances() {
+        try (NonDominatedSorting sorting = JensenFortinBuzdalov.getFenwickSweepImplementation(1).getInstance(5, 2)) {
+            sorting.setDominance(Dominance.WEAK);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void multiplicativeEpsilonNeedsPositiveCoordinates() {
+        try (NonDominatedSorting sorting = ENS.getENS_BS(Dominance.multiplicativeEpsilon(0.1)).getInstance(5, 2)) {
+            sorting.sort(new double[][] { { 1, 2 }, { 0, 3 } }, new int[2]);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void epsilonMustBePositive() {
+        Dominance.additiveEpsilon(0);
+    }
+}
@@ -0,0 +1,110 @@
+package ru.ifmo.nds.tests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ru.ifmo.nds.DynamicNonDominatedSorting;
+import ru.ifmo.nds.ENS;
+import ru.ifmo.nds.NonDominatedSorting;
+
+public class DynamicNonDominatedSortingTest {
+    private void checkRandomOperations(int maxPoints, int dim, int maxValue, long seed) {
+        Random random = new Random(seed);
+        DynamicNonDominatedSorting dynamic = new DynamicNonDominatedSorting(maxPoints, dim);
+        List<Integer> ids = new ArrayList<>();
+        double[][] pointsById = new double[maxPoints][];
+        int[] previousRanks = new int[maxPoints];
+        int[] changed = new int[maxPoints];
+        try (NonDominatedSorting sorting = ENS.getENS_BS().getInstance(maxPoints, dim)) {
+            for (int step = 0; step < 20 * maxPoints; ++step) {
+                for (int id : ids) {
+                    previousRanks[id] = dynamic.getRank(id);
+                }
+                int affected;
+                if (ids.size() == maxPoints || !ids.isEmpty() && random.nextInt(3) == 0) {
+                    affected = ids.remove(random.nextInt(ids.size()));
+                    dynamic.remove(affected);
+                    Assert.assertTrue(!dynamic.contains(affected));
+                } else {
+                    double[] point = new double[dim];
+                    for (int j = 0; j < dim; ++j) {
+                        point[j] = random.nextInt(maxValue);
+                    }
+                    affected = dynamic.insert(point);
+                    pointsById[affected] = point;
+                    ids.add(affected);
+                }
+                Assert.assertEquals(ids.size(), dynamic.size());
+
+                double[][] points = new double[ids.size()][];
+                for (int i = 0; i < ids.size(); ++i) {
+                    points[i] = pointsById[ids.get(i)];
+                }
+                int[] expected = new int[ids.size()];
+                if (!ids.isEmpty()) {
+                    sorting.sort(points, expected);
+                }
+
+                boolean[] isChanged = new boolean[maxPoints];
+                int changedCount = dynamic.getChangedPoints(changed);
+                for (int i = 0; i < changedCount; ++i) {
+                    isChanged[changed[i]] = true;
+                }
+                int maxRank = -1;
+                for (int i = 0; i < ids.size(); ++i) {
+                    int id = ids.get(i);
+                    Assert.assertEquals(expected[i], dynamic.getRank(id));
+                    maxRank = Math.max(maxRank, expected[i]);
+                    if (id != affected) {
+                        Assert.assertEquals(previousRanks[id] != expected[i], isChanged[id]);
+                    }
+                }
+                Assert.assertEquals(maxRank + 1, dynamic.getNumberOfFronts());
+            }
+        }
+    }
+
+    @Test
+    public void randomOperations2D() {
+        checkRandomOperations(30, 2, 10, 7234);
+    }
+
+    @Test
+    public void randomOperations3D() {
+        checkRandomOperations(50, 3, 6, 2365);
+    }
+
+    @Test
+    public void randomOperations5D() {
+        checkRandomOperations(40, 5, 4, 82353);
+    }
+
+    @Test
+    public void frontsAreReported() {
+        DynamicNonDominatedSorting dynamic = new DynamicNonDominatedSorting(4, 2);
+        int a = dynamic.insert(new double[] { 1, 1 });
+        int b = dynamic.insert(new double[] { 2, 2 });
+        int c = dynamic.insert(new double[] { 0, 3 });
+        int[] front = new int[4];
+        Assert.assertEquals(2, dynamic.getFront(0, front));
+        Assert.assertEquals(1, dynamic.getFront(1, front));
+        Assert.assertEquals(b, front[0]);
+
+        int d = dynamic.insert(new double[] { 0, 0 });
+        int[] changed = new int[4];
+        Assert.assertEquals(3, dynamic.getChangedPoints(changed));
+        Assert.assertEquals(0, dynamic.getRank(d));
+        Assert.assertEquals(1, dynamic.getRank(a));
+        Assert.assertEquals(2, dynamic.getRank(b));
+        Assert.assertEquals(1, dynamic.getRank(c));
+
+        dynamic.remove(d);
+        Assert.assertEquals(3, dynamic.getChangedPoints(changed));
+        Assert.assertEquals(0, dynamic.getRank(a));
+        Assert.assertEquals(2, dynamic.getNumberOfFronts());
+    }
+}
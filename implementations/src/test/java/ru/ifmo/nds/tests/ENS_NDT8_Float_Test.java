@@ -0,0 +1,11 @@
+package ru.ifmo.nds.tests;
+
+import ru.ifmo.nds.ENS;
+import ru.ifmo.nds.NonDominatedSortingFactory;
+
+public class ENS_NDT8_Float_Test extends CorrectnessTestsBase {
+    @Override
+    protected NonDominatedSortingFactory getFactory() {
+        return ENS.getENS_NDT_Float(8);
+    }
+}
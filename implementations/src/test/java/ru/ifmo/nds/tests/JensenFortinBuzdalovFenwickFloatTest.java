@@ -0,0 +1,11 @@
+package ru.ifmo.nds.tests;
+
+import ru.ifmo.nds.JensenFortinBuzdalov;
+import ru.ifmo.nds.NonDominatedSortingFactory;
+
+public class JensenFortinBuzdalovFenwickFloatTest extends CorrectnessTestsBase {
+    @Override
+    protected NonDominatedSortingFactory getFactory() {
+        return JensenFortinBuzdalov.getFenwickSweepFloatImplementation(1);
+    }
+}
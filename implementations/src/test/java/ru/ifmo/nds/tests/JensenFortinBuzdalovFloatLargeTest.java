@@ -0,0 +1,64 @@
+package ru.ifmo.nds.tests;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ru.ifmo.nds.JensenFortinBuzdalov;
+import ru.ifmo.nds.NonDominatedSorting;
+import ru.ifmo.nds.NonDominatedSortingFactory;
+
+public class JensenFortinBuzdalovFloatLargeTest {
+    private static final int[] SIZES = { 9000, 20000, 60000 };
+    private static final int DIMENSION = 3;
+
+    private static void checkAgainstReference(double[][] points) {
+        int n = points.length;
+        int[] expected = new int[n];
+        try (NonDominatedSorting reference = JensenFortinBuzdalov
+                .getRedBlackTreeSweepImplementation(1).getInstance(n, DIMENSION)) {
+            reference.sort(points, expected);
+        }
+        NonDominatedSortingFactory[] factories = {
+                JensenFortinBuzdalov.getFenwickSweepFloatImplementation(1),
+                JensenFortinBuzdalov.getFenwickSweepFloatImplementation(-1),
+                JensenFortinBuzdalov.getFenwickSweepFloatHybridNDTImplementation(8, 1),
+        };
+        int[] ranks = new int[n];
+        for (NonDominatedSortingFactory factory : factories) {
+            try (NonDominatedSorting sorting = factory.getInstance(n, DIMENSION)) {
+                sorting.sort(points, ranks);
+                Assert.assertArrayEquals(sorting.getName(), expected, ranks);
+            }
+        }
+    }
+
+    @Test
+    public void largeIntegerInputs() {
+        Random random = new Random(5523810);
+        for (int n : SIZES) {
+            double[][] points = new double[n][DIMENSION];
+            for (double[] point : points) {
+                for (int j = 0; j < DIMENSION; ++j) {
+                    point[j] = random.nextInt(50);
+                }
+            }
+            checkAgainstReference(points);
+        }
+    }
+
+    @Test
+    public void largeInputsNotRepresentableAsFloats() {
+        Random random = new Random(9174206);
+        for (int n : SIZES) {
+            double[][] points = new double[n][DIMENSION];
+            for (double[] point : points) {
+                for (int j = 0; j < DIMENSION; ++j) {
+                    point[j] = random.nextDouble();
+                }
+            }
+            checkAgainstReference(points);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package ru.ifmo.nds.tests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ru.ifmo.nds.JensenFortinBuzdalov;
+import ru.ifmo.nds.NonDominatedSorting;
+import ru.ifmo.nds.NonDominatedSortingPool;
+
+public class NonDominatedSortingPoolTest {
+    @Test
+    public void reusesReturnedInstances() {
+        try (NonDominatedSortingPool pool = NonDominatedSortingPool.create(
+                JensenFortinBuzdalov.getVanEmdeBoasImplementation(), 10, 3)) {
+            NonDominatedSorting first;
+            try (NonDominatedSortingPool.Lease lease = pool.acquire()) {
+                first = lease.getSorting();
+            }
+            Assert.assertEquals(1, pool.getIdleCount());
+            try (NonDominatedSortingPool.Lease lease = pool.acquire()) {
+                Assert.assertSame(first, lease.getSorting());
+                Assert.assertEquals(0, pool.getIdleCount());
+            }
+            pool.releaseIdle();
+            Assert.assertEquals(0, pool.getIdleCount());
+        }
+    }
+
+    @Test
+    public void leasesAreNotReused() {
+        try (NonDominatedSortingPool pool = NonDominatedSortingPool.create(
+                JensenFortinBuzdalov.getVanEmdeBoasImplementation(), 10, 3)) {
+            NonDominatedSortingPool.Lease stale = pool.acquire();
+            NonDominatedSorting sorting = stale.getSorting();
+            stale.close();
+            try (NonDominatedSortingPool.Lease current = pool.acquire()) {
+                Assert.assertNotSame(stale, current);
+                Assert.assertSame(sorting, current.getSorting());
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void closingStaleLeaseThrows() {
+        try (NonDominatedSortingPool pool = NonDominatedSortingPool.create(
+                JensenFortinBuzdalov.getVanEmdeBoasImplementation(), 10, 3)) {
+            NonDominatedSortingPool.Lease stale = pool.acquire();
+            stale.close();
+            try (NonDominatedSortingPool.Lease ignored = pool.acquire()) {
+                stale.close();
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void usingStaleLeaseThrows() {
+        try (NonDominatedSortingPool pool = NonDominatedSortingPool.create(
+                JensenFortinBuzdalov.getVanEmdeBoasImplementation(), 10, 3)) {
+            NonDominatedSortingPool.Lease stale = pool.acquire();
+            stale.close();
+            try (NonDominatedSortingPool.Lease ignored = pool.acquire()) {
+                stale.getSorting();
+            }
+        }
+    }
+
+    @Test
+    public void keepsAtMostMaximumIdle() {
+        try (NonDominatedSortingPool pool = NonDominatedSortingPool.create(
+                JensenFortinBuzdalov.getVanEmdeBoasImplementation(), 10, 3, 2, 60000)) {
+            List<NonDominatedSortingPool.Lease> leases = new ArrayList<>();
+            for (int i = 0; i < 5; ++i) {
+                leases.add(pool.acquire());
+            }
+            for (NonDominatedSortingPool.Lease lease : leases) {
+                lease.close();
+            }
+            Assert.assertEquals(2, pool.getIdleCount());
+        }
+    }
+
+    @Test
+    public void expiresIdleInstances() {
+        try (NonDominatedSortingPool pool = NonDominatedSortingPool.create(
+                JensenFortinBuzdalov.getVanEmdeBoasImplementation(), 10, 3, 10, 0)) {
+            NonDominatedSortingPool.Lease a = pool.acquire();
+            NonDominatedSortingPool.Lease b = pool.acquire();
+            a.close();
+            long start = System.nanoTime();
+            while (System.nanoTime() == start) {
+                Thread.yield();
+            }
+            b.close();
+            Assert.assertEquals(1, pool.getIdleCount());
+        }
+    }
+
+    @Test
+    public void expiresIdleInstancesOnAcquire() {
+        try (NonDominatedSortingPool pool = NonDominatedSortingPool.create(
+                JensenFortinBuzdalov.getVanEmdeBoasImplementation(), 10, 3, 10, 0)) {
+            NonDominatedSorting first;
+            try (NonDominatedSortingPool.Lease lease = pool.acquire()) {
+                first = lease.getSorting();
+            }
+            long start = System.nanoTime();
+            while (System.nanoTime() == start) {
+                Thread.yield();
+            }
+            try (NonDominatedSortingPool.Lease lease = pool.acquire()) {
+                Assert.assertNotSame(first, lease.getSorting());
+                Assert.assertEquals(0, pool.getIdleCount());
+            }
+        }
+    }
+
+    @Test
+    public void sortsCorrectlyFromManyThreads() throws InterruptedException {
+        int n = 50, dim = 3;
+        Random random = new Random(24357);
+        double[][] points = new double[n][dim];
+        for (double[] point : points) {
+            for (int j = 0; j < dim; ++j) {
+                point[j] = random.nextInt(10);
+            }
+        }
+        int[] expected = new int[n];
+        try (NonDominatedSorting sorting = JensenFortinBuzdalov.getVanEmdeBoasImplementation().getInstance(n, dim)) {
+            sorting.sort(points, expected);
+        }
+
+        try (NonDominatedSortingPool pool = NonDominatedSortingPool.create(
+                JensenFortinBuzdalov.getVanEmdeBoasImplementation(), n, dim, 3, 60000)) {
+            Thread[] threads = new Thread[8];
+            Throwable[] failures = new Throwable[threads.length];
+            for (int t = 0; t < threads.length; ++t) {
+                final int index = t;
+                threads[t] = new Thread(() -> {
+                    try {
+                        int[] ranks = new int[n];
+                        for (int i = 0; i < 200; ++i) {
+                            pool.sort(points, ranks);
+                            Assert.assertArrayEquals(expected, ranks);
+                        }
+                    } catch (Throwable th) {
+                        failures[index] = th;
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            for (Throwable failure : failures) {
+                if (failure != null) {
+                    throw new AssertionError(failure);
+                }
+            }
+            Assert.assertTrue(pool.getIdleCount() <= 3);
+        }
+    }
+}
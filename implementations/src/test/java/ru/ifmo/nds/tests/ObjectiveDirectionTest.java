@@ -0,0 +1,104 @@
+package ru.ifmo.nds.tests;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ru.ifmo.nds.BestOrderSort;
+import ru.ifmo.nds.Dominance;
+import ru.ifmo.nds.ENS;
+import ru.ifmo.nds.JensenFortinBuzdalov;
+import ru.ifmo.nds.NonDominatedSorting;
+import ru.ifmo.nds.NonDominatedSortingFactory;
+
+public class ObjectiveDirectionTest {
+    private void checkRandom(NonDominatedSortingFactory factory, Dominance dominance,
+                             int maxPoints, int dim, int maxValue, long seed) {
+        Random random = new Random(seed);
+        boolean[] maximized = new boolean[dim];
+        try (NonDominatedSorting reference = factory.getInstance(maxPoints, dim)) {
+            for (int times = 0; times < 20; ++times) {
+                for (int j = 0; j < dim; ++j) {
+                    maximized[j] = random.nextBoolean();
+                }
+                int n = 1 + random.nextInt(maxPoints);
+                double[][] points = new double[n][dim];
+                double[][] negated = new double[n][dim];
+                int[][] intPoints = new int[n][dim];
+                for (int i = 0; i < n; ++i) {
+                    for (int j = 0; j < dim; ++j) {
+                        intPoints[i][j] = 1 + random.nextInt(maxValue);
+                        points[i][j] = intPoints[i][j];
+                        double box = dominance.toBox(points[i][j]);
+                        negated[i][j] = maximized[j] ? -box : box;
+                    }
+                }
+                int[] expected = new int[n];
+                reference.sort(negated, expected);
+
+                try (NonDominatedSorting sorting = factory.getInstance(maxPoints, dim, maximized)) {
+                    sorting.setDominance(dominance);
+                    for (int j = 0; j < dim; ++j) {
+                        Assert.assertTrue(maximized[j] == sorting.isMaximized(j));
+                    }
+                    int[] ranks = new int[n];
+                    sorting.sort(points, ranks);
+                    Assert.assertArrayEquals(expected, ranks);
+                    ranks = new int[n];
+                    sorting.sort(intPoints, ranks);
+                    Assert.assertArrayEquals(expected, ranks);
+                    double[] coords = new double[n * dim];
+                    for (int i = 0; i < n; ++i) {
+                        System.arraycopy(points[i], 0, coords, i * dim, dim);
+                    }
+                    ranks = new int[n];
+                    sorting.sort(coords, n, dim, ranks);
+                    Assert.assertArrayEquals(expected, ranks);
+                    ranks = new int[n];
+                    sorting.sort(DoubleBuffer.wrap(coords), n, dim, IntBuffer.wrap(ranks), n);
+                    Assert.assertArrayEquals(expected, ranks);
+                    double[][] columns = new double[dim][n];
+                    for (int i = 0; i < n; ++i) {
+                        for (int j = 0; j < dim; ++j) {
+                            columns[j][i] = points[i][j];
+                        }
+                    }
+                    ranks = new int[n];
+                    sorting.sortByColumns(columns, ranks);
+                    Assert.assertArrayEquals(expected, ranks);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void mixedDirections() {
+        for (int dim = 1; dim <= 5; ++dim) {
+            checkRandom(ENS.getENS_BS(), Dominance.STRICT, 50, dim, 5, 8234 + dim);
+            checkRandom(JensenFortinBuzdalov.getRedBlackTreeSweepImplementation(1), Dominance.STRICT, 50, dim, 5, 234 + dim);
+            checkRandom(BestOrderSort.getImprovedImplementation(), Dominance.STRICT, 50, dim, 1000, 7345 + dim);
+        }
+    }
+
+    @Test
+    public void mixedDirectionsWithEpsilonBoxes() {
+        for (int dim = 1; dim <= 4; ++dim) {
+            checkRandom(ENS.getENS_SS(), Dominance.multiplicativeEpsilon(0.3), 50, dim, 100, 623 + dim);
+            checkRandom(ENS.getENS_SS(), Dominance.additiveEpsilon(4), 50, dim, 100, 923 + dim);
+        }
+    }
+
+    @Test
+    public void maskWithoutMaximizedObjectivesIsIgnored() {
+        try (NonDominatedSorting sorting = ENS.getENS_BS().getInstance(10, 3, new boolean[] { false, false })) {
+            Assert.assertTrue(!sorting.isMaximized(0));
+            Assert.assertTrue(!sorting.isMaximized(2));
+            sorting.setMaximizedObjectives(new boolean[] { false, true });
+            Assert.assertTrue(sorting.isMaximized(1));
+            Assert.assertTrue(!sorting.isMaximized(2));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package ru.ifmo.nds.tests;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ru.ifmo.nds.ENS;
+import ru.ifmo.nds.NonDominatedSorting;
+import ru.ifmo.nds.SlidingWindowNonDominatedSorting;
+
+public class SlidingWindowNonDominatedSortingTest {
+    private void checkStream(int windowSize, int dim, int maxValue, long seed) {
+        Random random = new Random(seed);
+        SlidingWindowNonDominatedSorting window = new SlidingWindowNonDominatedSorting(windowSize, dim);
+        double[][] stream = new double[10 * windowSize][dim];
+        int[] actual = new int[windowSize];
+        try (NonDominatedSorting sorting = ENS.getENS_BS().getInstance(windowSize, dim)) {
+            for (int t = 0; t < stream.length; ++t) {
+                for (int j = 0; j < dim; ++j) {
+                    stream[t][j] = random.nextInt(maxValue);
+                }
+                int rank = window.push(stream[t]);
+
+                int size = Math.min(t + 1, windowSize);
+                Assert.assertEquals(size, window.size());
+                double[][] contents = new double[size][];
+                System.arraycopy(stream, t + 1 - size, contents, 0, size);
+                int[] expected = new int[size];
+                sorting.sort(contents, expected);
+                Assert.assertEquals(expected[size - 1], rank);
+                window.getRanks(actual);
+                for (int i = 0; i < size; ++i) {
+                    Assert.assertEquals(expected[i], actual[i]);
+                    Assert.assertEquals(expected[i], window.getRank(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void stream2D() {
+        checkStream(20, 2, 10, 823423);
+    }
+
+    @Test
+    public void stream4D() {
+        checkStream(35, 4, 5, 234234);
+    }
+
+    @Test
+    public void windowOfOne() {
+        checkStream(1, 3, 5, 12312);
+    }
+}
@@ -13,6 +13,7 @@ import org.junit.Test;
 import ru.ifmo.nds.ndt.SplitBuilder;
 import ru.ifmo.nds.util.ArrayHelper;
 import ru.ifmo.nds.util.ArraySorter;
+import ru.ifmo.nds.util.ObjectiveHelper;
 
 public class SplitBuilderTest {
     @SuppressWarnings("SameParameterValue")
@@ -65,7 +66,7 @@ public class SplitBuilderTest {
             }
         }
 
-        new SplitBuilder(transposedPoints, n, 50).result(newN, dim);
+        new SplitBuilder<>(ObjectiveHelper.DOUBLES, transposedPoints, n, 50).result(newN, dim);
     }
 
     @Test